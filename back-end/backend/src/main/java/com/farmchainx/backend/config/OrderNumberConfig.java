@@ -0,0 +1,40 @@
+package com.farmchainx.backend.config;
+
+import com.farmchainx.backend.repository.PooledIdAllocator;
+import com.farmchainx.backend.service.OrderNumberGenerator;
+import com.farmchainx.backend.service.SnowflakeOrderNumberGenerator;
+import com.farmchainx.backend.util.SnowflakeIdGenerator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class OrderNumberConfig {
+    
+    private static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(OrderNumberConfig.class);
+    
+    static final String NODE_COUNTER = "order_number_node";
+    
+    // Every node writing to the same database needs its own id (0-1023); -1 takes one from the database
+    @Value("${app.order-number.node-id:-1}")
+    private int nodeId;
+    
+    @Bean
+    @ConditionalOnMissingBean(OrderNumberGenerator.class)
+    public OrderNumberGenerator orderNumberGenerator(PooledIdAllocator pooledIdAllocator) {
+        int node = nodeId >= 0 ? nodeId : leasedNodeId(pooledIdAllocator);
+        logger.info("Order numbers use Snowflake node id {}", node);
+        return new SnowflakeOrderNumberGenerator(new SnowflakeIdGenerator(node));
+    }
+    
+    /**
+     * Each startup takes the next value of a counter in id_blocks, so node ids only repeat
+     * after 1024 further startups; a node would have to outlive all of them to collide.
+     * Fails startup rather than guessing when the database cannot hand one out.
+     */
+    static int leasedNodeId(PooledIdAllocator pooledIdAllocator) {
+        long startup = pooledIdAllocator.nextCounterValue(NODE_COUNTER);
+        return (int) (startup % (SnowflakeIdGenerator.MAX_NODE_ID + 1));
+    }
+}
@@ -0,0 +1,10 @@
+package com.farmchainx.backend.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+// Background jobs (order archival) run on Spring's single scheduler thread
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -0,0 +1,53 @@
+package com.farmchainx.backend.controller;
+
+import com.farmchainx.backend.dto.SalesReportDTO;
+import com.farmchainx.backend.service.SalesRollupService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/analytics")
+@CrossOrigin(origins = "*")
+public class AnalyticsController {
+
+    @Autowired
+    private SalesRollupService salesRollupService;
+
+    // Sales per day, week or month from the rollups; from/to are ISO dates, both inclusive (default: last 30 days)
+    @GetMapping("/distributor/{distributorId}/sales")
+    public ResponseEntity<?> getSalesReport(
+            @PathVariable Long distributorId,
+            @RequestParam(value = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(value = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(value = "granularity", defaultValue = "day") String granularity,
+            @RequestParam(value = "productId", required = false) Long productId) {
+        try {
+            SalesReportDTO report = salesRollupService.getReport(distributorId, from, to, granularity, productId);
+            return ResponseEntity.ok(report);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+        }
+    }
+
+    // Backfill / repair: recompute one distributor's rollups from the order tables
+    @PostMapping("/distributor/{distributorId}/sales/rebuild")
+    public ResponseEntity<?> rebuildDistributor(@PathVariable Long distributorId) {
+        int rows = salesRollupService.rebuild(distributorId);
+        return ResponseEntity.ok(Map.of("distributorId", distributorId, "rows", rows));
+    }
+
+    // Recompute every distributor's rollups in the background
+    @PostMapping("/sales/rebuild")
+    public ResponseEntity<?> rebuildAll() {
+        if (!salesRollupService.startRebuildAll()) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("message", "A rebuild is already running"));
+        }
+        return ResponseEntity.accepted().body(Map.of("message", "Rebuild started"));
+    }
+}
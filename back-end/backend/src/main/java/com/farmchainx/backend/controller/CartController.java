@@ -0,0 +1,50 @@
+package com.farmchainx.backend.controller;
+
+import com.farmchainx.backend.dto.OrderItemRequestDTO;
+import com.farmchainx.backend.dto.StockHoldDTO;
+import com.farmchainx.backend.service.StockHoldService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/cart")
+@CrossOrigin(origins = "*")
+public class CartController {
+
+    @Autowired
+    private StockHoldService stockHoldService;
+
+    // Add to cart: holds the quantity for the consumer until the hold expires or the cart is checked out
+    @PutMapping("/consumer/{consumerId}/holds")
+    public ResponseEntity<?> holdStock(@PathVariable Long consumerId, @RequestBody OrderItemRequestDTO item) {
+        try {
+            StockHoldDTO hold = stockHoldService.hold(consumerId, item.getProductId(), item.getQuantity());
+            return ResponseEntity.ok(hold);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+        }
+    }
+
+    @GetMapping("/consumer/{consumerId}/holds")
+    public ResponseEntity<List<StockHoldDTO>> getHolds(@PathVariable Long consumerId) {
+        return ResponseEntity.ok(stockHoldService.getHolds(consumerId));
+    }
+
+    @DeleteMapping("/consumer/{consumerId}/holds/{productId}")
+    public ResponseEntity<?> releaseHold(@PathVariable Long consumerId, @PathVariable Long productId) {
+        if (!stockHoldService.release(consumerId, productId)) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.noContent().build();
+    }
+
+    @DeleteMapping("/consumer/{consumerId}/holds")
+    public ResponseEntity<?> releaseAll(@PathVariable Long consumerId) {
+        int released = stockHoldService.releaseAll(consumerId);
+        return ResponseEntity.ok(Map.of("released", released));
+    }
+}
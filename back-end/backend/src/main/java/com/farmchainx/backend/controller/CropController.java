@@ -12,12 +12,14 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.farmchainx.backend.dto.CropDTO;
 import com.farmchainx.backend.dto.DashboardStatsDTO;
 import com.farmchainx.backend.service.CropService;
+import com.farmchainx.backend.service.IdempotencyService;
 
 import jakarta.servlet.http.HttpServletRequest;
 
@@ -29,6 +31,9 @@ public class CropController {
     @Autowired
     private CropService cropService;
 
+    @Autowired
+    private IdempotencyService idempotencyService;
+
     @GetMapping("/crops")
     public ResponseEntity<List<CropDTO>> getFarmerCrops(HttpServletRequest request) {
         try {
@@ -56,14 +61,22 @@ public class CropController {
     @PostMapping("/crops")
     public ResponseEntity<?> addCrop(
             HttpServletRequest request,
-            @RequestBody CropDTO cropDTO) {
+            @RequestBody CropDTO cropDTO,
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey) {
+        Long userId;
         try {
-            Long userId = getUserIdFromRequest(request);
-            CropDTO savedCrop = cropService.addCrop(userId, cropDTO);
-            return ResponseEntity.ok(savedCrop);
+            userId = getUserIdFromRequest(request);
         } catch (Exception e) {
             return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
         }
+        return idempotencyService.execute(idempotencyKey, "POST /api/farmer/crops user " + userId, cropDTO, () -> {
+            try {
+                CropDTO savedCrop = cropService.addCrop(userId, cropDTO);
+                return ResponseEntity.ok(savedCrop);
+            } catch (Exception e) {
+                return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+            }
+        });
     }
 
     @PutMapping("/crops/{cropId}/status")
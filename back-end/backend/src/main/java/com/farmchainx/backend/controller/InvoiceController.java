@@ -1,44 +1,94 @@
 package com.farmchainx.backend.controller;
 
 import com.farmchainx.backend.dto.OrderDTO;
+import com.farmchainx.backend.service.InvoiceCacheService;
+import com.farmchainx.backend.service.InvoiceCacheService.CachedInvoice;
+import com.farmchainx.backend.service.InvoiceExportService;
 import com.farmchainx.backend.service.OrderService;
-import com.farmchainx.backend.service.PdfService;
+import com.farmchainx.backend.util.ETags;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
-import com.itextpdf.text.DocumentException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.LocalDateTime;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/invoice")
 @CrossOrigin(origins = "*")
 public class InvoiceController {
-    
+
+    @Autowired
+    private InvoiceCacheService invoiceCacheService;
+
     @Autowired
     private OrderService orderService;
-    
+
     @Autowired
-    private PdfService pdfService;
-    
+    private InvoiceExportService invoiceExportService;
+
+    // Cached PDFs carry an ETag for If-None-Match; a miss is streamed out while it renders
+    // (and cached on the way), so its tag only appears on the next download
     @GetMapping("/{orderId}/download")
-    public ResponseEntity<byte[]> downloadInvoice(@PathVariable Long orderId) {
-        try {
-            OrderDTO order = orderService.getOrderById(orderId);
-            byte[] pdfBytes = pdfService.generateInvoicePdf(order);
-            
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_PDF);
-            headers.setContentDispositionFormData("attachment", 
-                "invoice_" + order.getOrderNumber() + ".pdf");
-            headers.setCacheControl("must-revalidate, post-check=0, pre-check=0");
-            
+    public ResponseEntity<StreamingResponseBody> downloadInvoice(
+            @PathVariable Long orderId,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        CachedInvoice invoice = invoiceCacheService.findCached(orderId);
+        if (invoice != null) {
+            if (ETags.matches(ifNoneMatch, invoice.getEtag())) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                        .eTag(invoice.getEtag())
+                        .cacheControl(CacheControl.noCache().cachePrivate())
+                        .build();
+            }
             return ResponseEntity.ok()
-                    .headers(headers)
-                    .body(pdfBytes);
-                    
-        } catch (DocumentException e) {
-            return ResponseEntity.badRequest().build();
+                    .headers(pdfHeaders(invoice.getFileName()))
+                    .contentLength(invoice.getLength())
+                    .eTag(invoice.getEtag())
+                    .cacheControl(CacheControl.noCache().cachePrivate())
+                    .body(invoice::writeTo);
         }
+
+        // Loaded before the response starts, so an unknown order is still a plain error
+        OrderDTO order = orderService.getOrderById(orderId);
+        return ResponseEntity.ok()
+                .headers(pdfHeaders(InvoiceCacheService.fileName(order.getOrderNumber())))
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .body(out -> invoiceCacheService.renderTo(order, out));
+    }
+
+    // Every invoice of the distributor's orders placed in [from, to), streamed as one ZIP
+    @GetMapping("/distributor/{distributorId}/export")
+    public ResponseEntity<?> exportDistributorInvoices(
+            @PathVariable Long distributorId,
+            @RequestParam(value = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(value = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        try {
+            invoiceExportService.validateRange(from, to);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+        }
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.parseMediaType("application/zip"));
+        headers.setContentDispositionFormData("attachment", "invoices_" + distributorId + "_"
+                + from.toLocalDate() + "_" + to.toLocalDate() + ".zip");
+        StreamingResponseBody body = out -> invoiceExportService.exportDistributorInvoices(distributorId, from, to, out);
+        return ResponseEntity.ok()
+                .headers(headers)
+                .body(body);
+    }
+
+    private static HttpHeaders pdfHeaders(String fileName) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_PDF);
+        headers.setContentDispositionFormData("attachment", fileName);
+        return headers;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,130 @@
+package com.farmchainx.backend.controller;
+
+import com.farmchainx.backend.repository.PooledIdAllocator;
+import com.farmchainx.backend.service.CatalogCacheService;
+import com.farmchainx.backend.service.CatalogEventFeedService;
+import com.farmchainx.backend.service.CatalogPriceService;
+import com.farmchainx.backend.service.IdempotencyService;
+import com.farmchainx.backend.service.InvoiceCacheService;
+import com.farmchainx.backend.service.InvoiceExportService;
+import com.farmchainx.backend.service.OrderArchiveService;
+import com.farmchainx.backend.service.OrderIntakeService;
+import com.farmchainx.backend.service.ProductImportService;
+import com.farmchainx.backend.service.ProductSearchService;
+import com.farmchainx.backend.service.SalesRollupService;
+import com.farmchainx.backend.service.StockHoldService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/metrics")
+@CrossOrigin(origins = "*")
+public class MetricsController {
+
+    @Autowired
+    private CatalogCacheService catalogCacheService;
+
+    @Autowired
+    private ProductSearchService productSearchService;
+
+    @Autowired
+    private ProductImportService productImportService;
+
+    @Autowired
+    private CatalogPriceService catalogPriceService;
+
+    @Autowired
+    private CatalogEventFeedService catalogEventFeedService;
+
+    @Autowired
+    private OrderIntakeService orderIntakeService;
+
+    @Autowired
+    private IdempotencyService idempotencyService;
+
+    @Autowired
+    private SalesRollupService salesRollupService;
+
+    @Autowired
+    private OrderArchiveService orderArchiveService;
+
+    @Autowired
+    private StockHoldService stockHoldService;
+
+    @Autowired
+    private PooledIdAllocator pooledIdAllocator;
+
+    @Autowired
+    private InvoiceCacheService invoiceCacheService;
+
+    @Autowired
+    private InvoiceExportService invoiceExportService;
+
+    @GetMapping("/catalog-cache")
+    public ResponseEntity<Map<String, Object>> getCatalogCacheStats() {
+        return ResponseEntity.ok(catalogCacheService.getStats());
+    }
+
+    @GetMapping("/search-index")
+    public ResponseEntity<Map<String, Object>> getSearchIndexStats() {
+        return ResponseEntity.ok(productSearchService.getStats());
+    }
+
+    @GetMapping("/product-import")
+    public ResponseEntity<Map<String, Object>> getProductImportStats() {
+        return ResponseEntity.ok(productImportService.getStats());
+    }
+
+    @GetMapping("/price-index")
+    public ResponseEntity<Map<String, Object>> getPriceIndexStats() {
+        return ResponseEntity.ok(catalogPriceService.getStats());
+    }
+
+    @GetMapping("/catalog-feed")
+    public ResponseEntity<Map<String, Object>> getCatalogFeedStats() {
+        return ResponseEntity.ok(catalogEventFeedService.getStats());
+    }
+
+    @GetMapping("/order-intake")
+    public ResponseEntity<Map<String, Object>> getOrderIntakeStats() {
+        return ResponseEntity.ok(orderIntakeService.getStats());
+    }
+
+    @GetMapping("/idempotency")
+    public ResponseEntity<Map<String, Object>> getIdempotencyStats() {
+        return ResponseEntity.ok(idempotencyService.getStats());
+    }
+
+    @GetMapping("/sales-rollups")
+    public ResponseEntity<Map<String, Object>> getSalesRollupStats() {
+        return ResponseEntity.ok(salesRollupService.getStats());
+    }
+
+    @GetMapping("/order-archive")
+    public ResponseEntity<Map<String, Object>> getOrderArchiveStats() {
+        return ResponseEntity.ok(orderArchiveService.getStats());
+    }
+
+    @GetMapping("/cart-holds")
+    public ResponseEntity<Map<String, Object>> getCartHoldStats() {
+        return ResponseEntity.ok(stockHoldService.getStats());
+    }
+
+    @GetMapping("/id-blocks")
+    public ResponseEntity<Map<String, Object>> getIdBlockStats() {
+        return ResponseEntity.ok(pooledIdAllocator.getStats());
+    }
+
+    @GetMapping("/invoice-cache")
+    public ResponseEntity<Map<String, Object>> getInvoiceCacheStats() {
+        return ResponseEntity.ok(invoiceCacheService.getStats());
+    }
+
+    @GetMapping("/invoice-export")
+    public ResponseEntity<Map<String, Object>> getInvoiceExportStats() {
+        return ResponseEntity.ok(invoiceExportService.getStats());
+    }
+}
@@ -1,14 +1,31 @@
 package com.farmchainx.backend.controller;
 
+import com.farmchainx.backend.dto.BulkUpdateResultDTO;
+import com.farmchainx.backend.dto.CursorPageDTO;
 import com.farmchainx.backend.dto.OrderDTO;
+import com.farmchainx.backend.dto.OrderIntakeStatusDTO;
 import com.farmchainx.backend.dto.OrderRequestDTO;
+import com.farmchainx.backend.dto.OrderStatusUpdateDTO;
 import com.farmchainx.backend.entity.Order;
+import com.farmchainx.backend.service.IdempotencyService;
+import com.farmchainx.backend.service.OrderIntakeService;
 import com.farmchainx.backend.service.OrderService;
+import com.farmchainx.backend.service.ResourceVersionService;
+import com.farmchainx.backend.util.ETags;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.net.URI;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/orders")
@@ -18,15 +35,82 @@ public class OrderController {
     @Autowired
     private OrderService orderService;
     
+    @Autowired
+    private OrderIntakeService orderIntakeService;
+    
+    @Autowired
+    private ResourceVersionService resourceVersionService;
+    
+    @Autowired
+    private IdempotencyService idempotencyService;
+    
     @PostMapping("/consumer/{consumerId}")
     public ResponseEntity<?> createOrder(@RequestBody OrderRequestDTO orderRequest,
-                                       @PathVariable Long consumerId) {
+                                       @PathVariable Long consumerId,
+                                       @RequestParam(value = "async", defaultValue = "false") boolean async,
+                                       @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey) {
+        // A retried request with the same key gets the first response instead of a second order
+        return idempotencyService.execute(idempotencyKey, "POST /api/orders/consumer/" + consumerId,
+                List.of(async, orderRequest), () -> {
+            if (async) {
+                return submitOrder(orderRequest, consumerId);
+            }
+            try {
+                Order order = orderService.createOrder(orderRequest, consumerId);
+                return ResponseEntity.ok(orderService.getOrderById(order.getId()));
+            } catch (Exception e) {
+                return ResponseEntity.badRequest().body(e.getMessage());
+            }
+        });
+    }
+
+    // One order per distributor in the cart, created together or not at all
+    @PostMapping("/consumer/{consumerId}/checkout")
+    public ResponseEntity<?> checkout(@RequestBody OrderRequestDTO orderRequest,
+                                      @PathVariable Long consumerId,
+                                      @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey) {
+        return idempotencyService.execute(idempotencyKey, "POST /api/orders/consumer/" + consumerId + "/checkout",
+                orderRequest, () -> {
+            try {
+                return ResponseEntity.ok(orderService.checkout(orderRequest, consumerId));
+            } catch (Exception e) {
+                return ResponseEntity.badRequest().body(e.getMessage());
+            }
+        });
+    }
+
+    // Async intake: 202 with a tracking id; the order is created by the intake worker in a group commit
+    private ResponseEntity<?> submitOrder(OrderRequestDTO orderRequest, Long consumerId) {
         try {
-            Order order = orderService.createOrder(orderRequest, consumerId);
-            return ResponseEntity.ok(order);
-        } catch (Exception e) {
-            return ResponseEntity.badRequest().body(e.getMessage());
+            OrderIntakeStatusDTO status = orderIntakeService.submit(orderRequest, consumerId);
+            return ResponseEntity.accepted()
+                    .location(URI.create("/api/orders/intake/" + status.getTrackingId()))
+                    .body(status);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "1")
+                    .body(Map.of("message", e.getMessage()));
+        }
+    }
+    
+    @GetMapping("/intake/{trackingId}")
+    public ResponseEntity<OrderIntakeStatusDTO> getIntakeStatus(@PathVariable String trackingId) {
+        OrderIntakeStatusDTO status = orderIntakeService.getStatus(trackingId);
+        if (status == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok().cacheControl(CacheControl.noStore()).body(status);
+    }
+    
+    @GetMapping(value = "/intake/{trackingId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> subscribeIntakeStatus(@PathVariable String trackingId) {
+        SseEmitter emitter = orderIntakeService.subscribe(trackingId);
+        if (emitter == null) {
+            return ResponseEntity.notFound().build();
         }
+        return ResponseEntity.ok(emitter);
     }
     
     @GetMapping("/consumer/{consumerId}")
@@ -35,10 +119,52 @@ public class OrderController {
         return ResponseEntity.ok(orders);
     }
     
+    // Keyset-paginated history, newest first; from/to are ISO date-times, to is exclusive
+    @GetMapping("/consumer/{consumerId}/page")
+    public ResponseEntity<?> getConsumerOrdersPage(
+            @PathVariable Long consumerId,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "size", required = false) Integer size,
+            @RequestParam(value = "status", required = false) String status,
+            @RequestParam(value = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(value = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        try {
+            CursorPageDTO<OrderDTO> page = orderService.getConsumerOrdersPage(consumerId, cursor, size, status, from, to);
+            return ResponseEntity.ok(page);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+        }
+    }
+    
+    @GetMapping("/distributor/{distributorId}/page")
+    public ResponseEntity<?> getDistributorOrdersPage(
+            @PathVariable Long distributorId,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "size", required = false) Integer size,
+            @RequestParam(value = "status", required = false) String status,
+            @RequestParam(value = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(value = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        try {
+            CursorPageDTO<OrderDTO> page = orderService.getDistributorOrdersPage(distributorId, cursor, size, status, from, to);
+            return ResponseEntity.ok(page);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+        }
+    }
+    
     @GetMapping("/distributor/{distributorId}")
-    public ResponseEntity<List<OrderDTO>> getDistributorOrders(@PathVariable Long distributorId) {
+    public ResponseEntity<List<OrderDTO>> getDistributorOrders(
+            @PathVariable Long distributorId,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        String etag = resourceVersionService.distributorOrdersETag(distributorId);
+        if (ETags.matches(ifNoneMatch, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
         List<OrderDTO> orders = orderService.getOrdersByDistributor(distributorId);
-        return ResponseEntity.ok(orders);
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(CacheControl.noCache())
+                .body(orders);
     }
     
     @PutMapping("/{orderId}/status")
@@ -46,12 +172,24 @@ public class OrderController {
                                              @RequestParam String status) {
         try {
             Order order = orderService.updateOrderStatus(orderId, status);
-            return ResponseEntity.ok(order);
+            return ResponseEntity.ok(orderService.getOrderById(order.getId()));
         } catch (Exception e) {
             return ResponseEntity.badRequest().body(e.getMessage());
         }
     }
     
+    // Bulk transition: {"orderIds": [1, 2, 3], "status": "SHIPPED"}; disallowed transitions come back as rejected
+    @PatchMapping(value = "/distributor/{distributorId}/status", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<?> bulkUpdateOrderStatus(@PathVariable Long distributorId,
+                                                   @RequestBody OrderStatusUpdateDTO update) {
+        try {
+            BulkUpdateResultDTO result = orderService.bulkUpdateStatus(distributorId, update);
+            return ResponseEntity.ok(result);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+        }
+    }
+    
     @GetMapping("/{orderId}")
     public ResponseEntity<OrderDTO> getOrder(@PathVariable Long orderId) {
         OrderDTO order = orderService.getOrderById(orderId);
@@ -1,21 +1,45 @@
 package com.farmchainx.backend.controller;
 
+import com.farmchainx.backend.dto.BulkUpdateResultDTO;
+import com.farmchainx.backend.dto.CursorPageDTO;
+import com.farmchainx.backend.dto.FacetedCatalogDTO;
+import com.farmchainx.backend.dto.ProductImportReportDTO;
+import com.farmchainx.backend.dto.ProductPageDTO;
+import com.farmchainx.backend.dto.ProductStockUpdateDTO;
 import com.farmchainx.backend.dto.ProductDTO;
 import com.farmchainx.backend.entity.Product;
+import com.farmchainx.backend.service.CatalogCacheService;
+import com.farmchainx.backend.service.CatalogEventFeedService;
+import com.farmchainx.backend.service.CatalogFacetService;
+import com.farmchainx.backend.service.CatalogPriceService;
+import com.farmchainx.backend.service.IdempotencyService;
+import com.farmchainx.backend.service.ProductSearchService;
+import com.farmchainx.backend.service.ProductImportService;
 import com.farmchainx.backend.service.ProductService;
+import com.farmchainx.backend.service.ResourceVersionService;
+import com.farmchainx.backend.service.StockHoldService;
+import com.farmchainx.backend.util.ETags;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 
@@ -27,6 +51,36 @@ public class ProductController {
     @Autowired
     private ProductService productService;
 
+    @Autowired
+    private CatalogCacheService catalogCacheService;
+
+    @Autowired
+    private ProductSearchService productSearchService;
+
+    @Autowired
+    private CatalogFacetService catalogFacetService;
+
+    @Autowired
+    private StockHoldService stockHoldService;
+
+    @Autowired
+    private CatalogPriceService catalogPriceService;
+
+    @Autowired
+    private CatalogEventFeedService catalogEventFeedService;
+
+    @Autowired
+    private ResourceVersionService resourceVersionService;
+
+    @Autowired
+    private ProductImportService productImportService;
+
+    @Autowired
+    private IdempotencyService idempotencyService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
     private final String UPLOAD_DIR = "uploads/products/";
     
     @PostMapping(value = "/distributor/{distributorId}", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
@@ -38,31 +92,35 @@ public class ProductController {
             @RequestParam("price") Double price,
             @RequestParam("quantity") Integer quantity,
             @RequestParam("unit") String unit,
-            @RequestParam(value = "image", required = false) MultipartFile image) {
+            @RequestParam(value = "image", required = false) MultipartFile image,
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey) {
         
-        try {
-            ProductDTO productDTO = new ProductDTO();
-            productDTO.setName(name);
-            productDTO.setDescription(description);
-            productDTO.setCategory(category);
-            productDTO.setPrice(price);
-            productDTO.setQuantity(quantity);
-            productDTO.setUnit(unit);
+        return idempotencyService.execute(idempotencyKey, "POST /api/products/distributor/" + distributorId,
+                productFingerprint(name, description, category, price, quantity, unit, image), () -> {
+            try {
+                ProductDTO productDTO = new ProductDTO();
+                productDTO.setName(name);
+                productDTO.setDescription(description);
+                productDTO.setCategory(category);
+                productDTO.setPrice(price);
+                productDTO.setQuantity(quantity);
+                productDTO.setUnit(unit);
 
-            // Handle image upload
-            if (image != null && !image.isEmpty()) {
-                String imageUrl = saveImage(image);
-                productDTO.setImageUrl(imageUrl);
-            }
+                // Handle image upload
+                if (image != null && !image.isEmpty()) {
+                    String imageUrl = saveImage(image);
+                    productDTO.setImageUrl(imageUrl);
+                }
 
-            Product product = productService.addProduct(productDTO, distributorId);
-            return ResponseEntity.ok(product);
+                Product product = productService.addProduct(productDTO, distributorId);
+                return ResponseEntity.ok(product);
             
-        } catch (Exception e) {
-            return ResponseEntity.badRequest().body(
-                Map.of("message", "Failed to add product: " + e.getMessage())
-            );
-        }
+            } catch (Exception e) {
+                return ResponseEntity.badRequest().body(
+                    Map.of("message", "Failed to add product: " + e.getMessage())
+                );
+            }
+        });
     }
 
     @PostMapping(value = "/distributor/{distributorId}/form-data", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
@@ -74,43 +132,241 @@ public class ProductController {
             @RequestParam("price") Double price,
             @RequestParam("quantity") Integer quantity,
             @RequestParam("unit") String unit,
-            @RequestParam(value = "image", required = false) MultipartFile image) {
+            @RequestParam(value = "image", required = false) MultipartFile image,
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey) {
         
-        try {
-            ProductDTO productDTO = new ProductDTO();
-            productDTO.setName(name);
-            productDTO.setDescription(description);
-            productDTO.setCategory(category);
-            productDTO.setPrice(price);
-            productDTO.setQuantity(quantity);
-            productDTO.setUnit(unit);
+        return idempotencyService.execute(idempotencyKey, "POST /api/products/distributor/" + distributorId,
+                productFingerprint(name, description, category, price, quantity, unit, image), () -> {
+            try {
+                ProductDTO productDTO = new ProductDTO();
+                productDTO.setName(name);
+                productDTO.setDescription(description);
+                productDTO.setCategory(category);
+                productDTO.setPrice(price);
+                productDTO.setQuantity(quantity);
+                productDTO.setUnit(unit);
 
-            // Handle image upload
-            if (image != null && !image.isEmpty()) {
-                String imageUrl = saveImage(image);
-                productDTO.setImageUrl(imageUrl);
-            }
+                // Handle image upload
+                if (image != null && !image.isEmpty()) {
+                    String imageUrl = saveImage(image);
+                    productDTO.setImageUrl(imageUrl);
+                }
 
-            Product product = productService.addProduct(productDTO, distributorId);
-            return ResponseEntity.ok(product);
+                Product product = productService.addProduct(productDTO, distributorId);
+                return ResponseEntity.ok(product);
             
-        } catch (Exception e) {
-            return ResponseEntity.badRequest().body(
-                Map.of("message", "Failed to add product: " + e.getMessage())
-            );
+            } catch (Exception e) {
+                return ResponseEntity.badRequest().body(
+                    Map.of("message", "Failed to add product: " + e.getMessage())
+                );
+            }
+        });
+    }
+    
+    // All product create endpoints share this, so a key retried against any of them replays
+    private static List<Object> productFingerprint(String name, String description, String category, Double price,
+                                                   Integer quantity, String unit, MultipartFile image) {
+        List<Object> fingerprint = new ArrayList<>(Arrays.asList(name, description, category, price, quantity, unit));
+        if (image != null && !image.isEmpty()) {
+            fingerprint.add(image.getOriginalFilename());
+            fingerprint.add(image.getSize());
+        }
+        return fingerprint;
+    }
+    
+    // Bulk import from an uploaded CSV or NDJSON file
+    @PostMapping(value = "/distributor/{distributorId}/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<?> importProducts(
+            @PathVariable Long distributorId,
+            @RequestParam("file") MultipartFile file,
+            @RequestParam(value = "format", required = false) String format) {
+        String importFormat = format;
+        if (importFormat == null) {
+            String fileName = file.getOriginalFilename();
+            importFormat = fileName != null && fileName.contains(".")
+                    ? fileName.substring(fileName.lastIndexOf('.') + 1)
+                    : file.getContentType();
+        }
+        try {
+            ProductImportReportDTO report = productImportService.importProducts(
+                    distributorId, file.getInputStream(), importFormat);
+            return ResponseEntity.ok(report);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+        } catch (IOException e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("message", "Failed to read import: " + e.getMessage()));
+        }
+    }
+
+    // Bulk import streamed as the raw request body, so large files skip multipart buffering
+    @PostMapping(value = "/distributor/{distributorId}/import", consumes = {"text/csv", "application/x-ndjson"})
+    public ResponseEntity<?> importProductsFromBody(@PathVariable Long distributorId, HttpServletRequest request) {
+        try {
+            ProductImportReportDTO report = productImportService.importProducts(
+                    distributorId, request.getInputStream(), request.getContentType());
+            return ResponseEntity.ok(report);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+        } catch (IOException e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("message", "Failed to read import: " + e.getMessage()));
         }
     }
     
     @GetMapping("/distributor/{distributorId}")
-    public ResponseEntity<List<ProductDTO>> getDistributorProducts(@PathVariable Long distributorId) {
+    public ResponseEntity<List<ProductDTO>> getDistributorProducts(
+            @PathVariable Long distributorId,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        // Taken before the query, so a write that races with it makes the next poll refetch
+        String etag = resourceVersionService.distributorProductsETag(distributorId);
+        if (ETags.matches(ifNoneMatch, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
         List<ProductDTO> products = productService.getProductsByDistributor(distributorId);
-        return ResponseEntity.ok(products);
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(CacheControl.noCache())
+                .body(products);
     }
     
+    // Served from the pre-serialized catalog snapshot. It carries stock only, without
+    // availableToPromise: cart holds change too often to rebuild the snapshot for each one.
+    // Clients that need it browse /available/page, /filter, /by-price, /cheapest or /stream.
     @GetMapping("/available")
-    public ResponseEntity<List<ProductDTO>> getAllAvailableProducts() {
-        List<ProductDTO> products = productService.getAllAvailableProducts();
-        return ResponseEntity.ok(products);
+    public ResponseEntity<byte[]> getAllAvailableProducts(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        CatalogCacheService.CatalogSnapshot snapshot = catalogCacheService.getSnapshot();
+        String etag = resourceVersionService.catalogETag(snapshot.getVersion());
+        if (ETags.matches(ifNoneMatch, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .eTag(etag)
+                .cacheControl(CacheControl.noCache())
+                .header("X-Catalog-Version", String.valueOf(snapshot.getVersion()))
+                .body(snapshot.getJson());
+    }
+
+    @GetMapping("/available/page")
+    public ResponseEntity<?> getAvailableProductsPage(
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "size", required = false) Integer size,
+            @RequestParam(value = "sort", defaultValue = "id") String sort) {
+        try {
+            CursorPageDTO<ProductDTO> page = productService.getAvailableProductsPage(cursor, size, sort);
+            return ResponseEntity.ok(page);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+        }
+    }
+
+    @GetMapping("/available/filter")
+    public ResponseEntity<?> filterAvailableProducts(
+            @RequestParam(value = "category", required = false) List<String> categories,
+            @RequestParam(value = "minPrice", required = false) Double minPrice,
+            @RequestParam(value = "maxPrice", required = false) Double maxPrice,
+            @RequestParam(value = "distributorId", required = false) List<Long> distributorIds,
+            @RequestParam(value = "unit", required = false) List<String> units,
+            @RequestParam(value = "page", required = false) Integer page,
+            @RequestParam(value = "size", required = false) Integer size) {
+        try {
+            FacetedCatalogDTO result = catalogFacetService.filter(
+                    categories, minPrice, maxPrice, distributorIds, units, page, size);
+            return ResponseEntity.ok(result);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "5")
+                    .body(Map.of("message", e.getMessage()));
+        }
+    }
+
+    @GetMapping("/available/by-price")
+    public ResponseEntity<?> getAvailableProductsByPrice(
+            @RequestParam(value = "minPrice", required = false) Double minPrice,
+            @RequestParam(value = "maxPrice", required = false) Double maxPrice,
+            @RequestParam(value = "order", defaultValue = "asc") String order,
+            @RequestParam(value = "page", required = false) Integer page,
+            @RequestParam(value = "size", required = false) Integer size) {
+        try {
+            ProductPageDTO result = catalogPriceService.byPrice(minPrice, maxPrice, order, page, size);
+            return ResponseEntity.ok(result);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "5")
+                    .body(Map.of("message", e.getMessage()));
+        }
+    }
+
+    @GetMapping("/available/cheapest")
+    public ResponseEntity<?> getCheapestInCategory(
+            @RequestParam("category") String category,
+            @RequestParam(value = "limit", required = false) Integer limit) {
+        try {
+            return ResponseEntity.ok(catalogPriceService.cheapestInCategory(category, limit));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "5")
+                    .body(Map.of("message", e.getMessage()));
+        }
+    }
+
+    // Newline-delimited JSON, written row by row while the database cursor is read
+    @GetMapping(value = "/available/stream", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> streamAvailableProducts() {
+        StreamingResponseBody body = outputStream -> {
+            int[] written = {0};
+            productService.streamAvailableProducts(product -> {
+                try {
+                    stockHoldService.applyAvailableToPromise(List.of(product));
+                    outputStream.write(objectMapper.writeValueAsBytes(product));
+                    outputStream.write('\n');
+                    if (++written[0] % 500 == 0) {
+                        outputStream.flush();
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            outputStream.flush();
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/x-ndjson"))
+                .body(body);
+    }
+    
+    // Live catalog changes; EventSource sends Last-Event-ID on reconnect, lastEventId covers the first connect
+    @GetMapping(value = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamCatalogEvents(
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventIdHeader,
+            @RequestParam(value = "lastEventId", required = false) String lastEventIdParam) {
+        try {
+            String lastEventId = lastEventIdHeader != null ? lastEventIdHeader : lastEventIdParam;
+            return ResponseEntity.ok(catalogEventFeedService.subscribe(lastEventId));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+    }
+
+    @GetMapping("/search")
+    public ResponseEntity<?> searchProducts(
+            @RequestParam("q") String query,
+            @RequestParam(value = "limit", required = false) Integer limit) {
+        try {
+            List<ProductDTO> products = productSearchService.search(query, limit);
+            return ResponseEntity.ok(products);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "5")
+                    .body(Map.of("message", e.getMessage()));
+        }
     }
     
     @PutMapping(value = "/{productId}", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
@@ -149,6 +405,18 @@ public class ProductController {
         }
     }
     
+    // Bulk price / stock patch: [{"productId": 1, "price": 42.0, "quantity": 10}, ...]
+    @PatchMapping(value = "/distributor/{distributorId}/bulk", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<?> bulkUpdatePriceAndStock(@PathVariable Long distributorId,
+                                                     @RequestBody List<ProductStockUpdateDTO> updates) {
+        try {
+            BulkUpdateResultDTO result = productService.bulkUpdatePriceAndStock(distributorId, updates);
+            return ResponseEntity.ok(result);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+        }
+    }
+    
     @DeleteMapping("/{productId}")
     public ResponseEntity<?> deleteProduct(@PathVariable Long productId) {
         try {
@@ -214,13 +482,23 @@ public class ProductController {
     // Keep the original JSON endpoint for backward compatibility
     @PostMapping(value = "/distributor/{distributorId}/json", consumes = MediaType.APPLICATION_JSON_VALUE)
     public ResponseEntity<?> addProductJson(@RequestBody ProductDTO productDTO, 
-                                          @PathVariable Long distributorId) {
-        try {
-            Product product = productService.addProduct(productDTO, distributorId);
-            return ResponseEntity.ok(product);
-        } catch (Exception e) {
-            return ResponseEntity.badRequest().body(e.getMessage());
+                                          @PathVariable Long distributorId,
+                                          @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey) {
+        List<Object> fingerprint = productFingerprint(productDTO.getName(), productDTO.getDescription(),
+                productDTO.getCategory(), productDTO.getPrice(), productDTO.getQuantity(), productDTO.getUnit(), null);
+        if (productDTO.getImageUrl() != null) {
+            fingerprint.add(productDTO.getImageUrl());
         }
+
+        return idempotencyService.execute(idempotencyKey, "POST /api/products/distributor/" + distributorId,
+                fingerprint, () -> {
+            try {
+                Product product = productService.addProduct(productDTO, distributorId);
+                return ResponseEntity.ok(product);
+            } catch (Exception e) {
+                return ResponseEntity.badRequest().body(e.getMessage());
+            }
+        });
     }
 
     // Add a test endpoint for debugging image uploads
@@ -0,0 +1,24 @@
+package com.farmchainx.backend.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class BulkUpdateResultDTO {
+    private int requested;
+    private List<Long> updated = new ArrayList<>();
+    private List<RejectedItemDTO> rejected = new ArrayList<>();
+    private long elapsedMillis;
+
+    // Getters and Setters
+    public int getRequested() { return requested; }
+    public void setRequested(int requested) { this.requested = requested; }
+
+    public List<Long> getUpdated() { return updated; }
+    public void setUpdated(List<Long> updated) { this.updated = updated; }
+
+    public List<RejectedItemDTO> getRejected() { return rejected; }
+    public void setRejected(List<RejectedItemDTO> rejected) { this.rejected = rejected; }
+
+    public long getElapsedMillis() { return elapsedMillis; }
+    public void setElapsedMillis(long elapsedMillis) { this.elapsedMillis = elapsedMillis; }
+}
@@ -0,0 +1,24 @@
+package com.farmchainx.backend.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class CheckoutResultDTO {
+    private List<Long> orderIds = new ArrayList<>();
+    private List<String> orderNumbers = new ArrayList<>();
+    private Double totalAmount;
+    private List<OrderDTO> orders = new ArrayList<>();
+
+    // Getters and Setters
+    public List<Long> getOrderIds() { return orderIds; }
+    public void setOrderIds(List<Long> orderIds) { this.orderIds = orderIds; }
+
+    public List<String> getOrderNumbers() { return orderNumbers; }
+    public void setOrderNumbers(List<String> orderNumbers) { this.orderNumbers = orderNumbers; }
+
+    public Double getTotalAmount() { return totalAmount; }
+    public void setTotalAmount(Double totalAmount) { this.totalAmount = totalAmount; }
+
+    public List<OrderDTO> getOrders() { return orders; }
+    public void setOrders(List<OrderDTO> orders) { this.orders = orders; }
+}
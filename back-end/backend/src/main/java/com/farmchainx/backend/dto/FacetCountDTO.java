@@ -0,0 +1,25 @@
+package com.farmchainx.backend.dto;
+
+public class FacetCountDTO {
+    private String value;   // what to send back as a filter parameter
+    private String label;   // what to show, e.g. "₹0–50"
+    private int count;
+
+    public FacetCountDTO() {}
+
+    public FacetCountDTO(String value, String label, int count) {
+        this.value = value;
+        this.label = label;
+        this.count = count;
+    }
+
+    // Getters and Setters
+    public String getValue() { return value; }
+    public void setValue(String value) { this.value = value; }
+
+    public String getLabel() { return label; }
+    public void setLabel(String label) { this.label = label; }
+
+    public int getCount() { return count; }
+    public void setCount(int count) { this.count = count; }
+}
@@ -0,0 +1,39 @@
+package com.farmchainx.backend.dto;
+
+import java.util.List;
+import java.util.Map;
+
+public class FacetedCatalogDTO {
+    private List<ProductDTO> items;
+    private int total;
+    private int page;
+    private int size;
+    private Map<String, List<FacetCountDTO>> facets; // keyed by category, distributor, unit, price
+
+    public FacetedCatalogDTO() {}
+
+    public FacetedCatalogDTO(List<ProductDTO> items, int total, int page, int size,
+                             Map<String, List<FacetCountDTO>> facets) {
+        this.items = items;
+        this.total = total;
+        this.page = page;
+        this.size = size;
+        this.facets = facets;
+    }
+
+    // Getters and Setters
+    public List<ProductDTO> getItems() { return items; }
+    public void setItems(List<ProductDTO> items) { this.items = items; }
+
+    public int getTotal() { return total; }
+    public void setTotal(int total) { this.total = total; }
+
+    public int getPage() { return page; }
+    public void setPage(int page) { this.page = page; }
+
+    public int getSize() { return size; }
+    public void setSize(int size) { this.size = size; }
+
+    public Map<String, List<FacetCountDTO>> getFacets() { return facets; }
+    public void setFacets(Map<String, List<FacetCountDTO>> facets) { this.facets = facets; }
+}
@@ -0,0 +1,20 @@
+package com.farmchainx.backend.dto;
+
+public class ImportErrorDTO {
+    private long row;        // 1-based data row, not counting the CSV header
+    private String message;
+
+    public ImportErrorDTO() {}
+
+    public ImportErrorDTO(long row, String message) {
+        this.row = row;
+        this.message = message;
+    }
+
+    // Getters and Setters
+    public long getRow() { return row; }
+    public void setRow(long row) { this.row = row; }
+
+    public String getMessage() { return message; }
+    public void setMessage(String message) { this.message = message; }
+}
@@ -0,0 +1,56 @@
+package com.farmchainx.backend.dto;
+
+import java.time.LocalDateTime;
+
+public class OrderIntakeStatusDTO {
+    public static final String QUEUED = "QUEUED";
+    public static final String CREATED = "CREATED";
+    public static final String FAILED = "FAILED";
+
+    private String trackingId;
+    private String status;
+    private Long orderId;
+    private String orderNumber;
+    private String message;
+    private LocalDateTime submittedAt;
+    private LocalDateTime completedAt;
+
+    public OrderIntakeStatusDTO() {}
+
+    public OrderIntakeStatusDTO(String trackingId, String status, Long orderId, String orderNumber, String message,
+                                LocalDateTime submittedAt, LocalDateTime completedAt) {
+        this.trackingId = trackingId;
+        this.status = status;
+        this.orderId = orderId;
+        this.orderNumber = orderNumber;
+        this.message = message;
+        this.submittedAt = submittedAt;
+        this.completedAt = completedAt;
+    }
+
+    public boolean isFinal() {
+        return CREATED.equals(status) || FAILED.equals(status);
+    }
+
+    // Getters and Setters
+    public String getTrackingId() { return trackingId; }
+    public void setTrackingId(String trackingId) { this.trackingId = trackingId; }
+
+    public String getStatus() { return status; }
+    public void setStatus(String status) { this.status = status; }
+
+    public Long getOrderId() { return orderId; }
+    public void setOrderId(Long orderId) { this.orderId = orderId; }
+
+    public String getOrderNumber() { return orderNumber; }
+    public void setOrderNumber(String orderNumber) { this.orderNumber = orderNumber; }
+
+    public String getMessage() { return message; }
+    public void setMessage(String message) { this.message = message; }
+
+    public LocalDateTime getSubmittedAt() { return submittedAt; }
+    public void setSubmittedAt(LocalDateTime submittedAt) { this.submittedAt = submittedAt; }
+
+    public LocalDateTime getCompletedAt() { return completedAt; }
+    public void setCompletedAt(LocalDateTime completedAt) { this.completedAt = completedAt; }
+}
@@ -1,13 +1,28 @@
 package com.farmchainx.backend.dto;
 
 public class OrderItemDTO {
+    private Long orderId;
     private Long productId;
     private String productName;
     private Integer quantity;
     private Double price;
     private Double subtotal;
 
+    public OrderItemDTO() {}
+
+    public OrderItemDTO(Long orderId, Long productId, String productName, Integer quantity, Double price, Double subtotal) {
+        this.orderId = orderId;
+        this.productId = productId;
+        this.productName = productName;
+        this.quantity = quantity;
+        this.price = price;
+        this.subtotal = subtotal;
+    }
+
     // Getters and Setters
+    public Long getOrderId() { return orderId; }
+    public void setOrderId(Long orderId) { this.orderId = orderId; }
+
     public Long getProductId() { return productId; }
     public void setProductId(Long productId) { this.productId = productId; }
 
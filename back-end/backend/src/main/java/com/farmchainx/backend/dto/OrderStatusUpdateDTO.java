@@ -0,0 +1,16 @@
+package com.farmchainx.backend.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class OrderStatusUpdateDTO {
+    private List<Long> orderIds = new ArrayList<>();
+    private String status;
+
+    // Getters and Setters
+    public List<Long> getOrderIds() { return orderIds; }
+    public void setOrderIds(List<Long> orderIds) { this.orderIds = orderIds; }
+
+    public String getStatus() { return status; }
+    public void setStatus(String status) { this.status = status; }
+}
@@ -12,6 +12,7 @@ public class ProductDTO {
     private Boolean isAvailable;
     private Long distributorId;
     private String distributorName; // Add this field
+    private Integer availableToPromise; // stock minus active cart holds
 
     // Constructors
     public ProductDTO() {}
@@ -28,6 +29,23 @@ public class ProductDTO {
         this.isAvailable = true;
     }
 
+    // Used by the JPQL constructor expressions in ProductRepository
+    public ProductDTO(Long id, String name, String description, String category, Double price,
+                     Integer quantity, String unit, String imageUrl, Boolean isAvailable,
+                     Long distributorId, String distributorName) {
+        this.id = id;
+        this.name = name;
+        this.description = description;
+        this.category = category;
+        this.price = price;
+        this.quantity = quantity;
+        this.unit = unit;
+        this.imageUrl = imageUrl;
+        this.isAvailable = isAvailable;
+        this.distributorId = distributorId;
+        this.distributorName = distributorName;
+    }
+
     // Getters and Setters
     public Long getId() { return id; }
     public void setId(Long id) { this.id = id; }
@@ -61,4 +79,7 @@ public class ProductDTO {
 
     public String getDistributorName() { return distributorName; }
     public void setDistributorName(String distributorName) { this.distributorName = distributorName; }
-}
\ No newline at end of file
+
+    public Integer getAvailableToPromise() { return availableToPromise; }
+    public void setAvailableToPromise(Integer availableToPromise) { this.availableToPromise = availableToPromise; }
+}
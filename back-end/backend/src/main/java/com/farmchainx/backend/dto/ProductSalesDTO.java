@@ -0,0 +1,35 @@
+package com.farmchainx.backend.dto;
+
+public class ProductSalesDTO {
+    private Long productId;
+    private String productName;
+    private long orders;
+    private long quantity;
+    private double revenue;
+
+    public ProductSalesDTO() {}
+
+    public ProductSalesDTO(Long productId, String productName, long orders, long quantity, double revenue) {
+        this.productId = productId;
+        this.productName = productName;
+        this.orders = orders;
+        this.quantity = quantity;
+        this.revenue = revenue;
+    }
+
+    // Getters and Setters
+    public Long getProductId() { return productId; }
+    public void setProductId(Long productId) { this.productId = productId; }
+
+    public String getProductName() { return productName; }
+    public void setProductName(String productName) { this.productName = productName; }
+
+    public long getOrders() { return orders; }
+    public void setOrders(long orders) { this.orders = orders; }
+
+    public long getQuantity() { return quantity; }
+    public void setQuantity(long quantity) { this.quantity = quantity; }
+
+    public double getRevenue() { return revenue; }
+    public void setRevenue(double revenue) { this.revenue = revenue; }
+}
@@ -0,0 +1,25 @@
+package com.farmchainx.backend.dto;
+
+public class ProductStockUpdateDTO {
+    private Long productId;
+    private Double price;      // null leaves the price unchanged
+    private Integer quantity;  // null leaves the stock unchanged
+
+    public ProductStockUpdateDTO() {}
+
+    public ProductStockUpdateDTO(Long productId, Double price, Integer quantity) {
+        this.productId = productId;
+        this.price = price;
+        this.quantity = quantity;
+    }
+
+    // Getters and Setters
+    public Long getProductId() { return productId; }
+    public void setProductId(Long productId) { this.productId = productId; }
+
+    public Double getPrice() { return price; }
+    public void setPrice(Double price) { this.price = price; }
+
+    public Integer getQuantity() { return quantity; }
+    public void setQuantity(Integer quantity) { this.quantity = quantity; }
+}
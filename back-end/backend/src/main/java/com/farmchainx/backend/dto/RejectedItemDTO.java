@@ -0,0 +1,20 @@
+package com.farmchainx.backend.dto;
+
+public class RejectedItemDTO {
+    private Long id;
+    private String reason;
+
+    public RejectedItemDTO() {}
+
+    public RejectedItemDTO(Long id, String reason) {
+        this.id = id;
+        this.reason = reason;
+    }
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public String getReason() { return reason; }
+    public void setReason(String reason) { this.reason = reason; }
+}
@@ -0,0 +1,32 @@
+package com.farmchainx.backend.dto;
+
+import java.time.LocalDate;
+
+public class SalesPointDTO {
+    private LocalDate period;
+    private long orders;
+    private long quantity;
+    private double revenue;
+
+    public SalesPointDTO() {}
+
+    public SalesPointDTO(LocalDate period, long orders, long quantity, double revenue) {
+        this.period = period;
+        this.orders = orders;
+        this.quantity = quantity;
+        this.revenue = revenue;
+    }
+
+    // Getters and Setters
+    public LocalDate getPeriod() { return period; }
+    public void setPeriod(LocalDate period) { this.period = period; }
+
+    public long getOrders() { return orders; }
+    public void setOrders(long orders) { this.orders = orders; }
+
+    public long getQuantity() { return quantity; }
+    public void setQuantity(long quantity) { this.quantity = quantity; }
+
+    public double getRevenue() { return revenue; }
+    public void setRevenue(double revenue) { this.revenue = revenue; }
+}
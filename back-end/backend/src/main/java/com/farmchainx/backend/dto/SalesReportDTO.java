@@ -0,0 +1,41 @@
+package com.farmchainx.backend.dto;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+public class SalesReportDTO {
+    private Long distributorId;
+    private Long productId;
+    private LocalDate from;
+    private LocalDate to;
+    private String granularity;
+    private SalesPointDTO totals;
+    private List<SalesPointDTO> series = new ArrayList<>();
+    private List<ProductSalesDTO> products = new ArrayList<>();
+
+    // Getters and Setters
+    public Long getDistributorId() { return distributorId; }
+    public void setDistributorId(Long distributorId) { this.distributorId = distributorId; }
+
+    public Long getProductId() { return productId; }
+    public void setProductId(Long productId) { this.productId = productId; }
+
+    public LocalDate getFrom() { return from; }
+    public void setFrom(LocalDate from) { this.from = from; }
+
+    public LocalDate getTo() { return to; }
+    public void setTo(LocalDate to) { this.to = to; }
+
+    public String getGranularity() { return granularity; }
+    public void setGranularity(String granularity) { this.granularity = granularity; }
+
+    public SalesPointDTO getTotals() { return totals; }
+    public void setTotals(SalesPointDTO totals) { this.totals = totals; }
+
+    public List<SalesPointDTO> getSeries() { return series; }
+    public void setSeries(List<SalesPointDTO> series) { this.series = series; }
+
+    public List<ProductSalesDTO> getProducts() { return products; }
+    public void setProducts(List<ProductSalesDTO> products) { this.products = products; }
+}
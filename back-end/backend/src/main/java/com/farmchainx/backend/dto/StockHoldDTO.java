@@ -0,0 +1,27 @@
+package com.farmchainx.backend.dto;
+
+import java.time.LocalDateTime;
+
+public class StockHoldDTO {
+    private Long productId;
+    private Integer quantity;
+    private LocalDateTime expiresAt;
+
+    public StockHoldDTO() {}
+
+    public StockHoldDTO(Long productId, Integer quantity, LocalDateTime expiresAt) {
+        this.productId = productId;
+        this.quantity = quantity;
+        this.expiresAt = expiresAt;
+    }
+
+    // Getters and Setters
+    public Long getProductId() { return productId; }
+    public void setProductId(Long productId) { this.productId = productId; }
+
+    public Integer getQuantity() { return quantity; }
+    public void setQuantity(Integer quantity) { this.quantity = quantity; }
+
+    public LocalDateTime getExpiresAt() { return expiresAt; }
+    public void setExpiresAt(LocalDateTime expiresAt) { this.expiresAt = expiresAt; }
+}
@@ -9,7 +9,7 @@ import java.time.LocalDateTime;
 @Table(name = "crops")
 public class Crop {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @PooledId(table = "crops")
     private Long id;
 
     @Column(nullable = false)
@@ -0,0 +1,25 @@
+package com.farmchainx.backend.entity;
+
+import jakarta.persistence.*;
+
+/**
+ * High-water mark of one table's pooled ids: the next id not yet handed out to any
+ * application node. Written only by PooledIdAllocator.
+ */
+@Entity
+@Table(name = "id_blocks")
+public class IdBlock {
+    @Id
+    @Column(length = 64)
+    private String name;
+
+    @Column(name = "next_value", nullable = false)
+    private Long nextValue;
+
+    // Getters and Setters
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+
+    public Long getNextValue() { return nextValue; }
+    public void setNextValue(Long nextValue) { this.nextValue = nextValue; }
+}
@@ -8,10 +8,14 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "orders")
+@Table(name = "orders", indexes = {
+    @Index(name = "idx_orders_consumer_date", columnList = "consumer_id, order_date, id"),
+    @Index(name = "idx_orders_distributor_date", columnList = "distributor_id, order_date, id"),
+    @Index(name = "idx_orders_status_date", columnList = "status, order_date")
+})
 public class Order {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @PooledId(table = "orders", seedFrom = "orders_archive")
     private Long id;
 
     @Column(name = "order_number", unique = true, nullable = false)
@@ -53,6 +57,7 @@ public class Order {
     @OneToMany(mappedBy = "order", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private List<OrderItem> orderItems = new ArrayList<>();
 
+    // Fallback only: OrderService assigns collision-free numbers from OrderNumberGenerator
     @PrePersist
     public void generateOrderNumber() {
         if (this.orderNumber == null) {
@@ -6,7 +6,7 @@ import jakarta.persistence.*;
 @Table(name = "order_items")
 public class OrderItem {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @PooledId(table = "order_items", seedFrom = "order_items_archive")
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -0,0 +1,53 @@
+package com.farmchainx.backend.entity;
+
+import java.util.EnumSet;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Order lifecycle: PENDING -> CONFIRMED -> SHIPPED -> DELIVERED, and CANCELLED from any
+ * state that is not yet final. Stored as its name in orders.status.
+ */
+public enum OrderStatus {
+    PENDING,
+    CONFIRMED,
+    SHIPPED,
+    DELIVERED,
+    CANCELLED;
+
+    public boolean isFinal() {
+        return this == DELIVERED || this == CANCELLED;
+    }
+
+    public boolean canTransitionTo(OrderStatus target) {
+        return allowedSources(target).contains(this);
+    }
+
+    /** States an order must be in to move to {@code target}. */
+    public static Set<OrderStatus> allowedSources(OrderStatus target) {
+        switch (target) {
+            case CONFIRMED:
+                return EnumSet.of(PENDING);
+            case SHIPPED:
+                return EnumSet.of(CONFIRMED);
+            case DELIVERED:
+                return EnumSet.of(SHIPPED);
+            case CANCELLED:
+                return EnumSet.of(PENDING, CONFIRMED, SHIPPED);
+            default:
+                return EnumSet.noneOf(OrderStatus.class);
+        }
+    }
+
+    /** Parses a status case-insensitively; null when the value is not a known status. */
+    public static OrderStatus fromValue(String value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.farmchainx.backend.entity;
+
+import org.hibernate.annotations.IdGeneratorType;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks an id as allocated in blocks from the id_blocks table (see PooledIdAllocator)
+ * instead of by AUTO_INCREMENT, so Hibernate knows the id before the INSERT and can batch.
+ * The block counter starts above the highest id already in {@link #table} and {@link #seedFrom}.
+ */
+@IdGeneratorType(PooledIdGenerator.class)
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.FIELD, ElementType.METHOD})
+public @interface PooledId {
+
+    /** Table the ids belong to; also the name of its id_blocks row. */
+    String table();
+
+    /** Other tables holding ids of the same sequence, e.g. the archive copy. */
+    String[] seedFrom() default {};
+}
@@ -0,0 +1,22 @@
+package com.farmchainx.backend.entity;
+
+import com.farmchainx.backend.repository.PooledIdAllocator;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.IdentifierGenerator;
+
+/** Hibernate side of {@link PooledId}: hands out the next id of the entity's block. */
+public class PooledIdGenerator implements IdentifierGenerator {
+
+    private static final long serialVersionUID = 1L;
+
+    private final PooledId config;
+
+    public PooledIdGenerator(PooledId config) {
+        this.config = config;
+    }
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object entity) {
+        return PooledIdAllocator.current().nextId(config);
+    }
+}
@@ -3,10 +3,13 @@ package com.farmchainx.backend.entity;
 import jakarta.persistence.*;
 
 @Entity
-@Table(name = "products")
+@Table(name = "products", indexes = {
+    @Index(name = "idx_products_available_price", columnList = "is_available, price, id"),
+    @Index(name = "idx_products_available_name", columnList = "is_available, name, id")
+})
 public class Product {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @PooledId(table = "products")
     private Long id;
 
     @Column(nullable = false)
@@ -0,0 +1,61 @@
+package com.farmchainx.backend.entity;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDate;
+
+/**
+ * Daily sales of one distributor, per product. The row with product id 0 holds the
+ * distributor's totals for the day, so its order count is a count of distinct orders.
+ * Maintained by SalesRollupService; cancelled orders are not counted.
+ */
+@Entity
+@Table(name = "sales_rollups",
+       uniqueConstraints = @UniqueConstraint(name = "uk_sales_rollup_day", columnNames = {"distributor_id", "product_id", "sales_day"}))
+public class SalesRollup {
+    public static final long ALL_PRODUCTS = 0L;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "distributor_id", nullable = false)
+    private Long distributorId;
+
+    @Column(name = "product_id", nullable = false)
+    private Long productId;
+
+    @Column(name = "sales_day", nullable = false)
+    private LocalDate salesDay;
+
+    @Column(nullable = false)
+    private Long quantity = 0L;
+
+    @Column(nullable = false)
+    private Double revenue = 0.0;
+
+    @Column(name = "order_count", nullable = false)
+    private Integer orderCount = 0;
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public Long getDistributorId() { return distributorId; }
+    public void setDistributorId(Long distributorId) { this.distributorId = distributorId; }
+
+    public Long getProductId() { return productId; }
+    public void setProductId(Long productId) { this.productId = productId; }
+
+    public LocalDate getSalesDay() { return salesDay; }
+    public void setSalesDay(LocalDate salesDay) { this.salesDay = salesDay; }
+
+    public Long getQuantity() { return quantity; }
+    public void setQuantity(Long quantity) { this.quantity = quantity; }
+
+    public Double getRevenue() { return revenue; }
+    public void setRevenue(Double revenue) { this.revenue = revenue; }
+
+    public Integer getOrderCount() { return orderCount; }
+    public void setOrderCount(Integer orderCount) { this.orderCount = orderCount; }
+}
@@ -0,0 +1,34 @@
+package com.farmchainx.backend.event;
+
+/**
+ * Published by OrderService when an order is placed or its status changes.
+ * Listeners run after the surrounding transaction commits.
+ */
+public class OrderChangeEvent {
+
+    public enum Type { CREATED, STATUS_CHANGED }
+
+    private final Type type;
+    private final Long orderId;
+    private final Long consumerId;
+    private final Long distributorId;
+    private final String status;
+
+    public OrderChangeEvent(Type type, Long orderId, Long consumerId, Long distributorId, String status) {
+        this.type = type;
+        this.orderId = orderId;
+        this.consumerId = consumerId;
+        this.distributorId = distributorId;
+        this.status = status;
+    }
+
+    public Type getType() { return type; }
+
+    public Long getOrderId() { return orderId; }
+
+    public Long getConsumerId() { return consumerId; }
+
+    public Long getDistributorId() { return distributorId; }
+
+    public String getStatus() { return status; }
+}
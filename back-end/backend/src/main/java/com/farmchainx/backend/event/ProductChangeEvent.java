@@ -0,0 +1,57 @@
+package com.farmchainx.backend.event;
+
+import com.farmchainx.backend.dto.ProductDTO;
+
+/**
+ * Published by the product and order write paths whenever the catalog changes.
+ * Listeners run after the surrounding transaction commits.
+ */
+public class ProductChangeEvent {
+
+    // BULK_CHANGED covers set-based writes (imports, bulk patches) that touch many rows at once
+    public enum Type { CREATED, UPDATED, DELETED, STOCK_CHANGED, BULK_CHANGED }
+
+    private final Type type;
+    private final Long productId;
+    private final Long distributorId;
+    private final ProductDTO product;   // full snapshot for CREATED / UPDATED
+    private final Integer quantity;     // remaining stock for STOCK_CHANGED
+
+    private ProductChangeEvent(Type type, Long productId, Long distributorId, ProductDTO product, Integer quantity) {
+        this.type = type;
+        this.productId = productId;
+        this.distributorId = distributorId;
+        this.product = product;
+        this.quantity = quantity;
+    }
+
+    public static ProductChangeEvent created(ProductDTO product) {
+        return new ProductChangeEvent(Type.CREATED, product.getId(), product.getDistributorId(), product, product.getQuantity());
+    }
+
+    public static ProductChangeEvent updated(ProductDTO product) {
+        return new ProductChangeEvent(Type.UPDATED, product.getId(), product.getDistributorId(), product, product.getQuantity());
+    }
+
+    public static ProductChangeEvent deleted(Long productId, Long distributorId) {
+        return new ProductChangeEvent(Type.DELETED, productId, distributorId, null, null);
+    }
+
+    public static ProductChangeEvent stockChanged(Long productId, Long distributorId, Integer quantity) {
+        return new ProductChangeEvent(Type.STOCK_CHANGED, productId, distributorId, null, quantity);
+    }
+
+    public static ProductChangeEvent bulkChanged(Long distributorId) {
+        return new ProductChangeEvent(Type.BULK_CHANGED, null, distributorId, null, null);
+    }
+
+    public Type getType() { return type; }
+
+    public Long getProductId() { return productId; }
+
+    public Long getDistributorId() { return distributorId; }
+
+    public ProductDTO getProduct() { return product; }
+
+    public Integer getQuantity() { return quantity; }
+}
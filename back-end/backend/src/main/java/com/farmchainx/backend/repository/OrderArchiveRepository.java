@@ -0,0 +1,182 @@
+package com.farmchainx.backend.repository;
+
+import com.farmchainx.backend.dto.OrderDTO;
+import com.farmchainx.backend.dto.OrderItemDTO;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/**
+ * JDBC access to the cold order tables (orders_archive, order_items_archive): the batched
+ * move out of the hot tables and the read-side lookups that back the archive fallback.
+ * Callers own the transaction.
+ */
+@Repository
+public class OrderArchiveRepository {
+
+    private static final String ORDER_COLUMNS =
+            "id, order_number, consumer_id, distributor_id, customer_name, customer_phone,"
+                    + " shipping_address, payment_method, status, total_amount, order_date, delivery_date";
+
+    private static final String SELECT_ORDER =
+            "SELECT o.id, o.order_number, o.consumer_id, o.distributor_id, c.full_name, d.full_name, o.total_amount,"
+                    + " o.status, o.shipping_address, o.customer_name, o.customer_phone, o.payment_method,"
+                    + " o.order_date, o.delivery_date"
+                    + " FROM orders_archive o"
+                    + " LEFT JOIN users c ON c.id = o.consumer_id"
+                    + " LEFT JOIN users d ON d.id = o.distributor_id ";
+
+    private static final RowMapper<OrderDTO> ORDER_MAPPER = (rs, rowNum) -> {
+        OrderDTO dto = new OrderDTO();
+        dto.setId(rs.getLong(1));
+        dto.setOrderNumber(rs.getString(2));
+        dto.setConsumerId(rs.getLong(3));
+        dto.setDistributorId(rs.getLong(4));
+        dto.setConsumerName(rs.getString(5));
+        dto.setDistributorName(rs.getString(6));
+        dto.setTotalAmount(rs.getDouble(7));
+        dto.setStatus(rs.getString(8));
+        dto.setShippingAddress(rs.getString(9));
+        dto.setCustomerName(rs.getString(10));
+        dto.setCustomerPhone(rs.getString(11));
+        dto.setPaymentMethod(rs.getString(12));
+        dto.setOrderDate(toLocalDateTime(rs.getTimestamp(13)));
+        dto.setDeliveryDate(toLocalDateTime(rs.getTimestamp(14)));
+        return dto;
+    };
+
+    public enum Party { CONSUMER, DISTRIBUTOR }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /** Oldest-first ids of finished orders placed before {@code cutoff}. */
+    public List<Long> findArchivableIds(Collection<String> statuses, LocalDateTime cutoff, int limit) {
+        List<Object> args = new ArrayList<>(statuses);
+        args.add(Timestamp.valueOf(cutoff));
+        args.add(limit);
+        return jdbcTemplate.queryForList(
+                "SELECT id FROM orders WHERE status IN (" + placeholders(statuses.size()) + ") AND order_date < ?"
+                        + " ORDER BY order_date, id LIMIT ?",
+                Long.class, args.toArray());
+    }
+
+    /**
+     * Copies the orders and their items into the archive and deletes them from the hot
+     * tables. Rows are locked first and re-checked against {@code statuses}, so an order
+     * that changed in the meantime stays where it is.
+     *
+     * @return number of orders moved
+     */
+    public int moveToArchive(List<Long> orderIds, Collection<String> statuses) {
+        List<Object> lockArgs = new ArrayList<>(orderIds);
+        lockArgs.addAll(statuses);
+        List<Long> locked = jdbcTemplate.queryForList(
+                "SELECT id FROM orders WHERE id IN (" + placeholders(orderIds.size()) + ")"
+                        + " AND status IN (" + placeholders(statuses.size()) + ") FOR UPDATE",
+                Long.class, lockArgs.toArray());
+        if (locked.isEmpty()) {
+            return 0;
+        }
+        String ids = placeholders(locked.size());
+        Object[] args = locked.toArray();
+        jdbcTemplate.update("INSERT INTO orders_archive (" + ORDER_COLUMNS + ", archived_at)"
+                + " SELECT " + ORDER_COLUMNS + ", NOW() FROM orders WHERE id IN (" + ids + ")", args);
+        jdbcTemplate.update("INSERT INTO order_items_archive (id, order_id, product_id, quantity, price, subtotal)"
+                + " SELECT id, order_id, product_id, quantity, price, subtotal FROM order_items"
+                + " WHERE order_id IN (" + ids + ")", args);
+        jdbcTemplate.update("DELETE FROM order_items WHERE order_id IN (" + ids + ")", args);
+        return jdbcTemplate.update("DELETE FROM orders WHERE id IN (" + ids + ")", args);
+    }
+
+    public Optional<OrderDTO> findOrder(Long orderId) {
+        List<OrderDTO> orders = jdbcTemplate.query(SELECT_ORDER + "WHERE o.id = ?", ORDER_MAPPER, orderId);
+        return orders.stream().findFirst();
+    }
+
+    /** All archived orders of a consumer or distributor, newest first, without items. */
+    public List<OrderDTO> findByParty(Party party, Long partyId) {
+        return jdbcTemplate.query(SELECT_ORDER + "WHERE o." + partyColumn(party) + " = ?"
+                + " ORDER BY o.order_date DESC, o.id DESC", ORDER_MAPPER, partyId);
+    }
+
+    /**
+     * Keyset page of a consumer's or distributor's archived orders, with the same filters
+     * and ordering as the hot-table page queries. Items are not loaded.
+     */
+    public List<OrderDTO> findPage(Party party, Long partyId, String status, LocalDateTime from, LocalDateTime to,
+                                   LocalDateTime lastOrderDate, Long lastId, int limit) {
+        StringBuilder sql = new StringBuilder(SELECT_ORDER).append("WHERE o.").append(partyColumn(party)).append(" = ?");
+        List<Object> args = new ArrayList<>();
+        args.add(partyId);
+        if (status != null) {
+            sql.append(" AND o.status = ?");
+            args.add(status);
+        }
+        if (from != null) {
+            sql.append(" AND o.order_date >= ?");
+            args.add(Timestamp.valueOf(from));
+        }
+        if (to != null) {
+            sql.append(" AND o.order_date < ?");
+            args.add(Timestamp.valueOf(to));
+        }
+        if (lastOrderDate != null) {
+            sql.append(" AND (o.order_date < ? OR (o.order_date = ? AND o.id < ?))");
+            args.add(Timestamp.valueOf(lastOrderDate));
+            args.add(Timestamp.valueOf(lastOrderDate));
+            args.add(lastId);
+        }
+        sql.append(" ORDER BY o.order_date DESC, o.id DESC LIMIT ?");
+        args.add(limit);
+        return jdbcTemplate.query(sql.toString(), ORDER_MAPPER, args.toArray());
+    }
+
+    /** Fills in the items of the given archived orders with one query. */
+    public void loadItems(List<OrderDTO> orders) {
+        if (orders.isEmpty()) {
+            return;
+        }
+        List<Long> orderIds = orders.stream().map(OrderDTO::getId).collect(Collectors.toList());
+        Map<Long, List<OrderItemDTO>> itemsByOrder = jdbcTemplate.query(
+                "SELECT oi.order_id, oi.product_id, p.name, oi.quantity, oi.price, oi.subtotal"
+                        + " FROM order_items_archive oi LEFT JOIN products p ON p.id = oi.product_id"
+                        + " WHERE oi.order_id IN (" + placeholders(orderIds.size()) + ") ORDER BY oi.id",
+                (rs, rowNum) -> new OrderItemDTO(rs.getLong(1), rs.getLong(2), rs.getString(3),
+                        rs.getInt(4), rs.getDouble(5), rs.getDouble(6)),
+                orderIds.toArray())
+                .stream()
+                .collect(Collectors.groupingBy(OrderItemDTO::getOrderId));
+        for (OrderDTO order : orders) {
+            order.setOrderItems(itemsByOrder.getOrDefault(order.getId(), new ArrayList<>()));
+        }
+    }
+
+    public long count() {
+        Long count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM orders_archive", Long.class);
+        return count == null ? 0 : count;
+    }
+
+    private static String partyColumn(Party party) {
+        return party == Party.CONSUMER ? "consumer_id" : "distributor_id";
+    }
+
+    private static LocalDateTime toLocalDateTime(Timestamp timestamp) {
+        return timestamp == null ? null : timestamp.toLocalDateTime();
+    }
+
+    private static String placeholders(int count) {
+        return String.join(",", Collections.nCopies(count, "?"));
+    }
+}
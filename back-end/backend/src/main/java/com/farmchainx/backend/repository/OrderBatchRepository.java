@@ -0,0 +1,127 @@
+package com.farmchainx.backend.repository;
+
+import com.farmchainx.backend.entity.OrderItem;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Set-based order writes that go through JDBC batches instead of one
+ * entity save per row. Callers own the transaction.
+ */
+@Repository
+public class OrderBatchRepository {
+
+    private static final String INSERT_ORDER_ITEM =
+            "INSERT INTO order_items (id, order_id, product_id, quantity, price, subtotal) VALUES (?, ?, ?, ?, ?, ?)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PooledIdAllocator pooledIdAllocator;
+
+    /** Current status and consumer of an order, as read under a row lock. */
+    public static final class OrderStatusRow {
+        private final Long id;
+        private final Long consumerId;
+        private final String status;
+
+        public OrderStatusRow(Long id, Long consumerId, String status) {
+            this.id = id;
+            this.consumerId = consumerId;
+            this.status = status;
+        }
+
+        public Long getId() { return id; }
+
+        public Long getConsumerId() { return consumerId; }
+
+        public String getStatus() { return status; }
+    }
+
+    public void insertOrderItems(Long orderId, List<OrderItem> items) {
+        assignIds(items);
+        jdbcTemplate.batchUpdate(INSERT_ORDER_ITEM, items, items.size(), (ps, item) -> {
+            ps.setLong(1, item.getId());
+            ps.setLong(2, orderId);
+            ps.setLong(3, item.getProduct().getId());
+            ps.setInt(4, item.getQuantity());
+            ps.setDouble(5, item.getPrice());
+            ps.setDouble(6, item.getSubtotal());
+        });
+    }
+
+    /** Items of several saved orders in one batch; each item's order must already have its id. */
+    public void insertOrderItems(List<OrderItem> items) {
+        assignIds(items);
+        jdbcTemplate.batchUpdate(INSERT_ORDER_ITEM, items, items.size(), (ps, item) -> {
+            ps.setLong(1, item.getId());
+            ps.setLong(2, item.getOrder().getId());
+            ps.setLong(3, item.getProduct().getId());
+            ps.setInt(4, item.getQuantity());
+            ps.setDouble(5, item.getPrice());
+            ps.setDouble(6, item.getSubtotal());
+        });
+    }
+
+    /**
+     * Reads and row-locks the distributor's orders among {@code orderIds} (SELECT ... FOR UPDATE),
+     * so their status cannot change until the caller's transaction ends. Ids of other
+     * distributors' orders are simply not returned.
+     */
+    public List<OrderStatusRow> lockStatuses(Long distributorId, Collection<Long> orderIds) {
+        List<Object> args = new ArrayList<>(orderIds.size() + 1);
+        args.add(distributorId);
+        args.addAll(orderIds);
+        return jdbcTemplate.query(
+                "SELECT id, consumer_id, status FROM orders WHERE distributor_id = ? AND id IN ("
+                        + placeholders(orderIds.size()) + ") FOR UPDATE",
+                (rs, rowNum) -> new OrderStatusRow(rs.getLong(1), rs.getLong(2), rs.getString(3)),
+                args.toArray());
+    }
+
+    /**
+     * One set-based status change. Only rows still in one of {@code sources} move, so a
+     * concurrent transition can never be overwritten; {@code deliveryDate} is written when
+     * not null.
+     *
+     * @return number of orders that changed
+     */
+    public int transitionStatus(Long distributorId, Collection<Long> orderIds, Collection<String> sources,
+                                String target, LocalDateTime deliveryDate) {
+        List<Object> args = new ArrayList<>(orderIds.size() + sources.size() + 3);
+        args.add(target);
+        args.add(deliveryDate == null ? null : Timestamp.valueOf(deliveryDate));
+        args.add(distributorId);
+        args.addAll(sources);
+        args.addAll(orderIds);
+        return jdbcTemplate.update(
+                "UPDATE orders SET status = ?, delivery_date = COALESCE(?, delivery_date)"
+                        + " WHERE distributor_id = ? AND status IN (" + placeholders(sources.size()) + ")"
+                        + " AND id IN (" + placeholders(orderIds.size()) + ")",
+                args.toArray());
+    }
+
+    // Ids come from the same pooled sequence Hibernate uses for OrderItem
+    private void assignIds(List<OrderItem> items) {
+        if (items.isEmpty()) {
+            return;
+        }
+        long nextId = pooledIdAllocator.reserve(OrderItem.class, items.size());
+        for (OrderItem item : items) {
+            item.setId(nextId++);
+        }
+    }
+
+    private static String placeholders(int count) {
+        return String.join(",", Collections.nCopies(count, "?"));
+    }
+}
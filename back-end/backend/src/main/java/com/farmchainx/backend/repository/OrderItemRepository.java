@@ -1,13 +1,22 @@
 package com.farmchainx.backend.repository;
 
+import com.farmchainx.backend.dto.OrderItemDTO;
 import com.farmchainx.backend.entity.OrderItem;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface OrderItemRepository extends JpaRepository<OrderItem, Long> {
     
     List<OrderItem> findByOrderId(Long orderId);
-}
\ No newline at end of file
+    
+    // Items of a whole page of orders with product names joined in, in one query
+    @Query("SELECT new com.farmchainx.backend.dto.OrderItemDTO(oi.order.id, p.id, p.name, oi.quantity, oi.price, oi.subtotal) " +
+           "FROM OrderItem oi JOIN oi.product p WHERE oi.order.id IN :orderIds ORDER BY oi.id")
+    List<OrderItemDTO> findViewsByOrderIdIn(@Param("orderIds") Collection<Long> orderIds);
+}
@@ -2,15 +2,59 @@ package com.farmchainx.backend.repository;
 
 import com.farmchainx.backend.entity.Order;
 import com.farmchainx.backend.entity.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface OrderRepository extends JpaRepository<Order, Long> {
     
+    // Consumer and distributor are fetched in the same query so listings never lazy-load users
+    String ORDER_WITH_PARTIES = "SELECT o FROM Order o JOIN FETCH o.consumer JOIN FETCH o.distributor ";
+    
+    // Optional filters plus the keyset position, newest first; a null lastOrderDate means the first page
+    String PAGE_FILTERS = "AND (:status IS NULL OR o.status = :status) " +
+            "AND (:fromDate IS NULL OR o.orderDate >= :fromDate) " +
+            "AND (:toDate IS NULL OR o.orderDate < :toDate) " +
+            "AND (:lastOrderDate IS NULL OR o.orderDate < :lastOrderDate " +
+            "     OR (o.orderDate = :lastOrderDate AND o.id < :lastId)) " +
+            "ORDER BY o.orderDate DESC, o.id DESC";
+    
     List<Order> findByConsumer(User consumer);
     
     List<Order> findByDistributor(User distributor);
-}
\ No newline at end of file
+    
+    @Query(ORDER_WITH_PARTIES + "WHERE o.id = :id")
+    Optional<Order> findWithPartiesById(@Param("id") Long id);
+    
+    @Query(ORDER_WITH_PARTIES + "WHERE o.consumer.id = :consumerId ORDER BY o.orderDate DESC, o.id DESC")
+    List<Order> findWithPartiesByConsumerId(@Param("consumerId") Long consumerId);
+    
+    @Query(ORDER_WITH_PARTIES + "WHERE o.distributor.id = :distributorId ORDER BY o.orderDate DESC, o.id DESC")
+    List<Order> findWithPartiesByDistributorId(@Param("distributorId") Long distributorId);
+    
+    // Keyset (seek) pages of order history - the Pageable only carries the limit
+    @Query(ORDER_WITH_PARTIES + "WHERE o.consumer.id = :consumerId " + PAGE_FILTERS)
+    List<Order> findConsumerPage(@Param("consumerId") Long consumerId,
+                                 @Param("status") String status,
+                                 @Param("fromDate") LocalDateTime fromDate,
+                                 @Param("toDate") LocalDateTime toDate,
+                                 @Param("lastOrderDate") LocalDateTime lastOrderDate,
+                                 @Param("lastId") Long lastId,
+                                 Pageable pageable);
+    
+    @Query(ORDER_WITH_PARTIES + "WHERE o.distributor.id = :distributorId " + PAGE_FILTERS)
+    List<Order> findDistributorPage(@Param("distributorId") Long distributorId,
+                                    @Param("status") String status,
+                                    @Param("fromDate") LocalDateTime fromDate,
+                                    @Param("toDate") LocalDateTime toDate,
+                                    @Param("lastOrderDate") LocalDateTime lastOrderDate,
+                                    @Param("lastId") Long lastId,
+                                    Pageable pageable);
+}
@@ -0,0 +1,214 @@
+package com.farmchainx.backend.repository;
+
+import com.farmchainx.backend.entity.PooledId;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Table-backed hi/lo id allocation for the {@link PooledId} entities.
+ *
+ * Each node reserves ids in blocks of app.id.block-size by moving the table's id_blocks row
+ * forward under a row lock, then hands them out from memory. The reservation runs on its own
+ * connection and commits at once, so it never holds the lock for the caller's transaction
+ * and a rolled-back insert only leaves a gap. Ids are known before the INSERT, which lets
+ * Hibernate and the JDBC batch paths send inserts in batches.
+ *
+ * The first reservation of a table in each process raises its row above MAX(id) of the table
+ * (and its {@code seedFrom} tables), so existing AUTO_INCREMENT ids are never handed out again.
+ * Rows not backed by a table serve as plain cluster-wide counters, see {@link #nextCounterValue}.
+ */
+@Repository
+public class PooledIdAllocator {
+
+    private static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(PooledIdAllocator.class);
+
+    private static volatile PooledIdAllocator instance;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Value("${app.id.block-size:100}")
+    private int blockSize;
+
+    private static final class Block {
+        long next;
+        long end;   // exclusive
+    }
+
+    private final Map<String, Block> blocks = new ConcurrentHashMap<>();
+    private final Set<String> seeded = ConcurrentHashMap.newKeySet();
+
+    // Metrics
+    private final AtomicLong idsHandedOut = new AtomicLong();
+    private final AtomicLong reservations = new AtomicLong();
+
+    @PostConstruct
+    void register() {
+        instance = this;
+    }
+
+    /** The allocator for Hibernate-instantiated generators, which are not Spring beans. */
+    public static PooledIdAllocator current() {
+        PooledIdAllocator allocator = instance;
+        if (allocator == null) {
+            throw new IllegalStateException("PooledIdAllocator is not initialized yet");
+        }
+        return allocator;
+    }
+
+    public long nextId(PooledId config) {
+        return reserve(config, 1);
+    }
+
+    /**
+     * Reserves {@code count} consecutive ids for an entity's table and returns the first,
+     * for JDBC batch inserts of that entity.
+     */
+    public long reserve(Class<?> entityType, int count) {
+        return reserve(configOf(entityType), count);
+    }
+
+    public long reserve(PooledId config, int count) {
+        return reserve(config.table(), config.seedFrom(), count);
+    }
+
+    public long reserve(String table, String[] seedFrom, int count) {
+        if (count < 1) {
+            throw new IllegalArgumentException("count must be positive");
+        }
+        Block block = blocks.computeIfAbsent(table, name -> new Block());
+        synchronized (block) {
+            if (block.end - block.next < count) {
+                // A run that does not fit the current block gets a fresh range; the rest of the old one is skipped
+                long size = Math.max(blockSize, count);
+                block.next = reserveRange(table, seedFrom, size);
+                block.end = block.next + size;
+            }
+            long first = block.next;
+            block.next += count;
+            idsHandedOut.addAndGet(count);
+            return first;
+        }
+    }
+
+    /**
+     * Takes the next value, starting at 0, of a named counter shared by every node. Each call is
+     * a database round trip; meant for rare events such as a node starting up.
+     */
+    public long nextCounterValue(String name) {
+        return reserveRange(name, null, 1);
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("blockSize", blockSize);
+        stats.put("idsHandedOut", idsHandedOut.get());
+        stats.put("reservations", reservations.get());
+        Map<String, Long> remaining = new LinkedHashMap<>();
+        blocks.forEach((table, block) -> {
+            synchronized (block) {
+                remaining.put(table, block.end - block.next);
+            }
+        });
+        stats.put("remainingInBlock", remaining);
+        return stats;
+    }
+
+    private long reserveRange(String table, String[] seedFrom, long size) {
+        try (Connection connection = dataSource.getConnection()) {
+            boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            try {
+                if (!seeded.contains(table)) {
+                    seed(connection, table, seedFrom);
+                }
+                long first;
+                try (PreparedStatement select = connection.prepareStatement(
+                        "SELECT next_value FROM id_blocks WHERE name = ? FOR UPDATE")) {
+                    select.setString(1, table);
+                    try (ResultSet rs = select.executeQuery()) {
+                        if (!rs.next()) {
+                            throw new IllegalStateException("No id block row for " + table);
+                        }
+                        first = rs.getLong(1);
+                    }
+                }
+                try (PreparedStatement update = connection.prepareStatement(
+                        "UPDATE id_blocks SET next_value = ? WHERE name = ?")) {
+                    update.setLong(1, first + size);
+                    update.setString(2, table);
+                    update.executeUpdate();
+                }
+                connection.commit();
+                seeded.add(table);
+                reservations.incrementAndGet();
+                return first;
+            } catch (SQLException | RuntimeException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(autoCommit);
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("Could not reserve ids for " + table + ": " + e.getMessage(), e);
+        }
+    }
+
+    // Creates the row or lifts it above every id already stored, whichever applies; a null seedFrom is a counter
+    private void seed(Connection connection, String table, String[] seedFrom) throws SQLException {
+        if (seedFrom == null) {
+            try (PreparedStatement insert = connection.prepareStatement(
+                    "INSERT IGNORE INTO id_blocks (name, next_value) VALUES (?, 0)")) {
+                insert.setString(1, table);
+                insert.executeUpdate();
+            }
+            return;
+        }
+        long maxId = maxId(connection, table);
+        for (String other : seedFrom) {
+            maxId = Math.max(maxId, maxId(connection, other));
+        }
+        try (PreparedStatement upsert = connection.prepareStatement(
+                "INSERT INTO id_blocks (name, next_value) VALUES (?, ?)"
+                        + " ON DUPLICATE KEY UPDATE next_value = GREATEST(next_value, VALUES(next_value))")) {
+            upsert.setString(1, table);
+            upsert.setLong(2, maxId + 1);
+            upsert.executeUpdate();
+        }
+        logger.info("Pooled ids for {} start above {}", table, maxId);
+    }
+
+    private static long maxId(Connection connection, String table) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("SELECT COALESCE(MAX(id), 0) FROM " + table)) {
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+
+    private static PooledId configOf(Class<?> entityType) {
+        for (Class<?> type = entityType; type != null; type = type.getSuperclass()) {
+            for (java.lang.reflect.Field field : type.getDeclaredFields()) {
+                PooledId config = field.getAnnotation(PooledId.class);
+                if (config != null) {
+                    return config;
+                }
+            }
+        }
+        throw new IllegalArgumentException(entityType.getSimpleName() + " has no @PooledId");
+    }
+}
@@ -0,0 +1,136 @@
+package com.farmchainx.backend.repository;
+
+import com.farmchainx.backend.dto.ProductStockUpdateDTO;
+import com.farmchainx.backend.entity.Product;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Set-based product writes that go through JDBC batches instead of one
+ * entity save per row. Callers own the transaction.
+ */
+@Repository
+public class ProductBatchRepository {
+
+    private static final String INSERT_PRODUCT =
+            "INSERT INTO products (id, name, description, category, price, quantity, unit, image_url, is_available, distributor_id) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    // is_available is derived from the resulting stock in the same statement
+    private static final String UPDATE_PRICE_AND_STOCK =
+            "UPDATE products SET price = COALESCE(?, price), quantity = COALESCE(?, quantity), " +
+            "is_available = (COALESCE(?, quantity) > 0) " +
+            "WHERE id = ? AND distributor_id = ?";
+
+    // Only succeeds while enough stock is left; MySQL evaluates SET left to right, so is_available sees the new quantity
+    private static final String DECREMENT_STOCK =
+            "UPDATE products SET quantity = quantity - ?, is_available = (quantity > 0) " +
+            "WHERE id = ? AND quantity - ? >= ?";
+
+    // Write-back of stock already reserved in memory; clamped in case the row was lowered meanwhile
+    private static final String APPLY_STOCK_DELTA =
+            "UPDATE products SET quantity = GREATEST(quantity - ?, 0), is_available = (quantity > 0) WHERE id = ?";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PooledIdAllocator pooledIdAllocator;
+
+    /** Inserts the products with ids from the pooled allocator; the ids are set on the entities. */
+    public void insertProducts(List<Product> products, int batchSize) {
+        if (products.isEmpty()) {
+            return;
+        }
+        long nextId = pooledIdAllocator.reserve(Product.class, products.size());
+        for (Product product : products) {
+            product.setId(nextId++);
+        }
+        jdbcTemplate.batchUpdate(INSERT_PRODUCT, products, batchSize, (ps, product) -> {
+            ps.setLong(1, product.getId());
+            ps.setString(2, product.getName());
+            ps.setString(3, product.getDescription());
+            ps.setString(4, product.getCategory());
+            ps.setDouble(5, product.getPrice());
+            ps.setInt(6, product.getQuantity());
+            ps.setString(7, product.getUnit());
+            ps.setString(8, product.getImageUrl());
+            ps.setBoolean(9, product.getIsAvailable());
+            ps.setLong(10, product.getDistributorId());
+        });
+    }
+
+    public int[][] updatePriceAndStock(List<ProductStockUpdateDTO> updates, Long distributorId, int batchSize) {
+        return jdbcTemplate.batchUpdate(UPDATE_PRICE_AND_STOCK, updates, batchSize, (ps, update) -> {
+            if (update.getPrice() != null) {
+                ps.setDouble(1, update.getPrice());
+            } else {
+                ps.setNull(1, Types.DOUBLE);
+            }
+            if (update.getQuantity() != null) {
+                ps.setInt(2, update.getQuantity());
+                ps.setInt(3, update.getQuantity());
+            } else {
+                ps.setNull(2, Types.INTEGER);
+                ps.setNull(3, Types.INTEGER);
+            }
+            ps.setLong(4, update.getProductId());
+            ps.setLong(5, distributorId);
+        });
+    }
+
+    /**
+     * Takes the requested quantity off each product in one JDBC batch, leaving at least the
+     * protected units (cart holds of other consumers) in stock. The returned update count is
+     * 0 for every product that did not have enough stock left.
+     */
+    public int[] decrementStock(Map<Long, Integer> quantitiesByProductId, Map<Long, Integer> protectedUnits) {
+        List<Map.Entry<Long, Integer>> rows = new ArrayList<>(quantitiesByProductId.entrySet());
+        return jdbcTemplate.batchUpdate(DECREMENT_STOCK, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                Map.Entry<Long, Integer> row = rows.get(i);
+                ps.setInt(1, row.getValue());
+                ps.setLong(2, row.getKey());
+                ps.setInt(3, protectedUnits.getOrDefault(row.getKey(), 0));
+                ps.setInt(4, row.getValue());
+            }
+
+            @Override
+            public int getBatchSize() {
+                return rows.size();
+            }
+        });
+    }
+
+    public void applyStockDeltas(Map<Long, Integer> deltasByProductId) {
+        List<Map.Entry<Long, Integer>> rows = new ArrayList<>(deltasByProductId.entrySet());
+        jdbcTemplate.batchUpdate(APPLY_STOCK_DELTA, rows, rows.size(), (ps, row) -> {
+            ps.setInt(1, row.getValue());
+            ps.setLong(2, row.getKey());
+        });
+    }
+
+    public Map<Long, Integer> findQuantities(Collection<Long> productIds) {
+        String placeholders = String.join(",", Collections.nCopies(productIds.size(), "?"));
+        Map<Long, Integer> quantities = new HashMap<>();
+        jdbcTemplate.query("SELECT id, quantity FROM products WHERE id IN (" + placeholders + ")",
+                rs -> {
+                    quantities.put(rs.getLong(1), rs.getInt(2));
+                },
+                productIds.toArray());
+        return quantities;
+    }
+}
@@ -1,21 +1,77 @@
 package com.farmchainx.backend.repository;
 
+import com.farmchainx.backend.dto.ProductDTO;
 import com.farmchainx.backend.entity.Product;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface ProductRepository extends JpaRepository<Product, Long> {
-    
+
+    // Read model: one row per product with the distributor name joined in, so listings never lazy-load users
+    String PRODUCT_VIEW = "SELECT new com.farmchainx.backend.dto.ProductDTO(" +
+            "p.id, p.name, p.description, p.category, p.price, p.quantity, p.unit, p.imageUrl, " +
+            "p.isAvailable, p.distributorId, COALESCE(u.fullName, 'Unknown Distributor')) " +
+            "FROM Product p LEFT JOIN p.distributor u ";
+
     List<Product> findByDistributorId(Long distributorId);
-    
+
     List<Product> findByIsAvailableTrue();
-    
+
+    @Query(PRODUCT_VIEW + "WHERE p.id = :id")
+    Optional<ProductDTO> findViewById(@Param("id") Long id);
+
+    @Query(PRODUCT_VIEW + "WHERE p.id IN :ids")
+    List<ProductDTO> findViewsByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query(PRODUCT_VIEW + "WHERE p.distributorId = :distributorId")
+    List<ProductDTO> findViewsByDistributorId(@Param("distributorId") Long distributorId);
+
+    @Query(PRODUCT_VIEW + "WHERE p.isAvailable = true")
+    List<ProductDTO> findAvailableViews();
+
+    // Keyset (seek) pages of the available catalog - the Pageable only carries the limit
+    @Query(PRODUCT_VIEW + "WHERE p.isAvailable = true AND p.id > :lastId ORDER BY p.id")
+    List<ProductDTO> findAvailableAfterId(@Param("lastId") Long lastId, Pageable pageable);
+
+    @Query(PRODUCT_VIEW + "WHERE p.isAvailable = true " +
+           "AND (p.price > :lastPrice OR (p.price = :lastPrice AND p.id > :lastId)) " +
+           "ORDER BY p.price, p.id")
+    List<ProductDTO> findAvailableAfterPrice(@Param("lastPrice") Double lastPrice,
+                                             @Param("lastId") Long lastId,
+                                             Pageable pageable);
+
+    @Query(PRODUCT_VIEW + "WHERE p.isAvailable = true " +
+           "AND (p.name > :lastName OR (p.name = :lastName AND p.id > :lastId)) " +
+           "ORDER BY p.name, p.id")
+    List<ProductDTO> findAvailableAfterName(@Param("lastName") String lastName,
+                                            @Param("lastId") Long lastId,
+                                            Pageable pageable);
+
+    // Server-side cursor over the whole catalog; MySQL streams rows only with fetch size Integer.MIN_VALUE
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query(PRODUCT_VIEW + "WHERE p.isAvailable = true ORDER BY p.id")
+    Stream<ProductDTO> streamAvailable();
+
+    @Query("SELECT p.id FROM Product p WHERE p.distributorId = :distributorId AND p.id IN :ids")
+    List<Long> findIdsByDistributorIdAndIdIn(@Param("distributorId") Long distributorId,
+                                             @Param("ids") Collection<Long> ids);
+
     // Check if product has order items
     @Query("SELECT COUNT(oi) > 0 FROM OrderItem oi WHERE oi.product.id = :productId")
     boolean hasOrderItems(@Param("productId") Long productId);
-}
\ No newline at end of file
+}
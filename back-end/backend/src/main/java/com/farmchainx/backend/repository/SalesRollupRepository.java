@@ -0,0 +1,182 @@
+package com.farmchainx.backend.repository;
+
+import com.farmchainx.backend.dto.ProductSalesDTO;
+import com.farmchainx.backend.dto.SalesPointDTO;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * JDBC access to sales_rollups. Writes are additive upserts so concurrent orders of one
+ * distributor never overwrite each other's counts. Callers own the transaction.
+ */
+@Repository
+public class SalesRollupRepository {
+
+    private static final String UPSERT =
+            "INSERT INTO sales_rollups (distributor_id, product_id, sales_day, quantity, revenue, order_count)"
+                    + " VALUES (?, ?, ?, ?, ?, ?)"
+                    + " ON DUPLICATE KEY UPDATE quantity = quantity + VALUES(quantity),"
+                    + " revenue = revenue + VALUES(revenue), order_count = order_count + VALUES(order_count)";
+
+    // Order lines of one distributor from the hot and the archive tables
+    private static final String ALL_ORDER_LINES =
+            "(SELECT o.id, o.order_date, oi.product_id, oi.quantity, oi.subtotal"
+                    + " FROM orders o JOIN order_items oi ON oi.order_id = o.id"
+                    + " WHERE o.distributor_id = ? AND UPPER(o.status) <> 'CANCELLED'"
+                    + " UNION ALL"
+                    + " SELECT o.id, o.order_date, oi.product_id, oi.quantity, oi.subtotal"
+                    + " FROM orders_archive o JOIN order_items_archive oi ON oi.order_id = o.id"
+                    + " WHERE o.distributor_id = ? AND UPPER(o.status) <> 'CANCELLED') l";
+
+    private static final String REBUILD_PRODUCTS =
+            "INSERT INTO sales_rollups (distributor_id, product_id, sales_day, quantity, revenue, order_count)"
+                    + " SELECT ?, l.product_id, DATE(l.order_date), SUM(l.quantity), SUM(l.subtotal), COUNT(DISTINCT l.id)"
+                    + " FROM " + ALL_ORDER_LINES
+                    + " GROUP BY l.product_id, DATE(l.order_date)";
+
+    private static final String REBUILD_TOTALS =
+            "INSERT INTO sales_rollups (distributor_id, product_id, sales_day, quantity, revenue, order_count)"
+                    + " SELECT ?, 0, DATE(l.order_date), SUM(l.quantity), SUM(l.subtotal), COUNT(DISTINCT l.id)"
+                    + " FROM " + ALL_ORDER_LINES
+                    + " GROUP BY DATE(l.order_date)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /** One change to a rollup row; negative values take a cancelled order out again. */
+    public static final class RollupDelta {
+        private final Long distributorId;
+        private final Long productId;
+        private final LocalDate day;
+        private final long quantity;
+        private final double revenue;
+        private final int orders;
+
+        public RollupDelta(Long distributorId, Long productId, LocalDate day, long quantity, double revenue, int orders) {
+            this.distributorId = distributorId;
+            this.productId = productId;
+            this.day = day;
+            this.quantity = quantity;
+            this.revenue = revenue;
+            this.orders = orders;
+        }
+
+        public Long getDistributorId() { return distributorId; }
+
+        public Long getProductId() { return productId; }
+
+        public LocalDate getDay() { return day; }
+
+        public long getQuantity() { return quantity; }
+
+        public double getRevenue() { return revenue; }
+
+        public int getOrders() { return orders; }
+    }
+
+    /** An order_items row with the order fields the rollups are keyed by. */
+    public static final class OrderLine {
+        private final Long orderId;
+        private final Long distributorId;
+        private final LocalDateTime orderDate;
+        private final Long productId;
+        private final int quantity;
+        private final double subtotal;
+
+        public OrderLine(Long orderId, Long distributorId, LocalDateTime orderDate, Long productId, int quantity, double subtotal) {
+            this.orderId = orderId;
+            this.distributorId = distributorId;
+            this.orderDate = orderDate;
+            this.productId = productId;
+            this.quantity = quantity;
+            this.subtotal = subtotal;
+        }
+
+        public Long getOrderId() { return orderId; }
+
+        public Long getDistributorId() { return distributorId; }
+
+        public LocalDateTime getOrderDate() { return orderDate; }
+
+        public Long getProductId() { return productId; }
+
+        public int getQuantity() { return quantity; }
+
+        public double getSubtotal() { return subtotal; }
+    }
+
+    /** Applies the deltas in the given order; callers sort them so concurrent writers lock rows in the same order. */
+    public void applyDeltas(List<RollupDelta> deltas) {
+        jdbcTemplate.batchUpdate(UPSERT, deltas, deltas.size(), (ps, delta) -> {
+            ps.setLong(1, delta.getDistributorId());
+            ps.setLong(2, delta.getProductId());
+            ps.setDate(3, Date.valueOf(delta.getDay()));
+            ps.setLong(4, delta.getQuantity());
+            ps.setDouble(5, delta.getRevenue());
+            ps.setInt(6, delta.getOrders());
+        });
+    }
+
+    public List<OrderLine> findOrderLines(Collection<Long> orderIds) {
+        return jdbcTemplate.query(
+                "SELECT o.id, o.distributor_id, o.order_date, oi.product_id, oi.quantity, oi.subtotal"
+                        + " FROM orders o JOIN order_items oi ON oi.order_id = o.id"
+                        + " WHERE o.id IN (" + placeholders(orderIds.size()) + ")",
+                (rs, rowNum) -> {
+                    Timestamp orderDate = rs.getTimestamp(3);
+                    return new OrderLine(rs.getLong(1), rs.getLong(2),
+                            orderDate == null ? null : orderDate.toLocalDateTime(),
+                            rs.getLong(4), rs.getInt(5), rs.getDouble(6));
+                },
+                orderIds.toArray());
+    }
+
+    /** Daily rows of one product (or {@code ALL_PRODUCTS}) in [from, toExclusive), oldest first. */
+    public List<SalesPointDTO> findDaily(Long distributorId, Long productId, LocalDate from, LocalDate toExclusive) {
+        return jdbcTemplate.query(
+                "SELECT sales_day, order_count, quantity, revenue FROM sales_rollups"
+                        + " WHERE distributor_id = ? AND product_id = ? AND sales_day >= ? AND sales_day < ?"
+                        + " ORDER BY sales_day",
+                (rs, rowNum) -> new SalesPointDTO(rs.getDate(1).toLocalDate(), rs.getLong(2), rs.getLong(3), rs.getDouble(4)),
+                distributorId, productId, Date.valueOf(from), Date.valueOf(toExclusive));
+    }
+
+    /** Per-product sums over [from, toExclusive), best-selling by revenue first. */
+    public List<ProductSalesDTO> findProductTotals(Long distributorId, LocalDate from, LocalDate toExclusive) {
+        return jdbcTemplate.query(
+                "SELECT r.product_id, p.name, SUM(r.order_count), SUM(r.quantity), SUM(r.revenue)"
+                        + " FROM sales_rollups r LEFT JOIN products p ON p.id = r.product_id"
+                        + " WHERE r.distributor_id = ? AND r.product_id <> 0 AND r.sales_day >= ? AND r.sales_day < ?"
+                        + " GROUP BY r.product_id, p.name ORDER BY SUM(r.revenue) DESC",
+                (rs, rowNum) -> new ProductSalesDTO(rs.getLong(1), rs.getString(2), rs.getLong(3), rs.getLong(4), rs.getDouble(5)),
+                distributorId, Date.valueOf(from), Date.valueOf(toExclusive));
+    }
+
+    /**
+     * Recomputes a distributor's rollups from the hot and archived order tables. The INSERT ... SELECT
+     * reads with locks, so orders committed concurrently are counted exactly once.
+     */
+    public int rebuild(Long distributorId) {
+        jdbcTemplate.update("DELETE FROM sales_rollups WHERE distributor_id = ?", distributorId);
+        int rows = jdbcTemplate.update(REBUILD_PRODUCTS, distributorId, distributorId, distributorId);
+        return rows + jdbcTemplate.update(REBUILD_TOTALS, distributorId, distributorId, distributorId);
+    }
+
+    public List<Long> findDistributorIdsWithOrders() {
+        return jdbcTemplate.queryForList(
+                "SELECT distributor_id FROM orders UNION SELECT distributor_id FROM orders_archive", Long.class);
+    }
+
+    private static String placeholders(int count) {
+        return String.join(",", Collections.nCopies(count, "?"));
+    }
+}
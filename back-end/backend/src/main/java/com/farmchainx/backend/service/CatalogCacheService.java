@@ -0,0 +1,203 @@
+package com.farmchainx.backend.service;
+
+import com.farmchainx.backend.event.ProductChangeEvent;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Holds the available catalog as an immutable, pre-serialized JSON snapshot.
+ *
+ * Every product write and stock decrement bumps the catalog version. Readers take the
+ * current snapshot with a single volatile read; if it is older than the catalog version
+ * they still get it immediately while a background thread builds the next one.
+ */
+@Service
+public class CatalogCacheService {
+
+    private static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(CatalogCacheService.class);
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final AtomicLong catalogVersion = new AtomicLong(1);
+    private volatile CatalogSnapshot snapshot;
+
+    private final ExecutorService rebuildExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "catalog-cache-rebuild");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicBoolean rebuildScheduled = new AtomicBoolean(false);
+    private final Object coldStartLock = new Object();
+
+    // Metrics
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder staleHits = new LongAdder();
+    private final LongAdder coldMisses = new LongAdder();
+    private final AtomicLong rebuilds = new AtomicLong();
+    private final AtomicLong rebuildFailures = new AtomicLong();
+    private final AtomicLong totalRebuildMillis = new AtomicLong();
+    private volatile long lastRebuildMillis;
+
+    public static final class CatalogSnapshot {
+        private final long version;
+        private final byte[] json;
+        private final int productCount;
+        private final long builtAt;
+
+        CatalogSnapshot(long version, byte[] json, int productCount, long builtAt) {
+            this.version = version;
+            this.json = json;
+            this.productCount = productCount;
+            this.builtAt = builtAt;
+        }
+
+        public long getVersion() { return version; }
+        public byte[] getJson() { return json; }
+        public int getProductCount() { return productCount; }
+        public long getBuiltAt() { return builtAt; }
+    }
+
+    public CatalogSnapshot getSnapshot() {
+        CatalogSnapshot current = snapshot;
+        if (current == null) {
+            coldMisses.increment();
+            synchronized (coldStartLock) {
+                if (snapshot == null) {
+                    rebuild();
+                }
+            }
+            return snapshot;
+        }
+
+        if (current.version == catalogVersion.get()) {
+            hits.increment();
+        } else {
+            staleHits.increment();
+            scheduleRebuild();
+        }
+        return current;
+    }
+
+    public long getCatalogVersion() {
+        return catalogVersion.get();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangeEvent event) {
+        catalogVersion.incrementAndGet();
+        scheduleRebuild();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        scheduleRebuild();
+    }
+
+    private void scheduleRebuild() {
+        if (rebuildScheduled.compareAndSet(false, true)) {
+            rebuildExecutor.execute(this::runRebuilds);
+        }
+    }
+
+    private void runRebuilds() {
+        try {
+            do {
+                rebuild();
+            } while (isStale());
+        } catch (RuntimeException e) {
+            rebuildFailures.incrementAndGet();
+            logger.error("Catalog snapshot rebuild failed: {}", e.getMessage(), e);
+            return;
+        } finally {
+            rebuildScheduled.set(false);
+        }
+        // A write may have landed between the last check and clearing the flag
+        if (isStale()) {
+            scheduleRebuild();
+        }
+    }
+
+    private boolean isStale() {
+        CatalogSnapshot current = snapshot;
+        return current == null || current.version != catalogVersion.get();
+    }
+
+    private void rebuild() {
+        // Read the version first so a write racing with the build triggers another one
+        long version = catalogVersion.get();
+        long start = System.currentTimeMillis();
+
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(64 * 1024);
+        int[] count = {0};
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(buffer)) {
+            generator.writeStartArray();
+            productService.streamAvailableProducts(product -> {
+                try {
+                    generator.writeObject(product);
+                    count[0]++;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            generator.writeEndArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        CatalogSnapshot current = snapshot;
+        if (current == null || current.version < version) {
+            snapshot = new CatalogSnapshot(version, buffer.toByteArray(), count[0], System.currentTimeMillis());
+        }
+
+        long elapsed = System.currentTimeMillis() - start;
+        rebuilds.incrementAndGet();
+        totalRebuildMillis.addAndGet(elapsed);
+        lastRebuildMillis = elapsed;
+        logger.debug("Catalog snapshot v{} rebuilt with {} products in {} ms", version, count[0], elapsed);
+    }
+
+    public Map<String, Object> getStats() {
+        CatalogSnapshot current = snapshot;
+        long rebuildCount = rebuilds.get();
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("catalogVersion", catalogVersion.get());
+        stats.put("snapshotVersion", current != null ? current.version : null);
+        stats.put("snapshotProducts", current != null ? current.productCount : 0);
+        stats.put("snapshotBytes", current != null ? current.json.length : 0);
+        stats.put("hits", hits.sum());
+        stats.put("staleHits", staleHits.sum());
+        stats.put("coldMisses", coldMisses.sum());
+        stats.put("rebuilds", rebuildCount);
+        stats.put("rebuildFailures", rebuildFailures.get());
+        stats.put("lastRebuildMillis", lastRebuildMillis);
+        stats.put("avgRebuildMillis", rebuildCount == 0 ? 0 : totalRebuildMillis.get() / rebuildCount);
+        return stats;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        rebuildExecutor.shutdownNow();
+    }
+}
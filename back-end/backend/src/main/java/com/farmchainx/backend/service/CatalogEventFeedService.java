@@ -0,0 +1,386 @@
+package com.farmchainx.backend.service;
+
+import com.farmchainx.backend.event.ProductChangeEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Server-Sent Events feed of catalog changes.
+ *
+ * Every ProductChangeEvent is serialized once into a fixed-size ring buffer under a
+ * sequence number. Subscribers are parked async requests holding only a cursor into
+ * that buffer, so idle connections cost no thread. A single dispatcher thread walks them
+ * and hands each one that has something to send to a small writer pool; the dispatcher
+ * never writes itself, and a subscriber has at most one write in flight. A client whose
+ * socket stops draining therefore only holds up its own writer: once it falls more than
+ * the allowed backlog behind, or a write has not finished within app.feed.write-timeout-ms,
+ * it is disconnected. It reconnects with Last-Event-ID and replays from the buffer, or gets
+ * a "reset" event when that position is gone.
+ *
+ * Event ids are "{epoch}-{sequence}"; the epoch changes on restart so ids from a
+ * previous process are never replayed against a different buffer.
+ */
+@Service
+public class CatalogEventFeedService {
+
+    private static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(CatalogEventFeedService.class);
+
+    public static final String RESET_EVENT = "reset";
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${app.feed.buffer-size:4096}")
+    private int bufferSize;
+
+    @Value("${app.feed.max-backlog:1024}")
+    private int maxBacklog;
+
+    @Value("${app.feed.max-subscribers:10000}")
+    private int maxSubscribers;
+
+    @Value("${app.feed.heartbeat-ms:15000}")
+    private long heartbeatMillis;
+
+    @Value("${app.feed.connection-timeout-ms:1800000}")
+    private long connectionTimeoutMillis;
+
+    @Value("${app.feed.writer-threads:8}")
+    private int writerThreads;
+
+    @Value("${app.feed.write-timeout-ms:10000}")
+    private long writeTimeoutMillis;
+
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+
+    private static final class FeedEvent {
+        final long sequence;
+        final String name;
+        final String data;
+
+        FeedEvent(long sequence, String name, String data) {
+            this.sequence = sequence;
+            this.name = name;
+            this.data = data;
+        }
+    }
+
+    private static final class Subscriber {
+        final long id;
+        final SseEmitter emitter;
+        volatile long cursor;   // next sequence to send; advanced by the writer
+        volatile long lastWriteAt;
+        // When the current write was handed out, 0 when none is running; set by the dispatcher, cleared by the writer
+        volatile long writeStartedAt;
+        volatile boolean closed;
+
+        Subscriber(long id, SseEmitter emitter, long cursor) {
+            this.id = id;
+            this.emitter = emitter;
+            this.cursor = cursor;
+            this.lastWriteAt = System.currentTimeMillis();
+        }
+    }
+
+    private AtomicReferenceArray<FeedEvent> ring;
+    private volatile long nextSequence = 1;
+
+    private final Map<Long, Subscriber> subscribers = new ConcurrentHashMap<>();
+    private final AtomicLong subscriberIds = new AtomicLong();
+
+    private final Object signal = new Object();
+    private boolean signalled;
+    private volatile boolean running = true;
+    private Thread dispatcher;
+    private ExecutorService writers;
+
+    // Metrics
+    private final AtomicLong eventsPublished = new AtomicLong();
+    private final AtomicLong eventsDelivered = new AtomicLong();
+    private final AtomicLong subscribersDropped = new AtomicLong();
+    private final AtomicLong writeTimeouts = new AtomicLong();
+    private final AtomicLong resetsSent = new AtomicLong();
+
+    @PostConstruct
+    void start() {
+        ring = new AtomicReferenceArray<>(bufferSize);
+        AtomicInteger writerCount = new AtomicInteger();
+        writers = Executors.newFixedThreadPool(writerThreads, runnable -> {
+            Thread thread = new Thread(runnable, "catalog-feed-writer-" + writerCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        dispatcher = new Thread(this::dispatchLoop, "catalog-feed-dispatcher");
+        dispatcher.setDaemon(true);
+        dispatcher.start();
+    }
+
+    @PreDestroy
+    void stop() {
+        running = false;
+        dispatcher.interrupt();
+        writers.shutdownNow();
+        subscribers.values().forEach(subscriber -> subscriber.emitter.complete());
+        subscribers.clear();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangeEvent event) {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("type", event.getType());
+        payload.put("productId", event.getProductId());
+        payload.put("distributorId", event.getDistributorId());
+        if (event.getQuantity() != null) {
+            payload.put("quantity", event.getQuantity());
+        }
+        if (event.getProduct() != null) {
+            payload.put("product", event.getProduct());
+        }
+        try {
+            publish(eventName(event.getType()), objectMapper.writeValueAsString(payload));
+        } catch (JsonProcessingException e) {
+            logger.error("Could not serialize catalog event {}: {}", event.getType(), e.getMessage());
+        }
+    }
+
+    /**
+     * Opens a feed connection. With a Last-Event-ID from this process that is still in the
+     * buffer, the missed events are replayed; with an unknown or expired id the client first
+     * gets a "reset" event and should reload the catalog. Without an id only new events follow.
+     */
+    public SseEmitter subscribe(String lastEventId) {
+        if (subscribers.size() >= maxSubscribers) {
+            throw new IllegalStateException("Too many catalog feed subscribers");
+        }
+        SseEmitter emitter = newEmitter();
+        long head = nextSequence;
+        long cursor = head;
+
+        if (lastEventId != null && !lastEventId.isBlank()) {
+            long resumeFrom = resumePosition(lastEventId.trim(), head);
+            if (resumeFrom < 0) {
+                try {
+                    emitter.send(SseEmitter.event()
+                            .id(eventId(head - 1))
+                            .name(RESET_EVENT)
+                            .data("{\"reason\":\"Last-Event-ID is no longer available, reload the catalog\"}"));
+                    resetsSent.incrementAndGet();
+                } catch (IOException e) {
+                    emitter.completeWithError(e);
+                    return emitter;
+                }
+            } else {
+                cursor = resumeFrom;
+            }
+        }
+
+        Subscriber subscriber = new Subscriber(subscriberIds.incrementAndGet(), emitter, cursor);
+        emitter.onCompletion(() -> forget(subscriber));
+        emitter.onTimeout(() -> forget(subscriber));
+        emitter.onError(error -> forget(subscriber));
+        subscribers.put(subscriber.id, subscriber);
+        if (cursor < head) {
+            wakeDispatcher();
+        }
+        return emitter;
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("subscribers", subscribers.size());
+        stats.put("lastEventId", eventId(nextSequence - 1));
+        stats.put("eventsPublished", eventsPublished.get());
+        stats.put("eventsDelivered", eventsDelivered.get());
+        stats.put("subscribersDropped", subscribersDropped.get());
+        stats.put("writeTimeouts", writeTimeouts.get());
+        stats.put("resetsSent", resetsSent.get());
+        stats.put("bufferSize", bufferSize);
+        stats.put("maxBacklog", maxBacklog);
+        return stats;
+    }
+
+    private synchronized void publish(String name, String data) {
+        long sequence = nextSequence;
+        ring.set((int) (sequence % bufferSize), new FeedEvent(sequence, name, data));
+        nextSequence = sequence + 1;
+        eventsPublished.incrementAndGet();
+        wakeDispatcher();
+    }
+
+    // Sequence to continue from, or -1 when the id is foreign or has been overwritten
+    private long resumePosition(String lastEventId, long head) {
+        int dash = lastEventId.lastIndexOf('-');
+        if (dash <= 0 || !epoch.equals(lastEventId.substring(0, dash))) {
+            return -1;
+        }
+        long lastSeen;
+        try {
+            lastSeen = Long.parseLong(lastEventId.substring(dash + 1));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+        long resumeFrom = lastSeen + 1;
+        if (resumeFrom > head || resumeFrom < oldestSequence(head) || head - resumeFrom > maxBacklog) {
+            return -1;
+        }
+        return resumeFrom;
+    }
+
+    private long oldestSequence(long head) {
+        return Math.max(1, head - bufferSize);
+    }
+
+    private void wakeDispatcher() {
+        synchronized (signal) {
+            signalled = true;
+            signal.notify();
+        }
+    }
+
+    private void dispatchLoop() {
+        long lastHeartbeat = System.currentTimeMillis();
+        while (running) {
+            try {
+                synchronized (signal) {
+                    if (!signalled) {
+                        signal.wait(heartbeatMillis);
+                    }
+                    signalled = false;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+
+            long now = System.currentTimeMillis();
+            boolean heartbeatDue = now - lastHeartbeat >= heartbeatMillis;
+            if (heartbeatDue) {
+                lastHeartbeat = now;
+            }
+            long head = nextSequence;
+            for (Subscriber subscriber : subscribers.values()) {
+                dispatch(subscriber, head, heartbeatDue, now);
+            }
+        }
+    }
+
+    SseEmitter newEmitter() {
+        return new SseEmitter(connectionTimeoutMillis);
+    }
+
+    // Runs on the dispatcher: drops subscribers that are stuck or too far behind, hands the rest to a writer
+    private void dispatch(Subscriber subscriber, long head, boolean heartbeatDue, long now) {
+        long writeStartedAt = subscriber.writeStartedAt;
+        if (writeStartedAt != 0 && now - writeStartedAt > writeTimeoutMillis) {
+            writeTimeouts.incrementAndGet();
+            drop(subscriber, head);
+            return;
+        }
+        if (subscriber.cursor < oldestSequence(head) || head - subscriber.cursor > maxBacklog) {
+            drop(subscriber, head);
+            return;
+        }
+        if (writeStartedAt != 0) {
+            // Still busy; it picks up new events before it finishes
+            return;
+        }
+        boolean heartbeat = heartbeatDue && now - subscriber.lastWriteAt >= heartbeatMillis;
+        if (subscriber.cursor < head || heartbeat) {
+            subscriber.writeStartedAt = now;
+            try {
+                writers.execute(() -> write(subscriber, heartbeat));
+            } catch (RejectedExecutionException e) {
+                subscriber.writeStartedAt = 0;
+            }
+        }
+    }
+
+    // Runs on a writer thread; the only place that sends on a registered subscriber's emitter
+    private void write(Subscriber subscriber, boolean heartbeat) {
+        try {
+            boolean wrote = false;
+            long head;
+            while (!subscriber.closed && subscriber.cursor < (head = nextSequence)) {
+                FeedEvent event = ring.get((int) (subscriber.cursor % bufferSize));
+                if (event == null || event.sequence != subscriber.cursor) {
+                    // Overwritten while we were catching up
+                    drop(subscriber, head);
+                    break;
+                }
+                subscriber.emitter.send(SseEmitter.event()
+                        .id(eventId(event.sequence))
+                        .name(event.name)
+                        .data(event.data));
+                subscriber.cursor++;
+                eventsDelivered.incrementAndGet();
+                wrote = true;
+            }
+            if (wrote) {
+                subscriber.lastWriteAt = System.currentTimeMillis();
+            } else if (heartbeat && !subscriber.closed) {
+                subscriber.emitter.send(SseEmitter.event().comment("heartbeat"));
+                subscriber.lastWriteAt = System.currentTimeMillis();
+            }
+        } catch (IOException | IllegalStateException e) {
+            // Client went away; the emitter callbacks may not fire for a half-closed socket
+            forget(subscriber);
+            subscriber.emitter.completeWithError(e);
+            return;
+        } finally {
+            subscriber.writeStartedAt = 0;
+        }
+        if (subscriber.closed) {
+            // Dropped while this write was running
+            subscriber.emitter.complete();
+        } else if (subscriber.cursor < nextSequence) {
+            // Events published after the dispatcher skipped this busy subscriber
+            wakeDispatcher();
+        }
+    }
+
+    // Slow consumers are cut off rather than buffered for; they resume via Last-Event-ID
+    private void drop(Subscriber subscriber, long head) {
+        if (!forget(subscriber)) {
+            return;
+        }
+        subscribersDropped.incrementAndGet();
+        logger.debug("Dropping catalog feed subscriber {} ({} events behind)", subscriber.id, head - subscriber.cursor);
+        // A writer blocked in send holds the emitter's monitor, so completing it here could stall
+        // the dispatcher; a running writer completes it itself when its send returns
+        if (subscriber.writeStartedAt == 0) {
+            subscriber.emitter.complete();
+        }
+    }
+
+    private boolean forget(Subscriber subscriber) {
+        subscriber.closed = true;
+        return subscribers.remove(subscriber.id) != null;
+    }
+
+    private String eventId(long sequence) {
+        return epoch + "-" + sequence;
+    }
+
+    private static String eventName(ProductChangeEvent.Type type) {
+        return type.name().toLowerCase(Locale.ROOT).replace('_', '-');
+    }
+}
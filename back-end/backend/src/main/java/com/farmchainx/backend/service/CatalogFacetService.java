@@ -0,0 +1,64 @@
+package com.farmchainx.backend.service;
+
+import com.farmchainx.backend.dto.FacetCountDTO;
+import com.farmchainx.backend.dto.FacetedCatalogDTO;
+import com.farmchainx.backend.dto.ProductDTO;
+import com.farmchainx.backend.util.FacetIndex;
+import org.springframework.stereotype.Service;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Filters the available catalog by category, price range, distributor and unit,
+ * and returns facet counts alongside each page, all from an in-memory bitmap index.
+ */
+@Service
+public class CatalogFacetService extends CatalogIndexSupport<FacetIndex> {
+
+    public FacetedCatalogDTO filter(List<String> categories, Double minPrice, Double maxPrice,
+                                    List<Long> distributorIds, List<String> units,
+                                    Integer page, Integer size) {
+        if (minPrice != null && maxPrice != null && minPrice > maxPrice) {
+            throw new IllegalArgumentException("minPrice must not be greater than maxPrice");
+        }
+        int pageNumber = page == null ? 0 : Math.max(0, page);
+        int pageSize = size == null ? ProductService.DEFAULT_PAGE_SIZE
+                : Math.max(1, Math.min(size, ProductService.MAX_PAGE_SIZE));
+
+        FacetIndex.Selection selection = new FacetIndex.Selection()
+                .categories(categories)
+                .distributorIds(distributorIds)
+                .units(units)
+                .minPrice(minPrice)
+                .maxPrice(maxPrice);
+        FacetIndex.Result result = readyIndex().query(selection, pageNumber * pageSize, pageSize);
+
+        List<ProductDTO> items = loadInOrder(result.getIds());
+
+        Map<String, List<FacetCountDTO>> facets = new LinkedHashMap<>();
+        result.getFacets().forEach((facet, counts) -> facets.put(facet, counts.stream()
+                .map(count -> new FacetCountDTO(count.getValue(), count.getLabel(), count.getCount()))
+                .collect(Collectors.toList())));
+
+        return new FacetedCatalogDTO(items, result.getTotal(), pageNumber, pageSize, facets);
+    }
+
+    @Override
+    protected FacetIndex createIndex() {
+        return new FacetIndex();
+    }
+
+    @Override
+    protected void put(FacetIndex index, ProductDTO product) {
+        index.put(product.getId(), product.getCategory(), product.getUnit(),
+                product.getDistributorId(), product.getDistributorName(), product.getPrice());
+    }
+
+    @Override
+    protected void remove(FacetIndex index, Long productId) {
+        index.remove(productId);
+    }
+}
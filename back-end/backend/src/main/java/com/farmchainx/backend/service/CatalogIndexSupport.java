@@ -0,0 +1,220 @@
+package com.farmchainx.backend.service;
+
+import com.farmchainx.backend.dto.ProductDTO;
+import com.farmchainx.backend.event.ProductChangeEvent;
+import com.farmchainx.backend.repository.ProductRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Base for in-memory indexes over the available catalog. Subclasses say how to put and
+ * remove one product; this class builds the index from the catalog stream at startup
+ * and keeps it in sync with ProductChangeEvents after each commit. Queries go through
+ * {@link #readyIndex()}, which refuses to answer before the first build has succeeded;
+ * failed builds are retried.
+ */
+public abstract class CatalogIndexSupport<T> {
+
+    private final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(getClass());
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private StockHoldService stockHoldService;
+
+    private volatile T index;
+    private volatile boolean ready;
+
+    // Changes seen while a full rebuild is running, replayed onto the new index before it is swapped in
+    private List<ProductChangeEvent> pendingDuringRebuild;
+    private final Object rebuildLock = new Object();
+    private final AtomicBoolean rebuilding = new AtomicBoolean(false);
+    private volatile boolean rebuildRequested;
+
+    protected abstract T createIndex();
+
+    protected abstract void put(T index, ProductDTO product);
+
+    protected abstract void remove(T index, Long productId);
+
+    // Called once a fresh index has been filled from the catalog stream, before it goes live
+    protected void finishBuild(T index) {
+    }
+
+    // Wait before retrying a failed build, so a database outage is not hammered
+    private static final long RETRY_DELAY_MILLIS = 10_000;
+
+    protected T currentIndex() {
+        return index;
+    }
+
+    /**
+     * The live index for answering requests. Until the first build has completed the index
+     * is empty, so this throws instead of letting callers report an empty catalog.
+     *
+     * @throws IllegalStateException if no build has completed yet
+     */
+    protected T readyIndex() {
+        if (!ready) {
+            throw new IllegalStateException("Catalog index is still being built, try again shortly");
+        }
+        return index;
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    // Loads the products behind an index result, keeping the index order; ids that vanished or went
+    // unavailable since the index saw them are skipped.
+    // Available-to-promise is filled in here, at read time, since holds change far more often than the index
+    protected List<ProductDTO> loadInOrder(long[] ids) {
+        if (ids.length == 0) {
+            return List.of();
+        }
+        List<Long> idList = new ArrayList<>(ids.length);
+        for (long id : ids) {
+            idList.add(id);
+        }
+        Map<Long, ProductDTO> products = productRepository.findViewsByIdIn(idList).stream()
+                .collect(Collectors.toMap(ProductDTO::getId, Function.identity()));
+
+        List<ProductDTO> ordered = new ArrayList<>(ids.length);
+        for (Long id : idList) {
+            ProductDTO product = products.get(id);
+            if (product != null && Boolean.TRUE.equals(product.getIsAvailable())) {
+                ordered.add(product);
+            }
+        }
+        stockHoldService.applyAvailableToPromise(ordered);
+        return ordered;
+    }
+
+    @PostConstruct
+    protected void initIndex() {
+        index = createIndex();
+        finishBuild(index);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangeEvent event) {
+        if (event.getType() == ProductChangeEvent.Type.BULK_CHANGED) {
+            requestRebuild();
+            return;
+        }
+        synchronized (rebuildLock) {
+            if (pendingDuringRebuild != null) {
+                pendingDuringRebuild.add(event);
+            }
+            apply(index, event);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        requestRebuild();
+    }
+
+    // Runs a full rebuild on a background thread; requests arriving mid-build cause one more pass
+    public void requestRebuild() {
+        rebuildRequested = true;
+        if (!rebuilding.compareAndSet(false, true)) {
+            return;
+        }
+        Thread builder = new Thread(() -> {
+            try {
+                while (rebuildRequested) {
+                    rebuildRequested = false;
+                    if (!rebuild()) {
+                        // A failed build leaves the index empty or stale, so keep retrying
+                        Thread.sleep(RETRY_DELAY_MILLIS);
+                        rebuildRequested = true;
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                rebuilding.set(false);
+            }
+            if (rebuildRequested) {
+                requestRebuild();
+            }
+        }, getClass().getSimpleName() + "-build");
+        builder.setDaemon(true);
+        builder.start();
+    }
+
+    private boolean rebuild() {
+        synchronized (rebuildLock) {
+            pendingDuringRebuild = new ArrayList<>();
+        }
+        try {
+            long start = System.currentTimeMillis();
+            T fresh = createIndex();
+            int[] count = {0};
+            productService.streamAvailableProducts(product -> {
+                put(fresh, product);
+                count[0]++;
+            });
+            finishBuild(fresh);
+
+            synchronized (rebuildLock) {
+                for (ProductChangeEvent event : pendingDuringRebuild) {
+                    apply(fresh, event);
+                }
+                index = fresh;
+                ready = true;
+            }
+            logger.info("{} built with {} products in {} ms",
+                    getClass().getSimpleName(), count[0], System.currentTimeMillis() - start);
+            return true;
+        } catch (RuntimeException e) {
+            logger.error("{} build failed, retrying in {} ms: {}",
+                    getClass().getSimpleName(), RETRY_DELAY_MILLIS, e.getMessage(), e);
+            return false;
+        } finally {
+            synchronized (rebuildLock) {
+                pendingDuringRebuild = null;
+            }
+        }
+    }
+
+    private void apply(T target, ProductChangeEvent event) {
+        switch (event.getType()) {
+            case CREATED:
+            case UPDATED:
+                if (Boolean.TRUE.equals(event.getProduct().getIsAvailable())) {
+                    put(target, event.getProduct());
+                } else {
+                    remove(target, event.getProductId());
+                }
+                break;
+            case DELETED:
+                remove(target, event.getProductId());
+                break;
+            case STOCK_CHANGED:
+                // Orders only ever take stock away, so the only transition is to sold out
+                if (event.getQuantity() != null && event.getQuantity() <= 0) {
+                    remove(target, event.getProductId());
+                }
+                break;
+            case BULK_CHANGED:
+                // Picked up by the follow-up rebuild requested in onProductChanged
+                break;
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.farmchainx.backend.service;
+
+import com.farmchainx.backend.dto.ProductDTO;
+import com.farmchainx.backend.dto.ProductPageDTO;
+import com.farmchainx.backend.util.PriceIndex;
+import org.springframework.stereotype.Service;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Price-ordered views of the available catalog (cheapest in a category, price ranges,
+ * pages sorted by price) answered from an in-memory {@link PriceIndex}; only the ids
+ * of the requested page are loaded from the database.
+ */
+@Service
+public class CatalogPriceService extends CatalogIndexSupport<PriceIndex> {
+
+    public static final int DEFAULT_CHEAPEST_LIMIT = 10;
+
+    public List<ProductDTO> cheapestInCategory(String category, Integer limit) {
+        int count = limit == null ? DEFAULT_CHEAPEST_LIMIT
+                : Math.max(1, Math.min(limit, ProductService.MAX_PAGE_SIZE));
+        return loadInOrder(readyIndex().cheapestInCategory(category, count));
+    }
+
+    public ProductPageDTO byPrice(Double minPrice, Double maxPrice, String order, Integer page, Integer size) {
+        if (minPrice != null && maxPrice != null && minPrice > maxPrice) {
+            throw new IllegalArgumentException("minPrice must not be greater than maxPrice");
+        }
+        boolean descending;
+        if (order == null || order.equalsIgnoreCase("asc")) {
+            descending = false;
+        } else if (order.equalsIgnoreCase("desc")) {
+            descending = true;
+        } else {
+            throw new IllegalArgumentException("Unsupported order: " + order + " (use asc or desc)");
+        }
+        int pageNumber = page == null ? 0 : Math.max(0, page);
+        int pageSize = size == null ? ProductService.DEFAULT_PAGE_SIZE
+                : Math.max(1, Math.min(size, ProductService.MAX_PAGE_SIZE));
+        double min = minPrice != null ? minPrice : Double.NEGATIVE_INFINITY;
+        double max = maxPrice != null ? maxPrice : Double.POSITIVE_INFINITY;
+
+        PriceIndex index = readyIndex();
+        long[] ids = index.between(min, max, pageNumber * pageSize, pageSize, descending);
+        return new ProductPageDTO(loadInOrder(ids), index.countBetween(min, max), pageNumber, pageSize);
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("ready", isReady());
+        stats.put("products", currentIndex().size());
+        return stats;
+    }
+
+    @Override
+    protected PriceIndex createIndex() {
+        return new PriceIndex();
+    }
+
+    @Override
+    protected void put(PriceIndex index, ProductDTO product) {
+        if (product.getPrice() != null) {
+            index.put(product.getId(), product.getPrice(), product.getCategory());
+        }
+    }
+
+    @Override
+    protected void remove(PriceIndex index, Long productId) {
+        index.remove(productId);
+    }
+
+    @Override
+    protected void finishBuild(PriceIndex index) {
+        index.seal();
+    }
+}
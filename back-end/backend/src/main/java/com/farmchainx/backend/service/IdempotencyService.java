@@ -0,0 +1,384 @@
+package com.farmchainx.backend.service;
+
+import com.farmchainx.backend.entity.IdempotencyRecord;
+import com.farmchainx.backend.repository.IdempotencyRecordRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Idempotency-Key handling for POST endpoints.
+ *
+ * The first request with a key claims it in the idempotency_keys table, runs, and stores
+ * its successful response; a retry with the same key gets that response back (marked
+ * Idempotent-Replayed) without running the action again. Recent responses are kept in a
+ * bounded in-memory LRU with a TTL so most retries never reach the database. A duplicate
+ * arriving while the first is still running on this node waits for it; one running on
+ * another node gets 409 and should retry later. A claim is a lease: one still unfinished
+ * after app.idempotency.claim-lease-ms is taken to belong to a node that crashed or could
+ * not release it, and the next request with the key takes it over.
+ *
+ * Only 2xx responses are stored. A failed request has changed nothing, so a retry with the
+ * same key simply runs again. Reusing a key with a different payload gets 422.
+ */
+@Service
+public class IdempotencyService {
+
+    private static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(IdempotencyService.class);
+
+    public static final String HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private static final int MAX_KEY_LENGTH = 191;
+
+    @Autowired
+    private IdempotencyRecordRepository idempotencyRecordRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${app.idempotency.cache-size:10000}")
+    private int cacheSize;
+
+    @Value("${app.idempotency.ttl-ms:86400000}")
+    private long ttlMillis;
+
+    @Value("${app.idempotency.wait-ms:30000}")
+    private long waitMillis;
+
+    // Longer than any idempotent action may run, or a slow original and its retry could both run
+    @Value("${app.idempotency.claim-lease-ms:120000}")
+    private long claimLeaseMillis;
+
+    private static final class StoredResponse {
+        final String requestHash;
+        final int statusCode;
+        final String body;
+        final String location;
+        final long storedAt;
+
+        StoredResponse(String requestHash, int statusCode, String body, String location, long storedAt) {
+            this.requestHash = requestHash;
+            this.statusCode = statusCode;
+            this.body = body;
+            this.location = location;
+            this.storedAt = storedAt;
+        }
+    }
+
+    // Claims and stores commit on their own, whatever transaction the caller is in
+    private TransactionTemplate requiresNew;
+
+    private Map<String, StoredResponse> recent;
+    private final Map<String, CompletableFuture<StoredResponse>> inFlight = new ConcurrentHashMap<>();
+    private volatile long lastPurge = System.currentTimeMillis();
+
+    // Metrics
+    private final AtomicLong executed = new AtomicLong();
+    private final AtomicLong memoryReplays = new AtomicLong();
+    private final AtomicLong databaseReplays = new AtomicLong();
+    private final AtomicLong waitedForInFlight = new AtomicLong();
+    private final AtomicLong conflicts = new AtomicLong();
+    private final AtomicLong payloadMismatches = new AtomicLong();
+    private final AtomicLong abandonedClaimsTaken = new AtomicLong();
+
+    @PostConstruct
+    void init() {
+        requiresNew = new TransactionTemplate(transactionManager);
+        requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        recent = new LinkedHashMap<>(Math.min(cacheSize, 1024), 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, StoredResponse> eldest) {
+                return size() > cacheSize;
+            }
+        };
+    }
+
+    /**
+     * Runs {@code action} at most once per key and scope.
+     *
+     * @param key         the Idempotency-Key header; without one the action simply runs
+     * @param scope       method, path and caller the key is bound to
+     * @param fingerprint request payload, compared on replay to reject a reused key
+     * @param action      the request handler
+     */
+    public ResponseEntity<?> execute(String key, String scope, Object fingerprint, Supplier<ResponseEntity<?>> action) {
+        if (key == null || key.isBlank()) {
+            return action.get();
+        }
+        key = key.trim();
+        if (key.length() > MAX_KEY_LENGTH) {
+            return ResponseEntity.badRequest().body(Map.of("message", HEADER + " must be at most " + MAX_KEY_LENGTH + " characters"));
+        }
+        String cacheKey = scope + "\n" + key;
+        String requestHash = hash(fingerprint);
+
+        while (true) {
+            StoredResponse cached = cached(cacheKey);
+            if (cached != null) {
+                memoryReplays.incrementAndGet();
+                return replay(cached, requestHash);
+            }
+
+            CompletableFuture<StoredResponse> mine = new CompletableFuture<>();
+            CompletableFuture<StoredResponse> running = inFlight.putIfAbsent(cacheKey, mine);
+            if (running != null) {
+                StoredResponse result;
+                try {
+                    waitedForInFlight.incrementAndGet();
+                    result = running.get(waitMillis, TimeUnit.MILLISECONDS);
+                } catch (TimeoutException e) {
+                    return conflict("A request with this " + HEADER + " is still being processed");
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return conflict("Interrupted while waiting for the original request");
+                } catch (ExecutionException e) {
+                    result = null;
+                }
+                if (result != null) {
+                    return replay(result, requestHash);
+                }
+                // The first attempt failed without storing anything; try again ourselves
+                continue;
+            }
+
+            try {
+                return runOwned(cacheKey, scope, key, requestHash, action, mine);
+            } finally {
+                inFlight.remove(cacheKey, mine);
+                if (!mine.isDone()) {
+                    mine.complete(null);
+                }
+            }
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("executed", executed.get());
+        stats.put("memoryReplays", memoryReplays.get());
+        stats.put("databaseReplays", databaseReplays.get());
+        stats.put("waitedForInFlight", waitedForInFlight.get());
+        stats.put("conflicts", conflicts.get());
+        stats.put("payloadMismatches", payloadMismatches.get());
+        stats.put("abandonedClaimsTaken", abandonedClaimsTaken.get());
+        stats.put("inFlight", inFlight.size());
+        synchronized (recent) {
+            stats.put("cachedResponses", recent.size());
+        }
+        stats.put("cacheSize", cacheSize);
+        return stats;
+    }
+
+    private ResponseEntity<?> runOwned(String cacheKey, String scope, String key, String requestHash,
+                                       Supplier<ResponseEntity<?>> action, CompletableFuture<StoredResponse> mine) {
+        Optional<IdempotencyRecord> existing = idempotencyRecordRepository.findByScopeAndIdempotencyKey(scope, key);
+        if (existing.isPresent()) {
+            IdempotencyRecord record = existing.get();
+            if (isExpired(record)) {
+                requiresNew.executeWithoutResult(status -> idempotencyRecordRepository.deleteById(record.getId()));
+            } else if (record.getStatusCode() == null) {
+                if (!isAbandoned(record)) {
+                    return conflict("A request with this " + HEADER + " is still being processed");
+                }
+                // Conditional, so of several nodes seeing the stale claim only one removes it
+                Integer removed = requiresNew.execute(status ->
+                        idempotencyRecordRepository.deletePendingClaimedBefore(record.getId(), leaseCutoff()));
+                if (removed == null || removed == 0) {
+                    return conflict("A request with this " + HEADER + " is still being processed");
+                }
+                abandonedClaimsTaken.incrementAndGet();
+                logger.warn("Taking over idempotency key {} for {}, claimed at {} and never completed",
+                        key, scope, record.getCreatedAt());
+            } else {
+                StoredResponse stored = new StoredResponse(record.getRequestHash(), record.getStatusCode(),
+                        record.getResponseBody(), record.getResponseLocation(), System.currentTimeMillis());
+                remember(cacheKey, stored);
+                mine.complete(stored);
+                databaseReplays.incrementAndGet();
+                return replay(stored, requestHash);
+            }
+        }
+
+        IdempotencyRecord pending = new IdempotencyRecord();
+        pending.setScope(scope);
+        pending.setIdempotencyKey(key);
+        pending.setRequestHash(requestHash);
+        IdempotencyRecord claim;
+        try {
+            claim = requiresNew.execute(status -> idempotencyRecordRepository.saveAndFlush(pending));
+        } catch (DataIntegrityViolationException e) {
+            // Another node claimed the key between our lookup and insert
+            return conflict("A request with this " + HEADER + " is still being processed");
+        }
+        purgeExpired();
+
+        ResponseEntity<?> response;
+        try {
+            response = action.get();
+        } catch (RuntimeException e) {
+            release(claim);
+            throw e;
+        }
+        executed.incrementAndGet();
+
+        if (!response.getStatusCode().is2xxSuccessful()) {
+            release(claim);
+            return response;
+        }
+        String body;
+        try {
+            body = response.getBody() == null ? null : objectMapper.writeValueAsString(response.getBody());
+        } catch (JsonProcessingException e) {
+            logger.warn("Response for {} is not serializable, not storing it: {}", scope, e.getMessage());
+            release(claim);
+            return response;
+        }
+        URI location = response.getHeaders().getLocation();
+        StoredResponse stored = new StoredResponse(requestHash, response.getStatusCode().value(), body,
+                location == null ? null : location.toString(), System.currentTimeMillis());
+
+        IdempotencyRecord completed = claim;
+        completed.setStatusCode(stored.statusCode);
+        completed.setResponseBody(stored.body);
+        completed.setResponseLocation(stored.location);
+        completed.setCompletedAt(LocalDateTime.now());
+        try {
+            requiresNew.executeWithoutResult(status -> idempotencyRecordRepository.save(completed));
+        } catch (RuntimeException e) {
+            // The action has run; keep the in-memory copy so retries here still replay
+            logger.error("Could not store idempotent response for {}: {}", scope, e.getMessage());
+        }
+        remember(cacheKey, stored);
+        mine.complete(stored);
+        return response;
+    }
+
+    private ResponseEntity<?> replay(StoredResponse stored, String requestHash) {
+        if (!stored.requestHash.equals(requestHash)) {
+            payloadMismatches.incrementAndGet();
+            return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY)
+                    .body(Map.of("message", HEADER + " was already used with a different request"));
+        }
+        ResponseEntity.BodyBuilder builder = ResponseEntity.status(stored.statusCode)
+                .header(REPLAYED_HEADER, "true");
+        if (stored.location != null) {
+            builder.header(HttpHeaders.LOCATION, stored.location);
+        }
+        if (stored.body == null) {
+            return builder.build();
+        }
+        return builder.contentType(MediaType.APPLICATION_JSON).body(stored.body);
+    }
+
+    private ResponseEntity<?> conflict(String message) {
+        conflicts.incrementAndGet();
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(Map.of("message", message));
+    }
+
+    private StoredResponse cached(String cacheKey) {
+        synchronized (recent) {
+            StoredResponse stored = recent.get(cacheKey);
+            if (stored != null && System.currentTimeMillis() - stored.storedAt > ttlMillis) {
+                recent.remove(cacheKey);
+                return null;
+            }
+            return stored;
+        }
+    }
+
+    private void remember(String cacheKey, StoredResponse stored) {
+        synchronized (recent) {
+            recent.put(cacheKey, stored);
+        }
+    }
+
+    private void release(IdempotencyRecord claim) {
+        try {
+            requiresNew.executeWithoutResult(status -> idempotencyRecordRepository.deleteById(claim.getId()));
+        } catch (RuntimeException e) {
+            logger.error("Could not release idempotency key {}: {}", claim.getIdempotencyKey(), e.getMessage());
+        }
+    }
+
+    private boolean isExpired(IdempotencyRecord record) {
+        return record.getCreatedAt() != null && record.getCreatedAt().isBefore(cutoff());
+    }
+
+    private boolean isAbandoned(IdempotencyRecord record) {
+        return record.getCreatedAt() != null && record.getCreatedAt().isBefore(leaseCutoff());
+    }
+
+    private LocalDateTime leaseCutoff() {
+        return LocalDateTime.now().minusNanos(TimeUnit.MILLISECONDS.toNanos(claimLeaseMillis));
+    }
+
+    private LocalDateTime cutoff() {
+        return LocalDateTime.now().minusNanos(TimeUnit.MILLISECONDS.toNanos(ttlMillis));
+    }
+
+    // At most once a minute, piggybacking on a claim
+    private void purgeExpired() {
+        long now = System.currentTimeMillis();
+        if (now - lastPurge < 60_000) {
+            return;
+        }
+        lastPurge = now;
+        try {
+            Integer purged = requiresNew.execute(status -> idempotencyRecordRepository.deleteCreatedBefore(cutoff()));
+            if (purged != null && purged > 0) {
+                logger.debug("Purged {} expired idempotency keys", purged);
+            }
+        } catch (RuntimeException e) {
+            logger.warn("Could not purge expired idempotency keys: {}", e.getMessage());
+        }
+    }
+
+    private String hash(Object fingerprint) {
+        byte[] bytes;
+        try {
+            bytes = fingerprint == null ? new byte[0] : objectMapper.writeValueAsBytes(fingerprint);
+        } catch (JsonProcessingException e) {
+            // Fall back to the string form; still stable for the same payload
+            bytes = String.valueOf(fingerprint).getBytes(StandardCharsets.UTF_8);
+        }
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(bytes));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,475 @@
+package com.farmchainx.backend.service;
+
+import com.farmchainx.backend.dto.OrderDTO;
+import com.farmchainx.backend.entity.OrderStatus;
+import com.farmchainx.backend.event.OrderChangeEvent;
+import com.farmchainx.backend.util.ETags;
+import com.itextpdf.text.DocumentException;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Rendered invoice PDFs, keyed by (order id, status) - the only invoice content that can
+ * change after an order is placed.
+ *
+ * Two tiers: an LRU in memory bounded by app.invoice.cache.memory-bytes, and files under
+ * app.invoice.cache.dir bounded by app.invoice.cache.disk-bytes (oldest files go first).
+ * Both tiers are keyed the same way, so every hit costs one single-row status lookup and
+ * an entry rendered for an older status is never served, even if its invalidation was missed
+ * (e.g. the status changed on another node).
+ * Each PDF's ETag is a hash of its bytes, so the tag is strong and changes whenever a new
+ * render is served. Status changes (single or bulk) drop the order's entries after commit.
+ * A miss is streamed straight to the client through {@link #renderTo}, which copies it
+ * into the disk tier on the way; the next download promotes it to memory.
+ */
+@Service
+public class InvoiceCacheService {
+
+    private static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(InvoiceCacheService.class);
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private PdfService pdfService;
+
+    @Value("${app.invoice.cache.memory-bytes:67108864}")
+    private long maxMemoryBytes;
+
+    @Value("${app.invoice.cache.dir:cache/invoices}")
+    private String cacheDir;
+
+    @Value("${app.invoice.cache.disk-bytes:1073741824}")
+    private long maxDiskBytes;
+
+    // Larger PDFs stay on disk only and are streamed from their file
+    @Value("${app.invoice.cache.max-entry-bytes:1048576}")
+    private long maxEntryBytes;
+
+    /** A cached PDF, held in memory or, when too large for the memory tier, read from its file. */
+    public static final class CachedInvoice {
+        private final Long orderId;
+        private final String status;
+        private final String orderNumber;
+        private final byte[] pdf;
+        private final Path file;
+        private final long length;
+        private final String etag;
+
+        CachedInvoice(Long orderId, String status, String orderNumber, byte[] pdf) {
+            this.orderId = orderId;
+            this.status = status;
+            this.orderNumber = orderNumber;
+            this.pdf = pdf;
+            this.file = null;
+            this.length = pdf.length;
+            this.etag = etagOf(orderId, sha256(pdf));
+        }
+
+        CachedInvoice(Long orderId, String status, String orderNumber, Path file, long length, String digest) {
+            this.orderId = orderId;
+            this.status = status;
+            this.orderNumber = orderNumber;
+            this.pdf = null;
+            this.file = file;
+            this.length = length;
+            this.etag = etagOf(orderId, digest);
+        }
+
+        public Long getOrderId() { return orderId; }
+
+        public String getStatus() { return status; }
+
+        public String getOrderNumber() { return orderNumber; }
+
+        /** The bytes, or null for a file-backed entry; see {@link #writeTo}. */
+        public byte[] getPdf() { return pdf; }
+
+        public long getLength() { return length; }
+
+        public String getEtag() { return etag; }
+
+        public String getFileName() { return fileName(orderNumber); }
+
+        public void writeTo(OutputStream out) throws IOException {
+            if (pdf != null) {
+                out.write(pdf);
+            } else {
+                Files.copy(file, out);
+            }
+        }
+    }
+
+    // Access-ordered, so iteration starts at the least recently used entry; guarded by itself
+    private final LinkedHashMap<String, CachedInvoice> memory = new LinkedHashMap<>(256, 0.75f, true);
+    private long memoryBytes;
+
+    // Bumped by every invalidation; a disk read that saw it move does not go into memory
+    private final AtomicLong invalidationStamp = new AtomicLong();
+
+    private Path directory;
+    private final AtomicLong diskBytes = new AtomicLong();
+
+    // Metrics
+    private final AtomicLong memoryHits = new AtomicLong();
+    private final AtomicLong diskHits = new AtomicLong();
+    private final AtomicLong rendered = new AtomicLong();
+    private final AtomicLong invalidations = new AtomicLong();
+    private final AtomicLong diskEvictions = new AtomicLong();
+
+    @PostConstruct
+    void init() throws IOException {
+        directory = Paths.get(cacheDir).toAbsolutePath();
+        Files.createDirectories(directory);
+        try (Stream<Path> files = Files.list(directory)) {
+            diskBytes.set(files.filter(file -> file.toString().endsWith(".pdf")).mapToLong(InvoiceCacheService::sizeOf).sum());
+        }
+        logger.info("Invoice cache at {} ({} bytes on disk)", directory, diskBytes.get());
+    }
+
+    /**
+     * The cached invoice for the order's current status, or null when neither tier has it.
+     * Disk entries above app.invoice.cache.max-entry-bytes are returned file-backed.
+     */
+    public CachedInvoice findCached(Long orderId) {
+        long stamp = invalidationStamp.get();
+        OrderDTO summary = orderService.getOrderSummary(orderId);
+        CachedInvoice cached = fromMemory(key(orderId, summary.getStatus()));
+        if (cached != null) {
+            memoryHits.incrementAndGet();
+            return cached;
+        }
+        Path file = file(orderId, summary.getStatus());
+        long length = sizeOf(file);
+        if (length == 0) {
+            return null;
+        }
+        if (length <= maxEntryBytes) {
+            cached = fromDisk(orderId, summary);
+            if (cached != null && invalidationStamp.get() == stamp) {
+                toMemory(cached);
+            }
+        } else {
+            try (InputStream in = Files.newInputStream(file)) {
+                cached = new CachedInvoice(orderId, summary.getStatus(), summary.getOrderNumber(), file, length, sha256(in));
+            } catch (IOException e) {
+                return null;
+            }
+        }
+        if (cached != null) {
+            diskHits.incrementAndGet();
+        }
+        return cached;
+    }
+
+    /**
+     * Renders the invoice into {@code out} while copying it into the disk tier; the copy is
+     * kept only if the whole PDF was written. The caller loaded {@code order}.
+     */
+    public void renderTo(OrderDTO order, OutputStream out) throws IOException {
+        Path temp = Files.createTempFile(directory, "render-", ".tmp");
+        boolean complete = false;
+        try {
+            TeeOutputStream tee = new TeeOutputStream(out, Files.newOutputStream(temp));
+            try {
+                pdfService.writeInvoicePdf(order, tee);
+                tee.flush();
+            } finally {
+                tee.close();
+            }
+            // Closing the cache file can still fail, so the copy is only judged after it
+            complete = !tee.copyFailed();
+        } catch (DocumentException e) {
+            throw new IOException("Could not render invoice for order " + order.getId(), e);
+        } finally {
+            rendered.incrementAndGet();
+            if (complete) {
+                storeFile(temp, file(order.getId(), order.getStatus()), order.getId());
+            } else {
+                Files.deleteIfExists(temp);
+            }
+        }
+    }
+
+    public static String fileName(String orderNumber) {
+        return "invoice_" + orderNumber + ".pdf";
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrderChanged(OrderChangeEvent event) {
+        if (event.getType() == OrderChangeEvent.Type.STATUS_CHANGED) {
+            invalidate(event.getOrderId());
+        }
+    }
+
+    /** Drops both tiers' copies of the order's invoice, whatever status they were rendered for. */
+    public void invalidate(Long orderId) {
+        invalidationStamp.incrementAndGet();
+        invalidations.incrementAndGet();
+        for (OrderStatus status : OrderStatus.values()) {
+            synchronized (memory) {
+                CachedInvoice removed = memory.remove(key(orderId, status.name()));
+                if (removed != null) {
+                    memoryBytes -= removed.pdf.length;
+                }
+            }
+            deleteFile(file(orderId, status.name()));
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        synchronized (memory) {
+            stats.put("memoryEntries", memory.size());
+            stats.put("memoryBytes", memoryBytes);
+        }
+        stats.put("maxMemoryBytes", maxMemoryBytes);
+        stats.put("diskBytes", diskBytes.get());
+        stats.put("maxDiskBytes", maxDiskBytes);
+        stats.put("memoryHits", memoryHits.get());
+        stats.put("diskHits", diskHits.get());
+        stats.put("rendered", rendered.get());
+        stats.put("invalidations", invalidations.get());
+        stats.put("diskEvictions", diskEvictions.get());
+        return stats;
+    }
+
+    private CachedInvoice fromMemory(String key) {
+        synchronized (memory) {
+            return memory.get(key);
+        }
+    }
+
+    private void toMemory(CachedInvoice invoice) {
+        if (invoice.pdf.length > maxMemoryBytes) {
+            return;
+        }
+        synchronized (memory) {
+            CachedInvoice previous = memory.put(key(invoice.orderId, invoice.status), invoice);
+            memoryBytes += invoice.pdf.length - (previous == null ? 0 : previous.pdf.length);
+            var eldest = memory.values().iterator();
+            while (memoryBytes > maxMemoryBytes && eldest.hasNext()) {
+                memoryBytes -= eldest.next().pdf.length;
+                eldest.remove();
+            }
+        }
+    }
+
+    private CachedInvoice fromDisk(Long orderId, OrderDTO summary) {
+        Path file = file(orderId, summary.getStatus());
+        try {
+            byte[] pdf = Files.readAllBytes(file);
+            // Recently read files are the last to be evicted
+            Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis()));
+            return new CachedInvoice(orderId, summary.getStatus(), summary.getOrderNumber(), pdf);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    // Complete files are moved into place, so readers never see half a PDF
+    private void storeFile(Path temp, Path target, Long orderId) {
+        try {
+            long size = Files.size(temp);
+            long previous = sizeOf(target);
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            if (diskBytes.addAndGet(size - previous) > maxDiskBytes) {
+                trimDisk();
+            }
+        } catch (IOException e) {
+            logger.warn("Could not write invoice {} to the disk cache: {}", orderId, e.getMessage());
+            try {
+                Files.deleteIfExists(temp);
+            } catch (IOException ignored) {
+                // Left for the next trim
+            }
+        }
+    }
+
+    private synchronized void trimDisk() {
+        if (diskBytes.get() <= maxDiskBytes) {
+            return;
+        }
+        long target = maxDiskBytes * 9 / 10;
+        List<Path> files;
+        try (Stream<Path> listing = Files.list(directory)) {
+            files = listing.filter(file -> file.toString().endsWith(".pdf"))
+                    .sorted(Comparator.comparingLong(InvoiceCacheService::lastModified))
+                    .collect(Collectors.toList());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        for (Path file : files) {
+            if (diskBytes.get() <= target) {
+                break;
+            }
+            if (deleteFile(file)) {
+                diskEvictions.incrementAndGet();
+            }
+        }
+    }
+
+    private boolean deleteFile(Path file) {
+        try {
+            long size = sizeOf(file);
+            if (Files.deleteIfExists(file)) {
+                diskBytes.addAndGet(-size);
+                return true;
+            }
+        } catch (IOException e) {
+            logger.warn("Could not delete cached invoice {}: {}", file.getFileName(), e.getMessage());
+        }
+        return false;
+    }
+
+    private Path file(Long orderId, String status) {
+        return directory.resolve(key(orderId, status) + ".pdf");
+    }
+
+    private static String key(Long orderId, String status) {
+        return orderId + "-" + status;
+    }
+
+    private static long sizeOf(Path file) {
+        try {
+            return Files.size(file);
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    private static long lastModified(Path file) {
+        try {
+            return Files.getLastModifiedTime(file).toMillis();
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    private static String etagOf(Long orderId, String digest) {
+        return ETags.strong("invoice", orderId.toString(), digest);
+    }
+
+    private static String sha256(byte[] bytes) {
+        MessageDigest digest = sha256();
+        return HexFormat.of().formatHex(digest.digest(bytes), 0, 16);
+    }
+
+    private static String sha256(InputStream in) throws IOException {
+        MessageDigest digest = sha256();
+        byte[] buffer = new byte[8192];
+        for (int read = in.read(buffer); read != -1; read = in.read(buffer)) {
+            digest.update(buffer, 0, read);
+        }
+        return HexFormat.of().formatHex(digest.digest(), 0, 16);
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Writes to the response and a cache file. A failing cache file is dropped and the
+     * response carries on; a failing response fails the whole write.
+     */
+    private static final class TeeOutputStream extends OutputStream {
+        private final OutputStream primary;
+        private OutputStream copy;
+        private boolean copyFailed;
+
+        TeeOutputStream(OutputStream primary, OutputStream copy) {
+            this.primary = primary;
+            this.copy = copy;
+        }
+
+        boolean copyFailed() {
+            return copyFailed;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            primary.write(b);
+            if (copy != null) {
+                try {
+                    copy.write(b);
+                } catch (IOException e) {
+                    dropCopy();
+                }
+            }
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) throws IOException {
+            primary.write(bytes, offset, length);
+            if (copy != null) {
+                try {
+                    copy.write(bytes, offset, length);
+                } catch (IOException e) {
+                    dropCopy();
+                }
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            primary.flush();
+            if (copy != null) {
+                try {
+                    copy.flush();
+                } catch (IOException e) {
+                    dropCopy();
+                }
+            }
+        }
+
+        // Closes only the cache file; the response belongs to the caller
+        @Override
+        public void close() {
+            if (copy != null) {
+                try {
+                    copy.close();
+                } catch (IOException e) {
+                    copyFailed = true;
+                }
+                copy = null;
+            }
+        }
+
+        private void dropCopy() {
+            copyFailed = true;
+            try {
+                copy.close();
+            } catch (IOException ignored) {
+                // Already failing
+            }
+            copy = null;
+        }
+    }
+}
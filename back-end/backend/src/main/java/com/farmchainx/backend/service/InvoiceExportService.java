@@ -0,0 +1,204 @@
+package com.farmchainx.backend.service;
+
+import com.farmchainx.backend.dto.CursorPageDTO;
+import com.farmchainx.backend.dto.OrderDTO;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Streams all of a distributor's invoices in a date range as one ZIP.
+ *
+ * Orders are read a keyset page at a time through {@link OrderService#getDistributorOrdersPage}
+ * (orders with their parties, then every item of the page in one query, archive included).
+ * Each order is rendered on a shared pool of app.invoice.export.threads workers; the request
+ * thread writes the PDFs to the ZIP in order, waiting on the oldest render. At most
+ * app.invoice.export.window renders per export are in flight or waiting to be written, so a
+ * slow client stalls rendering instead of piling PDFs up in memory.
+ *
+ * PDFs are already compressed, so entries are STORED; the workers compute the CRC and the
+ * writer only copies bytes.
+ */
+@Service
+public class InvoiceExportService {
+
+    private static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(InvoiceExportService.class);
+
+    public static final Duration MAX_RANGE = Duration.ofDays(366);
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private PdfService pdfService;
+
+    // 0 means one per available processor
+    @Value("${app.invoice.export.threads:0}")
+    private int configuredThreads;
+
+    // 0 means twice the worker count
+    @Value("${app.invoice.export.window:0}")
+    private int configuredWindow;
+
+    private ExecutorService renderers;
+    private int threads;
+    private int window;
+
+    // Metrics
+    private final AtomicInteger running = new AtomicInteger();
+    private final AtomicLong exports = new AtomicLong();
+    private final AtomicLong failedExports = new AtomicLong();
+    private final AtomicLong invoicesWritten = new AtomicLong();
+    private final AtomicLong bytesWritten = new AtomicLong();
+
+    private static final class RenderedInvoice {
+        private final String fileName;
+        private final byte[] pdf;
+        private final long crc;
+
+        RenderedInvoice(String fileName, byte[] pdf) {
+            this.fileName = fileName;
+            this.pdf = pdf;
+            CRC32 crc32 = new CRC32();
+            crc32.update(pdf);
+            this.crc = crc32.getValue();
+        }
+    }
+
+    @PostConstruct
+    void start() {
+        threads = configuredThreads > 0 ? configuredThreads : Runtime.getRuntime().availableProcessors();
+        window = configuredWindow > 0 ? configuredWindow : threads * 2;
+        AtomicInteger counter = new AtomicInteger();
+        renderers = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "invoice-export-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    void stop() {
+        renderers.shutdownNow();
+    }
+
+    /** Rejects ranges the export endpoint does not accept; call before the response starts. */
+    public void validateRange(LocalDateTime from, LocalDateTime to) {
+        if (from == null || to == null) {
+            throw new IllegalArgumentException("from and to are required");
+        }
+        if (!from.isBefore(to)) {
+            throw new IllegalArgumentException("from must be before to");
+        }
+        if (Duration.between(from, to).compareTo(MAX_RANGE) > 0) {
+            throw new IllegalArgumentException("Date range must not exceed " + MAX_RANGE.toDays() + " days");
+        }
+    }
+
+    /**
+     * Writes a ZIP of the invoices of the distributor's orders placed in [from, to), newest
+     * first, to {@code out}. Any render failure aborts the export; {@code out} is not closed.
+     *
+     * @return number of invoices written
+     */
+    public int exportDistributorInvoices(Long distributorId, LocalDateTime from, LocalDateTime to,
+                                         OutputStream out) throws IOException {
+        validateRange(from, to);
+        running.incrementAndGet();
+        exports.incrementAndGet();
+        long started = System.currentTimeMillis();
+        Deque<Future<RenderedInvoice>> inFlight = new ArrayDeque<>();
+        int written = 0;
+        boolean complete = false;
+        try {
+            ZipOutputStream zip = new ZipOutputStream(out);
+            zip.setMethod(ZipOutputStream.STORED);
+            String cursor = null;
+            do {
+                CursorPageDTO<OrderDTO> page = orderService.getDistributorOrdersPage(
+                        distributorId, cursor, ProductService.MAX_PAGE_SIZE, null, from, to);
+                for (OrderDTO order : page.getItems()) {
+                    if (inFlight.size() >= window) {
+                        write(zip, await(inFlight.removeFirst()));
+                        written++;
+                    }
+                    inFlight.addLast(renderers.submit(() -> new RenderedInvoice(
+                            InvoiceCacheService.fileName(order.getOrderNumber()), pdfService.generateInvoicePdf(order))));
+                }
+                cursor = page.getNextCursor();
+            } while (cursor != null);
+            while (!inFlight.isEmpty()) {
+                write(zip, await(inFlight.removeFirst()));
+                written++;
+            }
+            zip.finish();
+            zip.flush();
+            complete = true;
+            logger.info("Exported {} invoices for distributor {} in {} ms",
+                    written, distributorId, System.currentTimeMillis() - started);
+            return written;
+        } finally {
+            running.decrementAndGet();
+            if (!complete) {
+                failedExports.incrementAndGet();
+                inFlight.forEach(future -> future.cancel(true));
+            }
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("threads", threads);
+        stats.put("window", window);
+        stats.put("running", running.get());
+        stats.put("exports", exports.get());
+        stats.put("failedExports", failedExports.get());
+        stats.put("invoicesWritten", invoicesWritten.get());
+        stats.put("bytesWritten", bytesWritten.get());
+        return stats;
+    }
+
+    private void write(ZipOutputStream zip, RenderedInvoice invoice) throws IOException {
+        ZipEntry entry = new ZipEntry(invoice.fileName);
+        entry.setSize(invoice.pdf.length);
+        entry.setCompressedSize(invoice.pdf.length);
+        entry.setCrc(invoice.crc);
+        zip.putNextEntry(entry);
+        zip.write(invoice.pdf);
+        zip.closeEntry();
+        invoicesWritten.incrementAndGet();
+        bytesWritten.addAndGet(invoice.pdf.length);
+    }
+
+    private static RenderedInvoice await(Future<RenderedInvoice> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Invoice export interrupted");
+        } catch (ExecutionException e) {
+            throw new IOException("Could not render invoice", e.getCause());
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package com.farmchainx.backend.service;
+
+import com.farmchainx.backend.entity.OrderStatus;
+import com.farmchainx.backend.repository.OrderArchiveRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Moves DELIVERED and CANCELLED orders older than app.archive.after-days from orders and
+ * order_items into orders_archive and order_items_archive, so the hot tables and their
+ * indexes only hold recent and open orders.
+ *
+ * Each run moves small batches, one transaction each, and pauses after every batch for
+ * as long as the batch took times app.archive.pause-ratio; a slow database therefore
+ * slows the mover down instead of the other way round. OrderService reads fall back to
+ * the archive, see {@link #archiveCutoff()}.
+ */
+@Service
+public class OrderArchiveService {
+
+    private static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(OrderArchiveService.class);
+
+    private static final List<String> ARCHIVABLE_STATUSES = List.of(OrderStatus.DELIVERED.name(), OrderStatus.CANCELLED.name());
+
+    @Autowired
+    private OrderArchiveRepository orderArchiveRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${app.archive.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.archive.after-days:180}")
+    private int afterDays;
+
+    @Value("${app.archive.batch-size:500}")
+    private int batchSize;
+
+    @Value("${app.archive.pause-ratio:1.0}")
+    private double pauseRatio;
+
+    @Value("${app.archive.max-batches-per-run:200}")
+    private int maxBatchesPerRun;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    // Metrics
+    private final AtomicLong runs = new AtomicLong();
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicLong ordersArchived = new AtomicLong();
+    private final AtomicLong totalBatchMillis = new AtomicLong();
+    private volatile LocalDateTime lastRunAt;
+    private volatile int lastRunArchived;
+
+    /**
+     * Orders placed at or after this instant are never in the archive. Readers use it to
+     * skip the archive query when a page is already full of newer hot orders.
+     */
+    public LocalDateTime archiveCutoff() {
+        return LocalDateTime.now().minusDays(afterDays);
+    }
+
+    @Scheduled(initialDelayString = "${app.archive.initial-delay-ms:60000}", fixedDelayString = "${app.archive.interval-ms:3600000}")
+    public void scheduledRun() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            archiveOldOrders();
+        } catch (RuntimeException e) {
+            logger.error("Order archival failed: {}", e.getMessage());
+        }
+    }
+
+    /** One archival pass; returns the number of orders moved. */
+    public int archiveOldOrders() {
+        if (!running.compareAndSet(false, true)) {
+            return 0;
+        }
+        int archived = 0;
+        LocalDateTime cutoff = archiveCutoff();
+        try {
+            for (int batch = 0; batch < maxBatchesPerRun; batch++) {
+                long start = System.currentTimeMillis();
+                Integer moved = transactionTemplate.execute(status -> {
+                    List<Long> ids = orderArchiveRepository.findArchivableIds(ARCHIVABLE_STATUSES, cutoff, batchSize);
+                    return ids.isEmpty() ? -1 : orderArchiveRepository.moveToArchive(ids, ARCHIVABLE_STATUSES);
+                });
+                if (moved == null || moved < 0) {
+                    break;
+                }
+                long elapsed = System.currentTimeMillis() - start;
+                archived += moved;
+                batches.incrementAndGet();
+                ordersArchived.addAndGet(moved);
+                totalBatchMillis.addAndGet(elapsed);
+                // Throttle: leave the database idle in proportion to the work just done
+                long pause = (long) (elapsed * pauseRatio);
+                if (pause > 0) {
+                    TimeUnit.MILLISECONDS.sleep(pause);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            runs.incrementAndGet();
+            lastRunAt = LocalDateTime.now();
+            lastRunArchived = archived;
+            running.set(false);
+        }
+        if (archived > 0) {
+            logger.info("Archived {} orders placed before {}", archived, cutoff);
+        }
+        return archived;
+    }
+
+    public Map<String, Object> getStats() {
+        long batchCount = batches.get();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("afterDays", afterDays);
+        stats.put("running", running.get());
+        stats.put("runs", runs.get());
+        stats.put("batches", batchCount);
+        stats.put("ordersArchived", ordersArchived.get());
+        stats.put("avgBatchMillis", batchCount == 0 ? 0.0 : Math.round(totalBatchMillis.get() * 10.0 / batchCount) / 10.0);
+        stats.put("lastRunAt", lastRunAt);
+        stats.put("lastRunArchived", lastRunArchived);
+        return stats;
+    }
+}
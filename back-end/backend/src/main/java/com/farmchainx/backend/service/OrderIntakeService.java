@@ -0,0 +1,307 @@
+package com.farmchainx.backend.service;
+
+import com.farmchainx.backend.dto.OrderIntakeStatusDTO;
+import com.farmchainx.backend.dto.OrderItemRequestDTO;
+import com.farmchainx.backend.dto.OrderRequestDTO;
+import com.farmchainx.backend.entity.Order;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Asynchronous order intake. Requests are validated, put on a bounded queue and answered
+ * with a tracking id straight away; a worker thread drains the queue and creates the
+ * orders in group commits, many orders per transaction. If any order of a group fails the
+ * group is rolled back and its orders are retried one transaction each, so one bad order
+ * only fails itself. Final statuses can be polled or pushed over SSE.
+ */
+@Service
+public class OrderIntakeService {
+
+    private static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(OrderIntakeService.class);
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${app.order-intake.queue-capacity:10000}")
+    private int queueCapacity;
+
+    @Value("${app.order-intake.max-batch:100}")
+    private int maxBatch;
+
+    @Value("${app.order-intake.linger-ms:5}")
+    private long lingerMillis;
+
+    @Value("${app.order-intake.retention-ms:3600000}")
+    private long retentionMillis;
+
+    private static final class PendingOrder {
+        final String trackingId;
+        final Long consumerId;
+        final OrderRequestDTO request;
+
+        PendingOrder(String trackingId, Long consumerId, OrderRequestDTO request) {
+            this.trackingId = trackingId;
+            this.consumerId = consumerId;
+            this.request = request;
+        }
+    }
+
+    private BlockingQueue<PendingOrder> queue;
+    private final Map<String, OrderIntakeStatusDTO> statuses = new ConcurrentHashMap<>();
+    private final Map<String, List<SseEmitter>> watchers = new ConcurrentHashMap<>();
+
+    private Thread worker;
+    private volatile boolean running = true;
+    private long lastCleanup = System.currentTimeMillis();
+
+    // Metrics
+    private final AtomicLong submitted = new AtomicLong();
+    private final AtomicLong rejectedQueueFull = new AtomicLong();
+    private final AtomicLong created = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicLong batchedOrders = new AtomicLong();
+    private final AtomicLong groupFallbacks = new AtomicLong();
+    private final AtomicLong totalCommitMillis = new AtomicLong();
+    private volatile int lastBatchSize;
+    private volatile long lastCommitMillis;
+
+    @PostConstruct
+    void start() {
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        worker = new Thread(this::drainLoop, "order-intake-worker");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        if (worker == null) {
+            return;
+        }
+        worker.interrupt();
+        worker.join(TimeUnit.SECONDS.toMillis(10));
+    }
+
+    /**
+     * Validates the request and queues it.
+     *
+     * @throws IllegalArgumentException if the request is malformed
+     * @throws IllegalStateException    if the queue is full
+     */
+    public OrderIntakeStatusDTO submit(OrderRequestDTO request, Long consumerId) {
+        validate(request);
+        String trackingId = UUID.randomUUID().toString();
+        OrderIntakeStatusDTO status = new OrderIntakeStatusDTO(trackingId, OrderIntakeStatusDTO.QUEUED,
+                null, null, null, LocalDateTime.now(), null);
+        statuses.put(trackingId, status);
+        if (!queue.offer(new PendingOrder(trackingId, consumerId, request))) {
+            statuses.remove(trackingId);
+            rejectedQueueFull.incrementAndGet();
+            throw new IllegalStateException("Order intake queue is full, try again shortly");
+        }
+        submitted.incrementAndGet();
+        return status;
+    }
+
+    public OrderIntakeStatusDTO getStatus(String trackingId) {
+        return statuses.get(trackingId);
+    }
+
+    /** Pushes the final status once it is known; returns null for an unknown tracking id. */
+    public SseEmitter subscribe(String trackingId) {
+        OrderIntakeStatusDTO status = statuses.get(trackingId);
+        if (status == null) {
+            return null;
+        }
+        SseEmitter emitter = new SseEmitter(TimeUnit.MINUTES.toMillis(5));
+        List<SseEmitter> list = watchers.computeIfAbsent(trackingId, id -> new CopyOnWriteArrayList<>());
+        list.add(emitter);
+        emitter.onCompletion(() -> list.remove(emitter));
+        emitter.onTimeout(() -> list.remove(emitter));
+
+        // The order may have completed before we registered
+        OrderIntakeStatusDTO current = statuses.get(trackingId);
+        if (current != null && current.isFinal()) {
+            notifyWatchers(current);
+        }
+        return emitter;
+    }
+
+    public Map<String, Object> getStats() {
+        long batchCount = batches.get();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("queueDepth", queue.size());
+        stats.put("queueCapacity", queueCapacity);
+        stats.put("submitted", submitted.get());
+        stats.put("rejectedQueueFull", rejectedQueueFull.get());
+        stats.put("created", created.get());
+        stats.put("failed", failed.get());
+        stats.put("batches", batchCount);
+        stats.put("lastBatchSize", lastBatchSize);
+        stats.put("avgBatchSize", batchCount == 0 ? 0.0 : Math.round(batchedOrders.get() * 10.0 / batchCount) / 10.0);
+        stats.put("groupFallbacks", groupFallbacks.get());
+        stats.put("lastCommitMillis", lastCommitMillis);
+        stats.put("avgCommitMillis", batchCount == 0 ? 0.0 : Math.round(totalCommitMillis.get() * 10.0 / batchCount) / 10.0);
+        stats.put("trackedStatuses", statuses.size());
+        return stats;
+    }
+
+    private void drainLoop() {
+        List<PendingOrder> batch = new ArrayList<>(maxBatch);
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingOrder first = queue.poll(1, TimeUnit.SECONDS);
+                if (first != null) {
+                    batch.add(first);
+                    queue.drainTo(batch, maxBatch - batch.size());
+                    // Give a burst a moment to fill the group before committing
+                    if (batch.size() < maxBatch && lingerMillis > 0 && running) {
+                        PendingOrder next = queue.poll(lingerMillis, TimeUnit.MILLISECONDS);
+                        if (next != null) {
+                            batch.add(next);
+                            queue.drainTo(batch, maxBatch - batch.size());
+                        }
+                    }
+                    process(batch);
+                    batch.clear();
+                }
+            } catch (InterruptedException e) {
+                if (running) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                // Shutting down: keep draining what is queued
+            } catch (RuntimeException e) {
+                logger.error("Order intake worker error: {}", e.getMessage(), e);
+                batch.clear();
+            }
+            cleanUpOldStatuses();
+        }
+    }
+
+    private void process(List<PendingOrder> batch) {
+        long start = System.currentTimeMillis();
+        Map<String, Order> createdOrders = new LinkedHashMap<>();
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                for (PendingOrder pending : batch) {
+                    createdOrders.put(pending.trackingId, orderService.createOrder(pending.request, pending.consumerId));
+                }
+            });
+            for (PendingOrder pending : batch) {
+                complete(pending, createdOrders.get(pending.trackingId), null);
+            }
+        } catch (RuntimeException groupFailure) {
+            // One order spoiled the group; commit the rest individually
+            groupFallbacks.incrementAndGet();
+            for (PendingOrder pending : batch) {
+                try {
+                    Order order = transactionTemplate.execute(status ->
+                            orderService.createOrder(pending.request, pending.consumerId));
+                    complete(pending, order, null);
+                } catch (RuntimeException e) {
+                    complete(pending, null, e.getMessage());
+                }
+            }
+        }
+
+        long elapsed = System.currentTimeMillis() - start;
+        batches.incrementAndGet();
+        batchedOrders.addAndGet(batch.size());
+        totalCommitMillis.addAndGet(elapsed);
+        lastBatchSize = batch.size();
+        lastCommitMillis = elapsed;
+    }
+
+    private void complete(PendingOrder pending, Order order, String error) {
+        OrderIntakeStatusDTO previous = statuses.get(pending.trackingId);
+        LocalDateTime submittedAt = previous != null ? previous.getSubmittedAt() : null;
+        OrderIntakeStatusDTO status;
+        if (order != null) {
+            created.incrementAndGet();
+            status = new OrderIntakeStatusDTO(pending.trackingId, OrderIntakeStatusDTO.CREATED,
+                    order.getId(), order.getOrderNumber(), null, submittedAt, LocalDateTime.now());
+        } else {
+            failed.incrementAndGet();
+            status = new OrderIntakeStatusDTO(pending.trackingId, OrderIntakeStatusDTO.FAILED,
+                    null, null, error, submittedAt, LocalDateTime.now());
+        }
+        statuses.put(pending.trackingId, status);
+        notifyWatchers(status);
+    }
+
+    private void notifyWatchers(OrderIntakeStatusDTO status) {
+        List<SseEmitter> list = watchers.remove(status.getTrackingId());
+        if (list == null) {
+            return;
+        }
+        for (SseEmitter emitter : list) {
+            try {
+                emitter.send(SseEmitter.event().name(status.getStatus().toLowerCase(Locale.ROOT)).data(status));
+                emitter.complete();
+            } catch (IOException | IllegalStateException e) {
+                emitter.completeWithError(e);
+            }
+        }
+    }
+
+    private void cleanUpOldStatuses() {
+        long now = System.currentTimeMillis();
+        if (now - lastCleanup < 60_000) {
+            return;
+        }
+        lastCleanup = now;
+        LocalDateTime cutoff = LocalDateTime.now().minusNanos(TimeUnit.MILLISECONDS.toNanos(retentionMillis));
+        statuses.values().removeIf(status -> status.isFinal() && status.getCompletedAt().isBefore(cutoff));
+    }
+
+    private static void validate(OrderRequestDTO request) {
+        if (request == null) {
+            throw new IllegalArgumentException("Order request is required");
+        }
+        if (request.getDistributorId() == null) {
+            throw new IllegalArgumentException("distributorId is required");
+        }
+        if (isBlank(request.getCustomerName()) || isBlank(request.getCustomerPhone())
+                || isBlank(request.getShippingAddress()) || isBlank(request.getPaymentMethod())) {
+            throw new IllegalArgumentException("customerName, customerPhone, shippingAddress and paymentMethod are required");
+        }
+        if (request.getItems() == null || request.getItems().isEmpty()) {
+            throw new IllegalArgumentException("Order has no items");
+        }
+        for (OrderItemRequestDTO item : request.getItems()) {
+            if (item.getProductId() == null || item.getQuantity() == null || item.getQuantity() <= 0) {
+                throw new IllegalArgumentException("Invalid quantity for product: " + item.getProductId());
+            }
+        }
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+}
@@ -0,0 +1,11 @@
+package com.farmchainx.backend.service;
+
+/**
+ * Source of order numbers for new orders. Numbers must be unique across all nodes
+ * writing to the same database. The default is {@link SnowflakeOrderNumberGenerator};
+ * declare another bean of this type to replace it.
+ */
+public interface OrderNumberGenerator {
+
+    String nextOrderNumber();
+}
@@ -1,22 +1,49 @@
 package com.farmchainx.backend.service;
 
+import com.farmchainx.backend.dto.BulkUpdateResultDTO;
+import com.farmchainx.backend.dto.CheckoutResultDTO;
+import com.farmchainx.backend.dto.CursorPageDTO;
 import com.farmchainx.backend.dto.OrderDTO;
 import com.farmchainx.backend.dto.OrderItemDTO;
 import com.farmchainx.backend.dto.OrderRequestDTO;
 import com.farmchainx.backend.dto.OrderItemRequestDTO; // FIXED: Correct import
+import com.farmchainx.backend.dto.OrderStatusUpdateDTO;
+import com.farmchainx.backend.dto.RejectedItemDTO;
 import com.farmchainx.backend.entity.*;
+import com.farmchainx.backend.event.OrderChangeEvent;
+import com.farmchainx.backend.event.ProductChangeEvent;
 import com.farmchainx.backend.repository.*;
+import com.farmchainx.backend.util.CursorCodec;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
 @Transactional
 public class OrderService {
     
+    private static final String ORDER_PAGE_SORT = "orderDate";
+    
+    public static final int MAX_BULK_STATUS_UPDATES = 5000;
+    public static final int MAX_CHECKOUT_PRODUCTS = 500;
+    private static final int STATUS_UPDATE_CHUNK = 1000;
+    
     @Autowired
     private OrderRepository orderRepository;
     
@@ -29,6 +56,33 @@ public class OrderService {
     @Autowired
     private UserRepository userRepository;
     
+    @Autowired
+    private ProductBatchRepository productBatchRepository;
+    
+    @Autowired
+    private OrderBatchRepository orderBatchRepository;
+    
+    @Autowired
+    private StockReservationEngine stockReservationEngine;
+    
+    @Autowired
+    private OrderNumberGenerator orderNumberGenerator;
+    
+    @Autowired
+    private SalesRollupService salesRollupService;
+    
+    @Autowired
+    private OrderArchiveRepository orderArchiveRepository;
+    
+    @Autowired
+    private OrderArchiveService orderArchiveService;
+    
+    @Autowired
+    private StockHoldService stockHoldService;
+    
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
     public Order createOrder(OrderRequestDTO orderRequest, Long consumerId) {
         User consumer = userRepository.findById(consumerId)
                 .orElseThrow(() -> new RuntimeException("Consumer not found"));
@@ -36,88 +90,506 @@ public class OrderService {
         User distributor = userRepository.findById(orderRequest.getDistributorId())
                 .orElseThrow(() -> new RuntimeException("Distributor not found"));
         
+        Order order = newOrder(orderRequest, consumer, distributor);
+        
+        // Quantities per product, so a product listed twice is checked and decremented once
+        Map<Long, Integer> requested = requestedQuantities(orderRequest.getItems());
+        Map<Long, Product> products = loadProducts(requested, consumerId);
+        
+        List<OrderItem> orderItems = buildItems(order, orderRequest.getItems(), products);
+        takeStock(requested, products, consumerId);
+        stockHoldService.convertOnCommit(consumerId, requested.keySet());
+        
+        Order completedOrder = orderRepository.save(order);
+        orderBatchRepository.insertOrderItems(completedOrder.getId(), orderItems);
+        salesRollupService.recordOrder(completedOrder, orderItems);
+        
+        publishStockChanged(requested, products);
+        eventPublisher.publishEvent(new OrderChangeEvent(OrderChangeEvent.Type.CREATED,
+                completedOrder.getId(), consumerId, distributor.getId(), completedOrder.getStatus()));
+        return completedOrder;
+    }
+    
+    /**
+     * Checks out a cart spanning several distributors: items are grouped by the distributor
+     * owning each product and one order is created per distributor, all in this transaction.
+     * Stock for the whole cart is taken with one decrement batch and the items of every
+     * order are written with one insert batch, so either all orders exist or none do.
+     * The request's distributorId is ignored; without items the consumer's cart holds are
+     * checked out.
+     */
+    public CheckoutResultDTO checkout(OrderRequestDTO orderRequest, Long consumerId) {
+        User consumer = userRepository.findById(consumerId)
+                .orElseThrow(() -> new RuntimeException("Consumer not found"));
+        
+        if (orderRequest.getItems() == null || orderRequest.getItems().isEmpty()) {
+            List<OrderItemRequestDTO> heldItems = new ArrayList<>();
+            stockHoldService.getHeldQuantities(consumerId)
+                    .forEach((productId, quantity) -> heldItems.add(new OrderItemRequestDTO(productId, quantity)));
+            orderRequest.setItems(heldItems);
+        }
+        Map<Long, Integer> requested = requestedQuantities(orderRequest.getItems());
+        if (requested.size() > MAX_CHECKOUT_PRODUCTS) {
+            throw new IllegalArgumentException("At most " + MAX_CHECKOUT_PRODUCTS + " products are allowed per checkout");
+        }
+        Map<Long, Product> products = loadProducts(requested, consumerId);
+        
+        // Cart lines per distributor, in the order the distributors first appear in the cart
+        Map<Long, List<OrderItemRequestDTO>> itemsByDistributor = new LinkedHashMap<>();
+        for (OrderItemRequestDTO item : orderRequest.getItems()) {
+            Long distributorId = products.get(item.getProductId()).getDistributorId();
+            itemsByDistributor.computeIfAbsent(distributorId, id -> new ArrayList<>()).add(item);
+        }
+        Map<Long, User> distributors = userRepository.findAllById(itemsByDistributor.keySet()).stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+        
+        List<Order> orders = new ArrayList<>(itemsByDistributor.size());
+        List<List<OrderItem>> itemsPerOrder = new ArrayList<>(itemsByDistributor.size());
+        for (Map.Entry<Long, List<OrderItemRequestDTO>> entry : itemsByDistributor.entrySet()) {
+            User distributor = distributors.get(entry.getKey());
+            if (distributor == null) {
+                throw new RuntimeException("Distributor not found: " + entry.getKey());
+            }
+            Order order = newOrder(orderRequest, consumer, distributor);
+            itemsPerOrder.add(buildItems(order, entry.getValue(), products));
+            orders.add(order);
+        }
+        takeStock(requested, products, consumerId);
+        stockHoldService.convertOnCommit(consumerId, requested.keySet());
+        
+        List<Order> savedOrders = orderRepository.saveAll(orders);
+        List<OrderItem> allItems = new ArrayList<>();
+        itemsPerOrder.forEach(allItems::addAll);
+        orderBatchRepository.insertOrderItems(allItems);
+        
+        CheckoutResultDTO result = new CheckoutResultDTO();
+        double grandTotal = 0.0;
+        for (int i = 0; i < savedOrders.size(); i++) {
+            Order order = savedOrders.get(i);
+            List<OrderItem> items = itemsPerOrder.get(i);
+            salesRollupService.recordOrder(order, items);
+            result.getOrderIds().add(order.getId());
+            result.getOrderNumbers().add(order.getOrderNumber());
+            result.getOrders().add(convertToDTO(order, toItemDTOs(order, items)));
+            grandTotal += order.getTotalAmount();
+        }
+        result.setTotalAmount(grandTotal);
+        
+        publishStockChanged(requested, products);
+        for (Order order : savedOrders) {
+            eventPublisher.publishEvent(new OrderChangeEvent(OrderChangeEvent.Type.CREATED,
+                    order.getId(), consumerId, order.getDistributor().getId(), order.getStatus()));
+        }
+        return result;
+    }
+    
+    private Order newOrder(OrderRequestDTO orderRequest, User consumer, User distributor) {
         Order order = new Order();
+        order.setOrderNumber(orderNumberGenerator.nextOrderNumber());
         order.setConsumer(consumer);
         order.setDistributor(distributor);
         order.setCustomerName(orderRequest.getCustomerName());
         order.setCustomerPhone(orderRequest.getCustomerPhone());
         order.setShippingAddress(orderRequest.getShippingAddress());
         order.setPaymentMethod(orderRequest.getPaymentMethod());
-        order.setStatus("PENDING");
-        
-        double totalAmount = 0.0;
-        
-        // First validate all products and quantities
-        for (OrderItemRequestDTO itemRequest : orderRequest.getItems()) { // FIXED: Now using correct import
-            Product product = productRepository.findById(itemRequest.getProductId())
-                    .orElseThrow(() -> new RuntimeException("Product not found: " + itemRequest.getProductId()));
-            
-            if (product.getQuantity() < itemRequest.getQuantity()) {
-                throw new RuntimeException("Insufficient quantity for product: " + product.getName());
+        order.setStatus(OrderStatus.PENDING.name());
+        return order;
+    }
+    
+    private static Map<Long, Integer> requestedQuantities(List<OrderItemRequestDTO> itemRequests) {
+        if (itemRequests == null || itemRequests.isEmpty()) {
+            throw new RuntimeException("Order has no items");
+        }
+        Map<Long, Integer> requested = new LinkedHashMap<>();
+        for (OrderItemRequestDTO itemRequest : itemRequests) {
+            if (itemRequest.getProductId() == null || itemRequest.getQuantity() == null || itemRequest.getQuantity() <= 0) {
+                throw new RuntimeException("Invalid quantity for product: " + itemRequest.getProductId());
             }
+            requested.merge(itemRequest.getProductId(), itemRequest.getQuantity(), Integer::sum);
         }
-        
-        // Then process the order
-        Order savedOrder = orderRepository.save(order);
-        
-        for (OrderItemRequestDTO itemRequest : orderRequest.getItems()) { // FIXED: Now using correct import
-            Product product = productRepository.findById(itemRequest.getProductId()).get();
-            
-            // Update product quantity
-            product.setQuantity(product.getQuantity() - itemRequest.getQuantity());
-            if (product.getQuantity() == 0) {
-                product.setIsAvailable(false);
+        return requested;
+    }
+    
+    // Validate all products and quantities with one query; units in other consumers' cart holds are not available
+    private Map<Long, Product> loadProducts(Map<Long, Integer> requested, Long consumerId) {
+        Map<Long, Product> products = productRepository.findAllById(requested.keySet()).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+        for (Map.Entry<Long, Integer> entry : requested.entrySet()) {
+            Product product = products.get(entry.getKey());
+            if (product == null) {
+                throw new RuntimeException("Product not found: " + entry.getKey());
             }
-            productRepository.save(product);
-            
+            if (product.getQuantity() - stockHoldService.heldByOthers(product.getId(), consumerId) < entry.getValue()) {
+                throw new RuntimeException("Insufficient quantity for product: " + product.getName());
+            }
+        }
+        return products;
+    }
+    
+    // Items at the current prices; also sets the order total
+    private static List<OrderItem> buildItems(Order order, List<OrderItemRequestDTO> itemRequests, Map<Long, Product> products) {
+        double totalAmount = 0.0;
+        List<OrderItem> orderItems = new ArrayList<>(itemRequests.size());
+        for (OrderItemRequestDTO itemRequest : itemRequests) {
+            Product product = products.get(itemRequest.getProductId());
             OrderItem orderItem = new OrderItem();
-            orderItem.setOrder(savedOrder);
+            orderItem.setOrder(order);
             orderItem.setProduct(product);
             orderItem.setQuantity(itemRequest.getQuantity());
             orderItem.setPrice(product.getPrice());
             orderItem.setSubtotal(product.getPrice() * itemRequest.getQuantity());
-            
             totalAmount += orderItem.getSubtotal();
-            orderItemRepository.save(orderItem);
+            orderItems.add(orderItem);
+        }
+        order.setTotalAmount(totalAmount);
+        return orderItems;
+    }
+    
+    // Never takes units held by other carts, see StockHoldService
+    private void takeStock(Map<Long, Integer> requested, Map<Long, Product> products, Long consumerId) {
+        Map<Long, Integer> protectedUnits = stockHoldService.startTaking(consumerId, requested);
+        if (stockReservationEngine.isEnabled()) {
+            // CAS reservation in memory, written back in batches; released again if this transaction rolls back
+            try {
+                Map<Long, Long> distributorIds = new HashMap<>();
+                products.values().forEach(product -> distributorIds.put(product.getId(), product.getDistributorId()));
+                Long soldOut = stockReservationEngine.reserve(requested, distributorIds);
+                if (soldOut != null) {
+                    throw new RuntimeException("Insufficient quantity for product: " + products.get(soldOut).getName());
+                }
+                for (Long productId : requested.keySet()) {
+                    Integer left = stockReservationEngine.available(productId);
+                    if (left != null && left < protectedUnits.getOrDefault(productId, 0)) {
+                        throw new RuntimeException("Insufficient quantity for product: " + products.get(productId).getName());
+                    }
+                }
+            } finally {
+                stockHoldService.finishTaking(requested);
+            }
+        } else {
+            stockHoldService.finishTakingOnCompletion(requested);
+            // Conditional decrements in one batch; a concurrent order may have taken the stock since the check above
+            int[] updated = productBatchRepository.decrementStock(requested, protectedUnits);
+            int row = 0;
+            for (Map.Entry<Long, Integer> entry : requested.entrySet()) {
+                if (updated[row++] == 0) {
+                    throw new RuntimeException("Insufficient quantity for product: " + products.get(entry.getKey()).getName());
+                }
+            }
+        }
+    }
+    
+    private void publishStockChanged(Map<Long, Integer> requested, Map<Long, Product> products) {
+        Map<Long, Integer> remaining = stockReservationEngine.isEnabled()
+                ? new HashMap<>()
+                : productBatchRepository.findQuantities(requested.keySet());
+        for (Long productId : requested.keySet()) {
+            Integer quantity = stockReservationEngine.isEnabled()
+                    ? stockReservationEngine.available(productId)
+                    : remaining.get(productId);
+            eventPublisher.publishEvent(ProductChangeEvent.stockChanged(
+                    productId, products.get(productId).getDistributorId(), quantity));
         }
-        
-        savedOrder.setTotalAmount(totalAmount);
-        return orderRepository.save(savedOrder);
+    }
+    
+    private static List<OrderItemDTO> toItemDTOs(Order order, List<OrderItem> items) {
+        List<OrderItemDTO> dtos = new ArrayList<>(items.size());
+        for (OrderItem item : items) {
+            dtos.add(new OrderItemDTO(order.getId(), item.getProduct().getId(), item.getProduct().getName(),
+                    item.getQuantity(), item.getPrice(), item.getSubtotal()));
+        }
+        return dtos;
     }
     
     public List<OrderDTO> getOrdersByConsumer(Long consumerId) {
-        User consumer = userRepository.findById(consumerId)
-                .orElseThrow(() -> new RuntimeException("Consumer not found"));
-        
-        return orderRepository.findByConsumer(consumer).stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        if (!userRepository.existsById(consumerId)) {
+            throw new RuntimeException("Consumer not found");
+        }
+        return withArchived(convertToDTOs(orderRepository.findWithPartiesByConsumerId(consumerId)),
+                orderArchiveRepository.findByParty(OrderArchiveRepository.Party.CONSUMER, consumerId));
     }
     
     public List<OrderDTO> getOrdersByDistributor(Long distributorId) {
-        User distributor = userRepository.findById(distributorId)
-                .orElseThrow(() -> new RuntimeException("Distributor not found"));
+        if (!userRepository.existsById(distributorId)) {
+            throw new RuntimeException("Distributor not found");
+        }
+        return withArchived(convertToDTOs(orderRepository.findWithPartiesByDistributorId(distributorId)),
+                orderArchiveRepository.findByParty(OrderArchiveRepository.Party.DISTRIBUTOR, distributorId));
+    }
+    
+    // Full history: hot and archived orders, newest first
+    private List<OrderDTO> withArchived(List<OrderDTO> hot, List<OrderDTO> archived) {
+        if (archived.isEmpty()) {
+            return hot;
+        }
+        orderArchiveRepository.loadItems(archived);
+        List<OrderDTO> all = new ArrayList<>(hot.size() + archived.size());
+        all.addAll(hot);
+        all.addAll(archived);
+        all.sort(Comparator.comparing(OrderDTO::getOrderDate, Comparator.nullsLast(Comparator.reverseOrder()))
+                .thenComparing(OrderDTO::getId, Comparator.reverseOrder()));
+        return all;
+    }
+    
+    /**
+     * Keyset page of a consumer's orders, newest first. Two queries per page: the orders
+     * with both parties fetch-joined, then the items of all those orders at once. Pages
+     * reaching back past the archive cutoff also read the archive, see {@link #getOrdersPage}.
+     */
+    @Transactional(readOnly = true)
+    public CursorPageDTO<OrderDTO> getConsumerOrdersPage(Long consumerId, String cursor, Integer size,
+                                                         String status, LocalDateTime from, LocalDateTime to) {
+        return getOrdersPage(cursor, size, from, to,
+                (lastDate, lastId, pageRequest) ->
+                        orderRepository.findConsumerPage(consumerId, blankToNull(status), from, to, lastDate, lastId, pageRequest),
+                (lastDate, lastId, limit) ->
+                        orderArchiveRepository.findPage(OrderArchiveRepository.Party.CONSUMER, consumerId,
+                                blankToNull(status), from, to, lastDate, lastId, limit));
+    }
+    
+    @Transactional(readOnly = true)
+    public CursorPageDTO<OrderDTO> getDistributorOrdersPage(Long distributorId, String cursor, Integer size,
+                                                            String status, LocalDateTime from, LocalDateTime to) {
+        return getOrdersPage(cursor, size, from, to,
+                (lastDate, lastId, pageRequest) ->
+                        orderRepository.findDistributorPage(distributorId, blankToNull(status), from, to, lastDate, lastId, pageRequest),
+                (lastDate, lastId, limit) ->
+                        orderArchiveRepository.findPage(OrderArchiveRepository.Party.DISTRIBUTOR, distributorId,
+                                blankToNull(status), from, to, lastDate, lastId, limit));
+    }
+    
+    private interface OrderPageQuery {
+        List<Order> fetch(LocalDateTime lastOrderDate, Long lastId, PageRequest pageRequest);
+    }
+    
+    private interface ArchivedOrderPageQuery {
+        List<OrderDTO> fetch(LocalDateTime lastOrderDate, Long lastId, int limit);
+    }
+    
+    /**
+     * One page merged from the hot table and the archive. Every archived order is older
+     * than the archive cutoff, so when the hot query alone fills the page with newer
+     * orders the archive is not queried at all.
+     */
+    private CursorPageDTO<OrderDTO> getOrdersPage(String cursor, Integer size, LocalDateTime from, LocalDateTime to,
+                                                  OrderPageQuery query, ArchivedOrderPageQuery archiveQuery) {
+        if (from != null && to != null && !from.isBefore(to)) {
+            throw new IllegalArgumentException("from must be before to");
+        }
+        int limit = size == null ? ProductService.DEFAULT_PAGE_SIZE
+                : Math.max(1, Math.min(size, ProductService.MAX_PAGE_SIZE));
+        
+        LocalDateTime lastOrderDate = null;
+        Long lastId = null;
+        if (cursor != null && !cursor.isEmpty()) {
+            String[] values = CursorCodec.decode(cursor, ORDER_PAGE_SORT, 2);
+            try {
+                lastId = Long.parseLong(values[0]);
+                lastOrderDate = LocalDateTime.parse(values[1]);
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+        }
+        
+        // Fetch one extra row to know whether another page exists
+        List<Order> hot = query.fetch(lastOrderDate, lastId, PageRequest.of(0, limit + 1));
+        boolean hotCoversPage = hot.size() > limit
+                && !hot.get(limit).getOrderDate().isBefore(orderArchiveService.archiveCutoff());
+        List<OrderDTO> archived = hotCoversPage ? new ArrayList<>() : archiveQuery.fetch(lastOrderDate, lastId, limit + 1);
         
-        return orderRepository.findByDistributor(distributor).stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        // Merge the two (orderDate, id) descending lists
+        List<Order> hotPage = new ArrayList<>();
+        List<OrderDTO> archivedPage = new ArrayList<>();
+        List<Long> pageIds = new ArrayList<>();
+        LocalDateTime lastDate = null;
+        int h = 0;
+        int a = 0;
+        boolean hasMore = false;
+        while (h < hot.size() || a < archived.size()) {
+            boolean takeHot = a >= archived.size() || (h < hot.size()
+                    && isNewer(hot.get(h).getOrderDate(), hot.get(h).getId(),
+                               archived.get(a).getOrderDate(), archived.get(a).getId()));
+            if (pageIds.size() == limit) {
+                hasMore = true;
+                break;
+            }
+            if (takeHot) {
+                Order order = hot.get(h++);
+                hotPage.add(order);
+                pageIds.add(order.getId());
+                lastDate = order.getOrderDate();
+            } else {
+                OrderDTO order = archived.get(a++);
+                archivedPage.add(order);
+                pageIds.add(order.getId());
+                lastDate = order.getOrderDate();
+            }
+        }
+        
+        Map<Long, OrderDTO> dtos = new HashMap<>();
+        convertToDTOs(hotPage).forEach(dto -> dtos.put(dto.getId(), dto));
+        orderArchiveRepository.loadItems(archivedPage);
+        archivedPage.forEach(dto -> dtos.put(dto.getId(), dto));
+        List<OrderDTO> page = pageIds.stream().map(dtos::get).collect(Collectors.toList());
+        
+        String nextCursor = null;
+        if (hasMore) {
+            nextCursor = CursorCodec.encode(ORDER_PAGE_SORT, pageIds.get(pageIds.size() - 1).toString(), lastDate.toString());
+        }
+        return new CursorPageDTO<>(page, nextCursor, hasMore);
+    }
+    
+    private static boolean isNewer(LocalDateTime dateA, Long idA, LocalDateTime dateB, Long idB) {
+        int byDate = dateA.compareTo(dateB);
+        return byDate != 0 ? byDate > 0 : idA > idB;
     }
     
     public Order updateOrderStatus(Long orderId, String status) {
-        Order order = orderRepository.findById(orderId)
+        OrderStatus target = parseStatus(status);
+        Order order = orderRepository.findWithPartiesById(orderId)
                 .orElseThrow(() -> new RuntimeException("Order not found"));
         
-        order.setStatus(status);
-        return orderRepository.save(order);
+        String problem = transitionProblem(order.getStatus(), target);
+        if (problem != null) {
+            throw new IllegalArgumentException(problem);
+        }
+        order.setStatus(target.name());
+        if (target == OrderStatus.DELIVERED) {
+            order.setDeliveryDate(LocalDateTime.now());
+        }
+        Order savedOrder = orderRepository.save(order);
+        if (target == OrderStatus.CANCELLED) {
+            salesRollupService.recordCancellations(List.of(savedOrder.getId()));
+        }
+        eventPublisher.publishEvent(new OrderChangeEvent(OrderChangeEvent.Type.STATUS_CHANGED,
+                savedOrder.getId(), savedOrder.getConsumer().getId(), savedOrder.getDistributor().getId(), target.name()));
+        return savedOrder;
+    }
+    
+    /**
+     * Moves many of a distributor's orders to one status. Each chunk of ids is row-locked,
+     * checked against the state machine, and changed with a single UPDATE guarded by the
+     * allowed source states; orders that are unknown, belong to someone else or cannot
+     * make the transition are reported as rejected.
+     */
+    public BulkUpdateResultDTO bulkUpdateStatus(Long distributorId, OrderStatusUpdateDTO update) {
+        if (update == null || update.getOrderIds() == null || update.getOrderIds().isEmpty()) {
+            throw new IllegalArgumentException("No orders given");
+        }
+        if (update.getOrderIds().size() > MAX_BULK_STATUS_UPDATES) {
+            throw new IllegalArgumentException("At most " + MAX_BULK_STATUS_UPDATES + " orders are allowed per request");
+        }
+        OrderStatus target = parseStatus(update.getStatus());
+        long start = System.currentTimeMillis();
+        BulkUpdateResultDTO result = new BulkUpdateResultDTO();
+        result.setRequested(update.getOrderIds().size());
+        
+        List<Long> orderIds = new ArrayList<>(new LinkedHashSet<>(update.getOrderIds()));
+        orderIds.removeIf(id -> id == null);
+        LocalDateTime deliveryDate = target == OrderStatus.DELIVERED ? LocalDateTime.now() : null;
+        List<OrderChangeEvent> events = new ArrayList<>();
+        
+        for (int from = 0; from < orderIds.size(); from += STATUS_UPDATE_CHUNK) {
+            List<Long> chunk = orderIds.subList(from, Math.min(from + STATUS_UPDATE_CHUNK, orderIds.size()));
+            Map<Long, OrderBatchRepository.OrderStatusRow> rows = orderBatchRepository.lockStatuses(distributorId, chunk).stream()
+                    .collect(Collectors.toMap(OrderBatchRepository.OrderStatusRow::getId, Function.identity()));
+            
+            List<Long> eligible = new ArrayList<>();
+            Set<String> sources = new HashSet<>();
+            for (Long orderId : chunk) {
+                OrderBatchRepository.OrderStatusRow row = rows.get(orderId);
+                String problem = row == null
+                        ? "Order not found for distributor " + distributorId
+                        : transitionProblem(row.getStatus(), target);
+                if (problem != null) {
+                    result.getRejected().add(new RejectedItemDTO(orderId, problem));
+                } else {
+                    eligible.add(orderId);
+                    sources.add(row.getStatus());
+                }
+            }
+            if (eligible.isEmpty()) {
+                continue;
+            }
+            orderBatchRepository.transitionStatus(distributorId, eligible, sources, target.name(), deliveryDate);
+            if (target == OrderStatus.CANCELLED) {
+                salesRollupService.recordCancellations(eligible);
+            }
+            for (Long orderId : eligible) {
+                result.getUpdated().add(orderId);
+                events.add(new OrderChangeEvent(OrderChangeEvent.Type.STATUS_CHANGED,
+                        orderId, rows.get(orderId).getConsumerId(), distributorId, target.name()));
+            }
+        }
+        
+        events.forEach(eventPublisher::publishEvent);
+        result.setElapsedMillis(System.currentTimeMillis() - start);
+        return result;
+    }
+    
+    private static OrderStatus parseStatus(String status) {
+        OrderStatus target = OrderStatus.fromValue(status);
+        if (target == null) {
+            throw new IllegalArgumentException("Unknown order status: " + status);
+        }
+        return target;
+    }
+    
+    // Reason the order cannot move to target, or null when the transition is allowed
+    private static String transitionProblem(String currentStatus, OrderStatus target) {
+        OrderStatus current = OrderStatus.fromValue(currentStatus);
+        if (current == null) {
+            return "Order has unknown status " + currentStatus;
+        }
+        if (!current.canTransitionTo(target)) {
+            return "Cannot change status from " + current + " to " + target;
+        }
+        return null;
     }
     
     public OrderDTO getOrderById(Long orderId) {
-        Order order = orderRepository.findById(orderId)
+        Optional<Order> order = orderRepository.findWithPartiesById(orderId);
+        if (order.isPresent()) {
+            return convertToDTOs(List.of(order.get())).get(0);
+        }
+        // Finished orders move to the archive after a while
+        OrderDTO archived = orderArchiveRepository.findOrder(orderId)
+                .orElseThrow(() -> new RuntimeException("Order not found"));
+        orderArchiveRepository.loadItems(List.of(archived));
+        return archived;
+    }
+    
+    /** Id, number and status only, from one query without parties or items (hot table, then archive). */
+    public OrderDTO getOrderSummary(Long orderId) {
+        Optional<Order> order = orderRepository.findById(orderId);
+        if (order.isPresent()) {
+            OrderDTO summary = new OrderDTO();
+            summary.setId(order.get().getId());
+            summary.setOrderNumber(order.get().getOrderNumber());
+            summary.setStatus(order.get().getStatus());
+            return summary;
+        }
+        return orderArchiveRepository.findOrder(orderId)
                 .orElseThrow(() -> new RuntimeException("Order not found"));
-        return convertToDTO(order);
+    }
+
+    // Orders must have consumer and distributor loaded; items for all of them come from one query
+    private List<OrderDTO> convertToDTOs(List<Order> orders) {
+        if (orders.isEmpty()) {
+            return new ArrayList<>();
+        }
+        List<Long> orderIds = orders.stream().map(Order::getId).collect(Collectors.toList());
+        Map<Long, List<OrderItemDTO>> itemsByOrder = orderItemRepository.findViewsByOrderIdIn(orderIds).stream()
+                .collect(Collectors.groupingBy(OrderItemDTO::getOrderId));
+        
+        List<OrderDTO> dtos = new ArrayList<>(orders.size());
+        for (Order order : orders) {
+            dtos.add(convertToDTO(order, itemsByOrder.getOrDefault(order.getId(), new ArrayList<>())));
+        }
+        return dtos;
     }
     
-    private OrderDTO convertToDTO(Order order) {
+    private OrderDTO convertToDTO(Order order, List<OrderItemDTO> items) {
         OrderDTO dto = new OrderDTO();
         dto.setId(order.getId());
         dto.setOrderNumber(order.getOrderNumber());
@@ -133,23 +605,11 @@ public class OrderService {
         dto.setPaymentMethod(order.getPaymentMethod());
         dto.setOrderDate(order.getOrderDate());
         dto.setDeliveryDate(order.getDeliveryDate());
-        
-        // Convert order items
-        List<OrderItemDTO> itemDTOs = orderItemRepository.findByOrderId(order.getId()).stream()
-                .map(this::convertItemToDTO)
-                .collect(Collectors.toList());
-        dto.setOrderItems(itemDTOs);
-        
+        dto.setOrderItems(items);
         return dto;
     }
     
-    private OrderItemDTO convertItemToDTO(OrderItem item) {
-        OrderItemDTO dto = new OrderItemDTO();
-        dto.setProductId(item.getProduct().getId());
-        dto.setProductName(item.getProduct().getName());
-        dto.setQuantity(item.getQuantity());
-        dto.setPrice(item.getPrice());
-        dto.setSubtotal(item.getSubtotal());
-        return dto;
+    private static String blankToNull(String value) {
+        return value == null || value.isBlank() ? null : value.trim();
     }
-}
\ No newline at end of file
+}
@@ -9,15 +9,32 @@ import com.itextpdf.text.pdf.PdfWriter;
 import org.springframework.stereotype.Service;
 
 import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.time.format.DateTimeFormatter;
 
 @Service
 public class PdfService {
     
+    // Item rows per slice handed to the document; finished pages are written out between slices
+    private static final int ROWS_PER_FLUSH = 50;
+    
     public byte[] generateInvoicePdf(OrderDTO order) throws DocumentException {
         ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        writeInvoicePdf(order, baos);
+        return baos.toByteArray();
+    }
+    
+    /**
+     * Renders the invoice straight into {@code out}, which is flushed as pages complete and
+     * left open. The items table is incomplete until its last row, so its rows are laid out
+     * and released every ROWS_PER_FLUSH rows instead of being held until the end; memory
+     * stays around one page whatever the number of lines.
+     */
+    public void writeInvoicePdf(OrderDTO order, OutputStream out) throws DocumentException {
         Document document = new Document();
-        PdfWriter.getInstance(document, baos);
+        PdfWriter writer = PdfWriter.getInstance(document, out);
+        writer.setCloseStream(false);
         
         document.open();
         
@@ -52,6 +69,9 @@ public class PdfService {
         PdfPTable itemsTable = new PdfPTable(4);
         itemsTable.setWidthPercentage(100);
         itemsTable.setSpacingAfter(20);
+        // Header row repeats on every page; rows are written as they are added
+        itemsTable.setHeaderRows(1);
+        itemsTable.setComplete(false);
         
         // Table headers
         String[] itemHeaders = {"Product", "Quantity", "Price", "Subtotal"};
@@ -63,13 +83,19 @@ public class PdfService {
         }
         
         // Table rows
+        int rows = 0;
         for (OrderItemDTO item : order.getOrderItems()) {
             itemsTable.addCell(new Phrase(item.getProductName(), normalFont));
             itemsTable.addCell(new Phrase(item.getQuantity().toString(), normalFont));
             itemsTable.addCell(new Phrase(String.format("₹%.2f", item.getPrice()), normalFont));
             itemsTable.addCell(new Phrase(String.format("₹%.2f", item.getSubtotal()), normalFont));
+            if (++rows % ROWS_PER_FLUSH == 0) {
+                document.add(itemsTable);
+                flush(out);
+            }
         }
         
+        itemsTable.setComplete(true);
         document.add(itemsTable);
         
         // Total
@@ -83,7 +109,15 @@ public class PdfService {
         document.add(footer);
         
         document.close();
-        return baos.toByteArray();
+        flush(out);
+    }
+    
+    private static void flush(OutputStream out) throws DocumentException {
+        try {
+            out.flush();
+        } catch (IOException e) {
+            throw new DocumentException(e);
+        }
     }
     
     private void addTableHeader(PdfPTable table, String header, Font font, int colspan) {
@@ -0,0 +1,310 @@
+package com.farmchainx.backend.service;
+
+import com.farmchainx.backend.dto.ImportErrorDTO;
+import com.farmchainx.backend.dto.ProductDTO;
+import com.farmchainx.backend.dto.ProductImportReportDTO;
+import com.farmchainx.backend.entity.Product;
+import com.farmchainx.backend.event.ProductChangeEvent;
+import com.farmchainx.backend.repository.ProductBatchRepository;
+import com.farmchainx.backend.repository.UserRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bulk product import for distributors. The upload is read line by line, each row is
+ * validated on its own, and valid rows are written with JDBC batches, one transaction
+ * per chunk. A failing chunk is reported row by row and does not stop the import.
+ */
+@Service
+public class ProductImportService {
+
+    private static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(ProductImportService.class);
+
+    public static final String FORMAT_CSV = "csv";
+    public static final String FORMAT_NDJSON = "ndjson";
+
+    private static final int MAX_REPORTED_ERRORS = 1000;
+    private static final int MAX_NAME_LENGTH = 255;
+
+    @Autowired
+    private ProductBatchRepository productBatchRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${app.import.batch-size:500}")
+    private int batchSize;
+
+    @Value("${app.import.chunk-size:5000}")
+    private int chunkSize;
+
+    // Metrics
+    private final AtomicLong importsRun = new AtomicLong();
+    private final AtomicLong totalRowsImported = new AtomicLong();
+    private final AtomicLong totalRowsRejected = new AtomicLong();
+    private final AtomicLong totalImportMillis = new AtomicLong();
+    private volatile double lastRowsPerSecond;
+
+    public ProductImportReportDTO importProducts(Long distributorId, InputStream input, String format) throws IOException {
+        if (!userRepository.existsById(distributorId)) {
+            throw new IllegalArgumentException("Distributor not found: " + distributorId);
+        }
+        String importFormat = normalizeFormat(format);
+        boolean csv = FORMAT_CSV.equals(importFormat);
+
+        ProductImportReportDTO report = new ProductImportReportDTO();
+        report.setFormat(importFormat);
+        long start = System.currentTimeMillis();
+
+        List<Product> chunk = new ArrayList<>(chunkSize);
+        List<Long> chunkRows = new ArrayList<>(chunkSize);
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+            Map<String, Integer> columns = null;
+            long row = 0;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                if (csv && columns == null) {
+                    columns = parseHeader(line);
+                    continue;
+                }
+
+                row++;
+                report.setRowsRead(report.getRowsRead() + 1);
+                try {
+                    ProductDTO values = csv ? fromCsv(columns, line) : fromJson(line);
+                    chunk.add(toProduct(values, distributorId));
+                    chunkRows.add(row);
+                } catch (IllegalArgumentException e) {
+                    reject(report, row, e.getMessage());
+                }
+
+                if (chunk.size() >= chunkSize) {
+                    writeChunk(chunk, chunkRows, report);
+                }
+            }
+        }
+        writeChunk(chunk, chunkRows, report);
+
+        long elapsed = Math.max(1, System.currentTimeMillis() - start);
+        double rowsPerSecond = report.getRowsImported() * 1000.0 / elapsed;
+        report.setElapsedMillis(elapsed);
+        report.setRowsPerSecond(Math.round(rowsPerSecond * 10) / 10.0);
+
+        importsRun.incrementAndGet();
+        totalRowsImported.addAndGet(report.getRowsImported());
+        totalRowsRejected.addAndGet(report.getRowsRejected());
+        totalImportMillis.addAndGet(elapsed);
+        lastRowsPerSecond = report.getRowsPerSecond();
+        logger.info("Imported {} products ({} rejected) for distributor {} in {} ms ({} rows/s)",
+                report.getRowsImported(), report.getRowsRejected(), distributorId, elapsed, report.getRowsPerSecond());
+
+        if (report.getRowsImported() > 0) {
+            eventPublisher.publishEvent(ProductChangeEvent.bulkChanged(distributorId));
+        }
+        return report;
+    }
+
+    public Map<String, Object> getStats() {
+        long millis = totalImportMillis.get();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("imports", importsRun.get());
+        stats.put("rowsImported", totalRowsImported.get());
+        stats.put("rowsRejected", totalRowsRejected.get());
+        stats.put("lastRowsPerSecond", lastRowsPerSecond);
+        stats.put("avgRowsPerSecond", millis == 0 ? 0.0 : Math.round(totalRowsImported.get() * 10000.0 / millis) / 10.0);
+        stats.put("batchSize", batchSize);
+        stats.put("chunkSize", chunkSize);
+        return stats;
+    }
+
+    private void writeChunk(List<Product> chunk, List<Long> chunkRows, ProductImportReportDTO report) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> productBatchRepository.insertProducts(chunk, batchSize));
+            report.setRowsImported(report.getRowsImported() + chunk.size());
+        } catch (DataAccessException | TransactionException e) {
+            // A failed commit is reported like a failed statement: per row, and the import goes on
+            String reason = "Not imported, batch rolled back: " + e.getMostSpecificCause().getMessage();
+            for (Long row : chunkRows) {
+                reject(report, row, reason);
+            }
+        }
+        chunk.clear();
+        chunkRows.clear();
+    }
+
+    private void reject(ProductImportReportDTO report, long row, String message) {
+        report.setRowsRejected(report.getRowsRejected() + 1);
+        if (report.getErrors().size() < MAX_REPORTED_ERRORS) {
+            report.getErrors().add(new ImportErrorDTO(row, message));
+        } else {
+            report.setErrorsTruncated(true);
+        }
+    }
+
+    private Product toProduct(ProductDTO values, Long distributorId) {
+        if (values.getName() == null || values.getName().isBlank()) {
+            throw new IllegalArgumentException("name is required");
+        }
+        if (values.getName().length() > MAX_NAME_LENGTH) {
+            throw new IllegalArgumentException("name is longer than " + MAX_NAME_LENGTH + " characters");
+        }
+        if (values.getPrice() == null || !Double.isFinite(values.getPrice()) || values.getPrice() <= 0) {
+            throw new IllegalArgumentException("price must be a positive number");
+        }
+        if (values.getQuantity() == null || values.getQuantity() < 0) {
+            throw new IllegalArgumentException("quantity must be zero or more");
+        }
+
+        Product product = new Product();
+        product.setName(values.getName().trim());
+        product.setDescription(values.getDescription());
+        product.setCategory(values.getCategory());
+        product.setPrice(values.getPrice());
+        product.setQuantity(values.getQuantity());
+        product.setUnit(values.getUnit());
+        product.setImageUrl(values.getImageUrl());
+        product.setDistributorId(distributorId);
+        product.setIsAvailable(values.getQuantity() > 0);
+        return product;
+    }
+
+    private ProductDTO fromJson(String line) {
+        try {
+            return objectMapper.readValue(line, ProductDTO.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Invalid JSON: " + e.getOriginalMessage());
+        }
+    }
+
+    private ProductDTO fromCsv(Map<String, Integer> columns, String line) {
+        List<String> fields = parseCsvLine(line);
+        ProductDTO values = new ProductDTO();
+        values.setName(field(fields, columns, "name"));
+        values.setDescription(field(fields, columns, "description"));
+        values.setCategory(field(fields, columns, "category"));
+        values.setUnit(field(fields, columns, "unit"));
+        values.setImageUrl(field(fields, columns, "imageurl"));
+
+        String price = field(fields, columns, "price");
+        String quantity = field(fields, columns, "quantity");
+        try {
+            values.setPrice(price == null ? null : Double.valueOf(price));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("price is not a number: " + price);
+        }
+        try {
+            values.setQuantity(quantity == null ? null : Integer.valueOf(quantity));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("quantity is not a whole number: " + quantity);
+        }
+        return values;
+    }
+
+    private static String field(List<String> fields, Map<String, Integer> columns, String column) {
+        Integer index = columns.get(column);
+        if (index == null || index >= fields.size()) {
+            return null;
+        }
+        String value = fields.get(index).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    private static Map<String, Integer> parseHeader(String line) {
+        Map<String, Integer> columns = new HashMap<>();
+        List<String> names = parseCsvLine(line);
+        for (int i = 0; i < names.size(); i++) {
+            String name = names.get(i).trim().toLowerCase(Locale.ROOT).replace("_", "");
+            columns.put(name, i);
+        }
+        for (String required : new String[] {"name", "price", "quantity"}) {
+            if (!columns.containsKey(required)) {
+                throw new IllegalArgumentException("CSV header is missing the '" + required + "' column");
+            }
+        }
+        return columns;
+    }
+
+    // RFC 4180 style fields on a single line: commas inside quotes and "" escapes are supported
+    static List<String> parseCsvLine(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"') {
+                    if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                        current.append('"');
+                        i++;
+                    } else {
+                        quoted = false;
+                    }
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Unterminated quoted field");
+        }
+        fields.add(current.toString());
+        return fields;
+    }
+
+    private static String normalizeFormat(String format) {
+        if (format == null) {
+            return FORMAT_CSV;
+        }
+        String value = format.toLowerCase(Locale.ROOT);
+        if (value.contains("ndjson") || value.contains("jsonl") || value.contains("json")) {
+            return FORMAT_NDJSON;
+        }
+        if (value.contains("csv")) {
+            return FORMAT_CSV;
+        }
+        throw new IllegalArgumentException("Unsupported import format: " + format + " (use csv or ndjson)");
+    }
+}
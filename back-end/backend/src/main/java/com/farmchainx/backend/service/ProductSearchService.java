@@ -0,0 +1,59 @@
+package com.farmchainx.backend.service;
+
+import com.farmchainx.backend.dto.ProductDTO;
+import com.farmchainx.backend.util.InvertedIndex;
+import org.springframework.stereotype.Service;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Full-text search over the available catalog, served from an in-memory
+ * inverted index that follows product writes incrementally.
+ */
+@Service
+public class ProductSearchService extends CatalogIndexSupport<InvertedIndex> {
+
+    public static final int DEFAULT_LIMIT = 20;
+    public static final int MAX_LIMIT = 100;
+
+    // Name matches count three times as much as description matches, category twice
+    private static final float[] FIELD_WEIGHTS = {3.0f, 1.0f, 2.0f};
+
+    public List<ProductDTO> search(String query, Integer limit) {
+        if (query == null || query.isBlank()) {
+            throw new IllegalArgumentException("Search query must not be empty");
+        }
+        int max = limit == null ? DEFAULT_LIMIT : Math.max(1, Math.min(limit, MAX_LIMIT));
+
+        List<InvertedIndex.Hit> hits = readyIndex().search(query, max);
+        return loadInOrder(hits.stream().mapToLong(InvertedIndex.Hit::getId).toArray());
+    }
+
+    public Map<String, Object> getStats() {
+        InvertedIndex current = currentIndex();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("ready", isReady());
+        stats.put("documents", current.size());
+        stats.put("terms", current.termCount());
+        return stats;
+    }
+
+    @Override
+    protected InvertedIndex createIndex() {
+        return new InvertedIndex();
+    }
+
+    @Override
+    protected void put(InvertedIndex index, ProductDTO product) {
+        index.put(product.getId(),
+                new String[] {product.getName(), product.getDescription(), product.getCategory()},
+                FIELD_WEIGHTS);
+    }
+
+    @Override
+    protected void remove(InvertedIndex index, Long productId) {
+        index.remove(productId);
+    }
+}
@@ -1,24 +1,60 @@
 package com.farmchainx.backend.service;
 
+import com.farmchainx.backend.dto.BulkUpdateResultDTO;
+import com.farmchainx.backend.dto.CursorPageDTO;
 import com.farmchainx.backend.dto.ProductDTO;
+import com.farmchainx.backend.dto.ProductStockUpdateDTO;
+import com.farmchainx.backend.dto.RejectedItemDTO;
 import com.farmchainx.backend.entity.Product;
-import com.farmchainx.backend.entity.User;
+import com.farmchainx.backend.event.ProductChangeEvent;
+import com.farmchainx.backend.repository.ProductBatchRepository;
 import com.farmchainx.backend.repository.ProductRepository;
-import com.farmchainx.backend.repository.UserRepository;
+import com.farmchainx.backend.util.CursorCodec;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
 public class ProductService {
 
+    private static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(ProductService.class);
+
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    public static final int MAX_PAGE_SIZE = 200;
+    public static final int MAX_BULK_UPDATES = 20000;
+
     @Autowired
     private ProductRepository productRepository;
 
     @Autowired
-    private UserRepository userRepository;
+    private ProductBatchRepository productBatchRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private StockHoldService stockHoldService;
+
+    @Value("${app.bulk-update.batch-size:1000}")
+    private int bulkUpdateBatchSize;
 
     public Product addProduct(ProductDTO productDTO, Long distributorId) {
         Product product = new Product();
@@ -32,21 +68,99 @@ public class ProductService {
         product.setDistributorId(distributorId);
         product.setIsAvailable(productDTO.getQuantity() > 0);
         
-        return productRepository.save(product);
+        Product savedProduct = productRepository.save(product);
+        productRepository.findViewById(savedProduct.getId())
+                .ifPresent(view -> eventPublisher.publishEvent(ProductChangeEvent.created(view)));
+        return savedProduct;
     }
 
     public List<ProductDTO> getProductsByDistributor(Long distributorId) {
-        List<Product> products = productRepository.findByDistributorId(distributorId);
-        return products.stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        List<ProductDTO> products = productRepository.findViewsByDistributorId(distributorId);
+        stockHoldService.applyAvailableToPromise(products);
+        return products;
     }
 
     public List<ProductDTO> getAllAvailableProducts() {
-        List<Product> products = productRepository.findByIsAvailableTrue();
-        return products.stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return productRepository.findAvailableViews();
+    }
+
+    /**
+     * Returns one keyset page of the available catalog. Sort is one of "id", "price" or "name";
+     * ties are always broken by id so the order is stable across pages.
+     */
+    public CursorPageDTO<ProductDTO> getAvailableProductsPage(String cursor, Integer size, String sort) {
+        String sortKey = sort == null ? "id" : sort.toLowerCase();
+        int limit = size == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        // Fetch one extra row to know whether another page exists
+        PageRequest pageRequest = PageRequest.of(0, limit + 1);
+
+        List<ProductDTO> products;
+        switch (sortKey) {
+            case "id": {
+                long lastId = 0L;
+                if (cursor != null && !cursor.isEmpty()) {
+                    lastId = parseLong(CursorCodec.decode(cursor, sortKey, 1)[0]);
+                }
+                products = productRepository.findAvailableAfterId(lastId, pageRequest);
+                break;
+            }
+            case "price": {
+                long lastId = 0L;
+                double lastPrice = -1.0;
+                if (cursor != null && !cursor.isEmpty()) {
+                    String[] values = CursorCodec.decode(cursor, sortKey, 2);
+                    lastId = parseLong(values[0]);
+                    lastPrice = parseDouble(values[1]);
+                }
+                products = productRepository.findAvailableAfterPrice(lastPrice, lastId, pageRequest);
+                break;
+            }
+            case "name": {
+                long lastId = 0L;
+                String lastName = "";
+                if (cursor != null && !cursor.isEmpty()) {
+                    String[] values = CursorCodec.decode(cursor, sortKey, 2);
+                    lastId = parseLong(values[0]);
+                    lastName = values[1];
+                }
+                products = productRepository.findAvailableAfterName(lastName, lastId, pageRequest);
+                break;
+            }
+            default:
+                throw new IllegalArgumentException("Unsupported sort: " + sort + " (use id, price or name)");
+        }
+
+        boolean hasMore = products.size() > limit;
+        List<ProductDTO> page = hasMore ? products.subList(0, limit) : products;
+        stockHoldService.applyAvailableToPromise(page);
+
+        String nextCursor = null;
+        if (hasMore) {
+            ProductDTO last = page.get(page.size() - 1);
+            switch (sortKey) {
+                case "price":
+                    nextCursor = CursorCodec.encode(sortKey, last.getId().toString(), last.getPrice().toString());
+                    break;
+                case "name":
+                    nextCursor = CursorCodec.encode(sortKey, last.getId().toString(), last.getName());
+                    break;
+                default:
+                    nextCursor = CursorCodec.encode(sortKey, last.getId().toString());
+            }
+        }
+
+        return new CursorPageDTO<>(page, nextCursor, hasMore);
+    }
+
+    /**
+     * Pushes every available product to the sink while reading it from a database cursor.
+     * Rows are DTO projections, so nothing accumulates in the persistence context.
+     */
+    @Transactional(readOnly = true)
+    public void streamAvailableProducts(Consumer<ProductDTO> sink) {
+        try (Stream<ProductDTO> products = productRepository.streamAvailable()) {
+            products.forEach(sink);
+        }
     }
 
     public Product updateProduct(Long productId, ProductDTO productDTO) {
@@ -67,41 +181,120 @@ public class ProductService {
         
         product.setIsAvailable(productDTO.getQuantity() > 0);
         
-        return productRepository.save(product);
+        Product savedProduct = productRepository.save(product);
+        productRepository.findViewById(savedProduct.getId())
+                .ifPresent(view -> eventPublisher.publishEvent(ProductChangeEvent.updated(view)));
+        return savedProduct;
+    }
+
+    /**
+     * Applies price and/or stock changes to many of a distributor's products with batched
+     * UPDATE statements, one transaction per batch. Products that do not exist or belong to
+     * another distributor are reported as rejected; a repeated product id keeps its last entry.
+     * If a batch fails, the batches before it stay committed and that batch and every later
+     * one are reported as rejected with the error.
+     */
+    public BulkUpdateResultDTO bulkUpdatePriceAndStock(Long distributorId, List<ProductStockUpdateDTO> updates) {
+        if (updates == null || updates.isEmpty()) {
+            throw new IllegalArgumentException("No updates given");
+        }
+        if (updates.size() > MAX_BULK_UPDATES) {
+            throw new IllegalArgumentException("At most " + MAX_BULK_UPDATES + " updates are allowed per request");
+        }
+        long start = System.currentTimeMillis();
+        BulkUpdateResultDTO result = new BulkUpdateResultDTO();
+        result.setRequested(updates.size());
+
+        Map<Long, ProductStockUpdateDTO> valid = new LinkedHashMap<>();
+        for (ProductStockUpdateDTO update : updates) {
+            String problem = validate(update);
+            if (problem != null) {
+                result.getRejected().add(new RejectedItemDTO(update.getProductId(), problem));
+            } else {
+                valid.put(update.getProductId(), update);
+            }
+        }
+
+        List<ProductStockUpdateDTO> pending = new ArrayList<>(valid.values());
+        int from = 0;
+        try {
+            for (; from < pending.size(); from += bulkUpdateBatchSize) {
+                List<ProductStockUpdateDTO> batch = pending.subList(from, Math.min(from + bulkUpdateBatchSize, pending.size()));
+                List<RejectedItemDTO> notOwned = new ArrayList<>();
+                List<ProductStockUpdateDTO> applied = transactionTemplate.execute(status -> {
+                    List<Long> ids = batch.stream().map(ProductStockUpdateDTO::getProductId).toList();
+                    Set<Long> owned = new HashSet<>(productRepository.findIdsByDistributorIdAndIdIn(distributorId, ids));
+
+                    List<ProductStockUpdateDTO> ownedUpdates = new ArrayList<>(owned.size());
+                    for (ProductStockUpdateDTO update : batch) {
+                        if (owned.contains(update.getProductId())) {
+                            ownedUpdates.add(update);
+                        } else {
+                            notOwned.add(new RejectedItemDTO(update.getProductId(),
+                                    "Product not found for distributor " + distributorId));
+                        }
+                    }
+                    productBatchRepository.updatePriceAndStock(ownedUpdates, distributorId, bulkUpdateBatchSize);
+                    return ownedUpdates;
+                });
+                result.getRejected().addAll(notOwned);
+                applied.forEach(update -> result.getUpdated().add(update.getProductId()));
+            }
+        } catch (DataAccessException | TransactionException e) {
+            // Earlier batches are committed; report the rolled-back batch and the rest as not applied
+            logger.warn("Bulk update for distributor {} failed after {} of {} products: {}",
+                    distributorId, result.getUpdated().size(), pending.size(), e.getMessage());
+            String problem = "Not applied: " + e.getMostSpecificCause().getMessage();
+            for (ProductStockUpdateDTO update : pending.subList(from, pending.size())) {
+                result.getRejected().add(new RejectedItemDTO(update.getProductId(), problem));
+            }
+        } finally {
+            // Committed batches must reach the caches and indexes even if a later batch failed
+            if (!result.getUpdated().isEmpty()) {
+                eventPublisher.publishEvent(ProductChangeEvent.bulkChanged(distributorId));
+            }
+        }
+
+        result.setElapsedMillis(System.currentTimeMillis() - start);
+        return result;
     }
 
     public void deleteProduct(Long productId) {
         Product product = productRepository.findById(productId)
                 .orElseThrow(() -> new RuntimeException("Product not found with id: " + productId));
         productRepository.delete(product);
+        eventPublisher.publishEvent(ProductChangeEvent.deleted(product.getId(), product.getDistributorId()));
     }
 
-    private ProductDTO convertToDTO(Product product) {
-        ProductDTO dto = new ProductDTO();
-        dto.setId(product.getId());
-        dto.setName(product.getName());
-        dto.setDescription(product.getDescription());
-        dto.setCategory(product.getCategory());
-        dto.setPrice(product.getPrice());
-        dto.setQuantity(product.getQuantity());
-        dto.setUnit(product.getUnit());
-        dto.setImageUrl(product.getImageUrl());
-        dto.setIsAvailable(product.getIsAvailable());
-        dto.setDistributorId(product.getDistributorId());
-        
-        // Get distributor name
-        if (product.getDistributor() != null) {
-            dto.setDistributorName(product.getDistributor().getFullName());
-        } else {
-            // Fallback: get distributor name from repository
-            User distributor = userRepository.findById(product.getDistributorId()).orElse(null);
-            if (distributor != null) {
-                dto.setDistributorName(distributor.getFullName());
-            } else {
-                dto.setDistributorName("Unknown Distributor");
-            }
+    private long parseLong(String value) {
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cursor");
         }
-        
-        return dto;
+    }
+
+    private double parseDouble(String value) {
+        try {
+            return Double.parseDouble(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+
+    private String validate(ProductStockUpdateDTO update) {
+        if (update.getProductId() == null) {
+            return "productId is required";
+        }
+        if (update.getPrice() == null && update.getQuantity() == null) {
+            return "Nothing to update: give a price, a quantity or both";
+        }
+        if (update.getPrice() != null && (!Double.isFinite(update.getPrice()) || update.getPrice() <= 0)) {
+            return "price must be a positive number";
+        }
+        if (update.getQuantity() != null && update.getQuantity() < 0) {
+            return "quantity must be zero or more";
+        }
+        return null;
     }
 }
\ No newline at end of file
@@ -0,0 +1,64 @@
+package com.farmchainx.backend.service;
+
+import com.farmchainx.backend.event.OrderChangeEvent;
+import com.farmchainx.backend.event.ProductChangeEvent;
+import com.farmchainx.backend.util.ETags;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-resource modification counters used to build ETags for polled listings.
+ *
+ * Counters are bumped after commit by the product and order change events. Tags also
+ * carry a per-process epoch, so a restart (or another node) never produces a tag that
+ * matches one issued for different data; the worst case is a full response.
+ */
+@Service
+public class ResourceVersionService {
+
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+
+    private final Map<Long, AtomicLong> distributorProductVersions = new ConcurrentHashMap<>();
+    private final Map<Long, AtomicLong> distributorOrderVersions = new ConcurrentHashMap<>();
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangeEvent event) {
+        if (event.getDistributorId() != null) {
+            bump(distributorProductVersions, event.getDistributorId());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrderChanged(OrderChangeEvent event) {
+        if (event.getDistributorId() != null) {
+            bump(distributorOrderVersions, event.getDistributorId());
+        }
+    }
+
+    public String catalogETag(long catalogVersion) {
+        return ETags.strong("catalog", epoch, Long.toString(catalogVersion));
+    }
+
+    public String distributorProductsETag(Long distributorId) {
+        return ETags.strong("products", distributorId.toString(), epoch,
+                Long.toString(current(distributorProductVersions, distributorId)));
+    }
+
+    public String distributorOrdersETag(Long distributorId) {
+        return ETags.strong("orders", distributorId.toString(), epoch,
+                Long.toString(current(distributorOrderVersions, distributorId)));
+    }
+
+    private static void bump(Map<Long, AtomicLong> versions, Long key) {
+        versions.computeIfAbsent(key, k -> new AtomicLong()).incrementAndGet();
+    }
+
+    private static long current(Map<Long, AtomicLong> versions, Long key) {
+        AtomicLong version = versions.get(key);
+        return version == null ? 0 : version.get();
+    }
+}
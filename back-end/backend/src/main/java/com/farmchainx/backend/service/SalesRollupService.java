@@ -0,0 +1,326 @@
+package com.farmchainx.backend.service;
+
+import com.farmchainx.backend.dto.SalesPointDTO;
+import com.farmchainx.backend.dto.SalesReportDTO;
+import com.farmchainx.backend.entity.Order;
+import com.farmchainx.backend.entity.OrderItem;
+import com.farmchainx.backend.entity.SalesRollup;
+import com.farmchainx.backend.repository.SalesRollupRepository;
+import com.farmchainx.backend.repository.SalesRollupRepository.OrderLine;
+import com.farmchainx.backend.repository.SalesRollupRepository.RollupDelta;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Distributor sales analytics answered from daily rollups instead of scanning orders.
+ *
+ * OrderService adds every new order to the rollups inside its own transaction and takes
+ * cancelled orders out again, so the rollups commit or roll back together with the order.
+ * Reports read at most one row per day and product in the requested range and bucket
+ * them by day, ISO week or month. {@link #rebuild} recomputes a distributor's rollups from
+ * the order tables, for backfill or repair.
+ */
+@Service
+public class SalesRollupService {
+
+    private static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(SalesRollupService.class);
+
+    public static final int MAX_RANGE_DAYS = 366 * 5;
+    private static final int DEFAULT_RANGE_DAYS = 30;
+
+    @Autowired
+    private SalesRollupRepository salesRollupRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${app.analytics.rebuild-on-startup:false}")
+    private boolean rebuildOnStartup;
+
+    private final AtomicBoolean rebuildRunning = new AtomicBoolean();
+
+    // Metrics
+    private final AtomicLong ordersRecorded = new AtomicLong();
+    private final AtomicLong ordersCancelled = new AtomicLong();
+    private final AtomicLong reports = new AtomicLong();
+    private final AtomicLong rebuilds = new AtomicLong();
+    private volatile long lastReportMillis;
+    private volatile LocalDateTime lastFullRebuild;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillOnStartup() {
+        if (rebuildOnStartup) {
+            startRebuildAll();
+        }
+    }
+
+    /** Adds a newly created order; runs in the caller's transaction. */
+    public void recordOrder(Order order, List<OrderItem> items) {
+        LocalDate day = order.getOrderDate() != null ? order.getOrderDate().toLocalDate() : LocalDate.now();
+        Long distributorId = order.getDistributor().getId();
+
+        // Per product, sorted so concurrent orders lock rollup rows in the same order
+        Map<Long, long[]> quantities = new TreeMap<>();
+        Map<Long, Double> revenues = new TreeMap<>();
+        long totalQuantity = 0;
+        double totalRevenue = 0.0;
+        for (OrderItem item : items) {
+            Long productId = item.getProduct().getId();
+            quantities.computeIfAbsent(productId, id -> new long[1])[0] += item.getQuantity();
+            revenues.merge(productId, item.getSubtotal(), Double::sum);
+            totalQuantity += item.getQuantity();
+            totalRevenue += item.getSubtotal();
+        }
+
+        List<RollupDelta> deltas = new ArrayList<>(quantities.size() + 1);
+        deltas.add(new RollupDelta(distributorId, SalesRollup.ALL_PRODUCTS, day, totalQuantity, totalRevenue, 1));
+        for (Map.Entry<Long, long[]> entry : quantities.entrySet()) {
+            deltas.add(new RollupDelta(distributorId, entry.getKey(), day,
+                    entry.getValue()[0], revenues.get(entry.getKey()), 1));
+        }
+        salesRollupRepository.applyDeltas(deltas);
+        ordersRecorded.incrementAndGet();
+    }
+
+    /** Takes cancelled orders out of the rollups; runs in the caller's transaction. */
+    public void recordCancellations(Collection<Long> orderIds) {
+        if (orderIds.isEmpty()) {
+            return;
+        }
+        Map<RollupKey, RollupSums> sums = new TreeMap<>();
+        Set<Long> cancelled = new HashSet<>();
+        for (OrderLine line : salesRollupRepository.findOrderLines(orderIds)) {
+            LocalDate day = line.getOrderDate() != null ? line.getOrderDate().toLocalDate() : LocalDate.now();
+            RollupKey total = new RollupKey(line.getDistributorId(), SalesRollup.ALL_PRODUCTS, day);
+            RollupKey product = new RollupKey(line.getDistributorId(), line.getProductId(), day);
+            sums.computeIfAbsent(total, key -> new RollupSums()).add(line);
+            sums.computeIfAbsent(product, key -> new RollupSums()).add(line);
+            cancelled.add(line.getOrderId());
+        }
+        List<RollupDelta> deltas = new ArrayList<>(sums.size());
+        for (Map.Entry<RollupKey, RollupSums> entry : sums.entrySet()) {
+            RollupKey key = entry.getKey();
+            RollupSums value = entry.getValue();
+            deltas.add(new RollupDelta(key.distributorId, key.productId, key.day,
+                    -value.quantity, -value.revenue, -value.orderIds.size()));
+        }
+        if (!deltas.isEmpty()) {
+            salesRollupRepository.applyDeltas(deltas);
+        }
+        ordersCancelled.addAndGet(cancelled.size());
+    }
+
+    /**
+     * Revenue, order count and units sold in [from, to] (both inclusive), per day, week or
+     * month, for the whole catalog or one product. Without a product the report also
+     * breaks the range down by product.
+     */
+    public SalesReportDTO getReport(Long distributorId, LocalDate from, LocalDate to, String granularity, Long productId) {
+        long start = System.currentTimeMillis();
+        LocalDate end = to != null ? to : LocalDate.now();
+        LocalDate begin = from != null ? from : end.minusDays(DEFAULT_RANGE_DAYS - 1);
+        if (begin.isAfter(end)) {
+            throw new IllegalArgumentException("from must not be after to");
+        }
+        if (ChronoUnit.DAYS.between(begin, end) >= MAX_RANGE_DAYS) {
+            throw new IllegalArgumentException("Range must be at most " + MAX_RANGE_DAYS + " days");
+        }
+        Granularity bucket = Granularity.parse(granularity);
+
+        List<SalesPointDTO> days = salesRollupRepository.findDaily(distributorId,
+                productId != null ? productId : SalesRollup.ALL_PRODUCTS, begin, end.plusDays(1));
+
+        // Every bucket in the range, empty ones included, so charts need no gap filling
+        Map<LocalDate, SalesPointDTO> series = new LinkedHashMap<>();
+        for (LocalDate period = bucket.startOf(begin); !period.isAfter(end); period = bucket.next(period)) {
+            series.put(period, new SalesPointDTO(period, 0, 0, 0.0));
+        }
+        SalesPointDTO totals = new SalesPointDTO(begin, 0, 0, 0.0);
+        for (SalesPointDTO day : days) {
+            SalesPointDTO point = series.get(bucket.startOf(day.getPeriod()));
+            add(point, day);
+            add(totals, day);
+        }
+
+        SalesReportDTO report = new SalesReportDTO();
+        report.setDistributorId(distributorId);
+        report.setProductId(productId);
+        report.setFrom(begin);
+        report.setTo(end);
+        report.setGranularity(bucket.name().toLowerCase(Locale.ROOT));
+        report.setTotals(totals);
+        report.setSeries(new ArrayList<>(series.values()));
+        if (productId == null) {
+            report.setProducts(salesRollupRepository.findProductTotals(distributorId, begin, end.plusDays(1)));
+        }
+
+        reports.incrementAndGet();
+        lastReportMillis = System.currentTimeMillis() - start;
+        return report;
+    }
+
+    /** Recomputes one distributor's rollups in a single transaction; returns the rows written. */
+    public int rebuild(Long distributorId) {
+        Integer rows = transactionTemplate.execute(status -> salesRollupRepository.rebuild(distributorId));
+        rebuilds.incrementAndGet();
+        return rows == null ? 0 : rows;
+    }
+
+    /**
+     * Rebuilds every distributor in the background, one transaction each.
+     *
+     * @return false if a full rebuild is already running
+     */
+    public boolean startRebuildAll() {
+        if (!rebuildRunning.compareAndSet(false, true)) {
+            return false;
+        }
+        Thread thread = new Thread(() -> {
+            try {
+                long start = System.currentTimeMillis();
+                List<Long> distributorIds = salesRollupRepository.findDistributorIdsWithOrders();
+                for (Long distributorId : distributorIds) {
+                    try {
+                        rebuild(distributorId);
+                    } catch (RuntimeException e) {
+                        logger.error("Sales rollup rebuild failed for distributor {}: {}", distributorId, e.getMessage());
+                    }
+                }
+                lastFullRebuild = LocalDateTime.now();
+                logger.info("Rebuilt sales rollups for {} distributors in {} ms",
+                        distributorIds.size(), System.currentTimeMillis() - start);
+            } finally {
+                rebuildRunning.set(false);
+            }
+        }, "sales-rollup-rebuild");
+        thread.setDaemon(true);
+        thread.start();
+        return true;
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("ordersRecorded", ordersRecorded.get());
+        stats.put("ordersCancelled", ordersCancelled.get());
+        stats.put("reports", reports.get());
+        stats.put("lastReportMillis", lastReportMillis);
+        stats.put("rebuilds", rebuilds.get());
+        stats.put("rebuildRunning", rebuildRunning.get());
+        stats.put("lastFullRebuild", lastFullRebuild);
+        return stats;
+    }
+
+    private static void add(SalesPointDTO target, SalesPointDTO day) {
+        target.setOrders(target.getOrders() + day.getOrders());
+        target.setQuantity(target.getQuantity() + day.getQuantity());
+        target.setRevenue(target.getRevenue() + day.getRevenue());
+    }
+
+    private enum Granularity {
+        DAY, WEEK, MONTH;
+
+        static Granularity parse(String value) {
+            if (value == null || value.isBlank()) {
+                return DAY;
+            }
+            try {
+                return valueOf(value.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("granularity must be day, week or month");
+            }
+        }
+
+        LocalDate startOf(LocalDate day) {
+            switch (this) {
+                case WEEK:
+                    return day.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+                case MONTH:
+                    return day.withDayOfMonth(1);
+                default:
+                    return day;
+            }
+        }
+
+        LocalDate next(LocalDate period) {
+            switch (this) {
+                case WEEK:
+                    return period.plusWeeks(1);
+                case MONTH:
+                    return period.plusMonths(1);
+                default:
+                    return period.plusDays(1);
+            }
+        }
+    }
+
+    private static final class RollupKey implements Comparable<RollupKey> {
+        private static final Comparator<RollupKey> ORDER = Comparator
+                .comparing((RollupKey key) -> key.distributorId)
+                .thenComparing(key -> key.productId)
+                .thenComparing(key -> key.day);
+
+        final Long distributorId;
+        final Long productId;
+        final LocalDate day;
+
+        RollupKey(Long distributorId, Long productId, LocalDate day) {
+            this.distributorId = distributorId;
+            this.productId = productId;
+            this.day = day;
+        }
+
+        @Override
+        public int compareTo(RollupKey other) {
+            return ORDER.compare(this, other);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof RollupKey)) {
+                return false;
+            }
+            RollupKey other = (RollupKey) o;
+            return distributorId.equals(other.distributorId) && productId.equals(other.productId) && day.equals(other.day);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(distributorId, productId, day);
+        }
+    }
+
+    private static final class RollupSums {
+        long quantity;
+        double revenue;
+        final Set<Long> orderIds = new HashSet<>();
+
+        void add(OrderLine line) {
+            quantity += line.getQuantity();
+            revenue += line.getSubtotal();
+            orderIds.add(line.getOrderId());
+        }
+    }
+}
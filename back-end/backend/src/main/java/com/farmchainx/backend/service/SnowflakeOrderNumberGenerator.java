@@ -0,0 +1,31 @@
+package com.farmchainx.backend.service;
+
+import com.farmchainx.backend.util.SnowflakeIdGenerator;
+
+import java.util.Locale;
+
+/**
+ * Order numbers of the form "ORD-" + 13 base-36 digits of a Snowflake id. The digits are
+ * zero-padded and upper case, so numbers sort as strings in creation order (per node).
+ */
+public class SnowflakeOrderNumberGenerator implements OrderNumberGenerator {
+
+    static final String PREFIX = "ORD-";
+    private static final int DIGITS = 13; // Long.MAX_VALUE in base 36
+
+    private final SnowflakeIdGenerator ids;
+
+    public SnowflakeOrderNumberGenerator(SnowflakeIdGenerator ids) {
+        this.ids = ids;
+    }
+
+    @Override
+    public String nextOrderNumber() {
+        String digits = Long.toString(ids.nextId(), 36).toUpperCase(Locale.ROOT);
+        StringBuilder number = new StringBuilder(PREFIX.length() + DIGITS).append(PREFIX);
+        for (int i = digits.length(); i < DIGITS; i++) {
+            number.append('0');
+        }
+        return number.append(digits).toString();
+    }
+}
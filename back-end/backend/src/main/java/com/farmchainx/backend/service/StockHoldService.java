@@ -0,0 +1,416 @@
+package com.farmchainx.backend.service;
+
+import com.farmchainx.backend.dto.ProductDTO;
+import com.farmchainx.backend.dto.StockHoldDTO;
+import com.farmchainx.backend.repository.ProductBatchRepository;
+import com.farmchainx.backend.util.HierarchicalTimingWheel;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Server-side cart holds: adding a product to the cart sets aside units of it for the
+ * consumer for a limited time (app.cart.hold-ttl-ms). Held units are not promised to anyone
+ * else, so other buyers see available-to-promise = stock - active holds; checkout turns the
+ * consumer's holds into order items and drops them once the order commits.
+ *
+ * Holds are enforced, not advisory: orders take stock through {@link #startTaking}, which
+ * returns the units other carts hold so the stock decrement itself refuses to go below them,
+ * and registers the order's own units as being taken until its decrement is visible to stock
+ * reads. A hold is checked against stock minus other holds minus those in-flight units; the
+ * stock is read outside the lock, and read again if a take of that product finished in
+ * between. Neither side can promise units the other already has.
+ *
+ * Holds live in memory only (one per consumer and product), which scopes them to a single
+ * application node: with several nodes, each enforces only its own holds. Expiry runs on a
+ * {@link HierarchicalTimingWheel} advanced by a single ticker thread, so each hold costs
+ * O(1) to place, refresh, cancel and expire however many are active, and there is no
+ * periodic scan. Holds do not survive a restart; after one, every unit is promisable again.
+ */
+@Service
+public class StockHoldService {
+
+    private static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(StockHoldService.class);
+
+    private static final int WHEEL_SIZE = 64;
+    private static final int WHEEL_LEVELS = 4;
+    private static final int TAKE_STRIPES = 64;
+
+    @Autowired
+    private ProductBatchRepository productBatchRepository;
+
+    @Autowired
+    private StockReservationEngine stockReservationEngine;
+
+    @Value("${app.cart.hold-ttl-ms:900000}")
+    private long holdTtlMillis;
+
+    @Value("${app.cart.tick-ms:100}")
+    private long tickMillis;
+
+    @Value("${app.cart.max-holds-per-consumer:200}")
+    private int maxHoldsPerConsumer;
+
+    private static final class Hold {
+        final Long consumerId;
+        final Long productId;
+        int quantity;
+        HierarchicalTimingWheel.Timeout<Hold> timeout;
+
+        Hold(Long consumerId, Long productId) {
+            this.consumerId = consumerId;
+            this.productId = productId;
+        }
+    }
+
+    // Bookkeeping and the wheel are guarded by this lock; every critical section is O(1) per hold
+    private final Object lock = new Object();
+    private final Map<Long, Map<Long, Hold>> holdsByConsumer = new HashMap<>();
+    // Units held per product, readable without the lock for available-to-promise
+    private final Map<Long, AtomicInteger> heldByProduct = new ConcurrentHashMap<>();
+    // Units orders are taking whose decrement currentStock() may not show yet
+    private final Map<Long, Integer> takingByProduct = new HashMap<>();
+    // Bumped, per stripe of products, whenever a take finishes; tells hold() its stock read went stale
+    private final AtomicLongArray takesFinished = new AtomicLongArray(TAKE_STRIPES);
+
+    private HierarchicalTimingWheel<Hold> wheel;
+    private ScheduledExecutorService ticker;
+
+    // Metrics
+    private final AtomicLong placed = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong expired = new AtomicLong();
+    private final AtomicLong released = new AtomicLong();
+    private final AtomicLong converted = new AtomicLong();
+    private final AtomicLong staleStockReads = new AtomicLong();
+
+    @PostConstruct
+    void start() {
+        wheel = new HierarchicalTimingWheel<>(tickMillis, WHEEL_SIZE, WHEEL_LEVELS, System.currentTimeMillis());
+        ticker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "cart-hold-expiry");
+            thread.setDaemon(true);
+            return thread;
+        });
+        ticker.scheduleWithFixedDelay(this::expireQuietly, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void stop() {
+        if (ticker != null) {
+            ticker.shutdownNow();
+        }
+    }
+
+    /**
+     * Sets the consumer's hold on a product to {@code quantity} units and restarts its TTL.
+     * Fails when the product does not exist or fewer units than that are left after
+     * everyone else's holds and the orders being placed right now.
+     */
+    public StockHoldDTO hold(Long consumerId, Long productId, Integer quantity) {
+        if (productId == null || quantity == null || quantity <= 0) {
+            throw new IllegalArgumentException("Invalid quantity for product: " + productId);
+        }
+        long expiresAt = System.currentTimeMillis() + holdTtlMillis;
+        while (!tryHold(consumerId, productId, quantity, expiresAt)) {
+            staleStockReads.incrementAndGet();
+        }
+        placed.incrementAndGet();
+        return new StockHoldDTO(productId, quantity, toLocalDateTime(expiresAt));
+    }
+
+    // False when a take of the product finished between the stock read and the check; the caller reads again
+    private boolean tryHold(Long consumerId, Long productId, int quantity, long expiresAt) {
+        int stripe = stripe(productId);
+        long stamp = takesFinished.get(stripe);
+        // A database read when the reservation engine has no counter; kept outside the lock
+        Integer stock = currentStock(productId);
+        if (stock == null) {
+            throw new IllegalArgumentException("Product not found: " + productId);
+        }
+        synchronized (lock) {
+            if (takesFinished.get(stripe) != stamp) {
+                return false;
+            }
+            Map<Long, Hold> holds = holdsByConsumer.computeIfAbsent(consumerId, id -> new HashMap<>());
+            Hold hold = holds.get(productId);
+            int alreadyHeld = hold == null ? 0 : hold.quantity;
+            if (hold == null && holds.size() >= maxHoldsPerConsumer) {
+                rejected.incrementAndGet();
+                throw new IllegalArgumentException("At most " + maxHoldsPerConsumer + " products can be held per cart");
+            }
+            int heldByOthers = heldQuantity(productId) - alreadyHeld;
+            if (stock - heldByOthers - takingByProduct.getOrDefault(productId, 0) < quantity) {
+                if (holds.isEmpty()) {
+                    holdsByConsumer.remove(consumerId);
+                }
+                rejected.incrementAndGet();
+                throw new IllegalArgumentException("Insufficient quantity for product: " + productId);
+            }
+            if (hold == null) {
+                hold = new Hold(consumerId, productId);
+                holds.put(productId, hold);
+            } else {
+                wheel.cancel(hold.timeout);
+            }
+            hold.quantity = quantity;
+            hold.timeout = wheel.schedule(hold, expiresAt);
+            heldByProduct.computeIfAbsent(productId, id -> new AtomicInteger()).addAndGet(quantity - alreadyHeld);
+        }
+        return true;
+    }
+
+    /** @return false if the consumer held nothing of that product */
+    public boolean release(Long consumerId, Long productId) {
+        synchronized (lock) {
+            Map<Long, Hold> holds = holdsByConsumer.get(consumerId);
+            Hold hold = holds == null ? null : holds.get(productId);
+            if (hold == null) {
+                return false;
+            }
+            wheel.cancel(hold.timeout);
+            drop(hold);
+        }
+        released.incrementAndGet();
+        return true;
+    }
+
+    /** Drops every hold of the consumer (cart emptied); returns how many there were. */
+    public int releaseAll(Long consumerId) {
+        int count;
+        synchronized (lock) {
+            Map<Long, Hold> holds = holdsByConsumer.get(consumerId);
+            if (holds == null) {
+                return 0;
+            }
+            List<Hold> all = new ArrayList<>(holds.values());
+            for (Hold hold : all) {
+                wheel.cancel(hold.timeout);
+                drop(hold);
+            }
+            count = all.size();
+        }
+        released.addAndGet(count);
+        return count;
+    }
+
+    public List<StockHoldDTO> getHolds(Long consumerId) {
+        synchronized (lock) {
+            Map<Long, Hold> holds = holdsByConsumer.get(consumerId);
+            if (holds == null) {
+                return new ArrayList<>();
+            }
+            List<StockHoldDTO> result = new ArrayList<>(holds.size());
+            for (Hold hold : holds.values()) {
+                result.add(new StockHoldDTO(hold.productId, hold.quantity, toLocalDateTime(hold.timeout.getDeadlineMillis())));
+            }
+            return result;
+        }
+    }
+
+    /** Held units per product for the consumer's cart, in the order they were first held. */
+    public Map<Long, Integer> getHeldQuantities(Long consumerId) {
+        synchronized (lock) {
+            Map<Long, Integer> quantities = new LinkedHashMap<>();
+            Map<Long, Hold> holds = holdsByConsumer.get(consumerId);
+            if (holds != null) {
+                holds.values().forEach(hold -> quantities.put(hold.productId, hold.quantity));
+            }
+            return quantities;
+        }
+    }
+
+    /** Units of the product held by all carts. */
+    public int heldQuantity(Long productId) {
+        AtomicInteger held = heldByProduct.get(productId);
+        return held == null ? 0 : held.get();
+    }
+
+    /** Units of the product held by carts other than the consumer's, i.e. not promisable to them. */
+    public int heldByOthers(Long productId, Long consumerId) {
+        synchronized (lock) {
+            Map<Long, Hold> holds = holdsByConsumer.get(consumerId);
+            Hold own = holds == null ? null : holds.get(productId);
+            return heldQuantity(productId) - (own == null ? 0 : own.quantity);
+        }
+    }
+
+    /**
+     * Start of an order taking stock. Returns, per product, the units the order must leave
+     * behind: other consumers' holds. Other orders' takes are not among them, since the
+     * decrement already sees whatever they took. Until {@link #finishTaking} the order's own
+     * units count as taken for new holds.
+     */
+    public Map<Long, Integer> startTaking(Long consumerId, Map<Long, Integer> requested) {
+        Map<Long, Integer> protectedUnits = new HashMap<>();
+        synchronized (lock) {
+            Map<Long, Hold> holds = holdsByConsumer.get(consumerId);
+            for (Map.Entry<Long, Integer> entry : requested.entrySet()) {
+                Long productId = entry.getKey();
+                Hold own = holds == null ? null : holds.get(productId);
+                int heldByOthers = heldQuantity(productId) - (own == null ? 0 : own.quantity);
+                protectedUnits.put(productId, heldByOthers);
+                takingByProduct.merge(productId, entry.getValue(), Integer::sum);
+            }
+        }
+        return protectedUnits;
+    }
+
+    /** The order's decrement is now visible to stock reads, or did not happen. */
+    public void finishTaking(Map<Long, Integer> requested) {
+        synchronized (lock) {
+            for (Map.Entry<Long, Integer> entry : requested.entrySet()) {
+                takingByProduct.computeIfPresent(entry.getKey(),
+                        (id, taking) -> taking.equals(entry.getValue()) ? null : taking - entry.getValue());
+                takesFinished.incrementAndGet(stripe(entry.getKey()));
+            }
+        }
+    }
+
+    /** {@link #finishTaking} once the surrounding transaction commits or rolls back. */
+    public void finishTakingOnCompletion(Map<Long, Integer> requested) {
+        Map<Long, Integer> quantities = new HashMap<>(requested);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    finishTaking(quantities);
+                }
+            });
+        } else {
+            finishTaking(quantities);
+        }
+    }
+
+    /**
+     * Checkout: the consumer's holds on these products became order items. They are dropped
+     * once the surrounding transaction commits and kept if it rolls back.
+     */
+    public void convertOnCommit(Long consumerId, Collection<Long> productIds) {
+        List<Long> ids = new ArrayList<>(productIds);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    convert(consumerId, ids);
+                }
+            });
+        } else {
+            convert(consumerId, ids);
+        }
+    }
+
+    /** Fills in available-to-promise (stock minus active holds, never below zero). */
+    public void applyAvailableToPromise(Collection<ProductDTO> products) {
+        for (ProductDTO product : products) {
+            if (product.getQuantity() != null) {
+                product.setAvailableToPromise(Math.max(0, product.getQuantity() - heldQuantity(product.getId())));
+            }
+        }
+    }
+
+    /** Releases every hold whose TTL ran out by {@code nowMillis}. */
+    int expireDue(long nowMillis) {
+        int count;
+        synchronized (lock) {
+            count = wheel.advance(nowMillis, this::drop);
+        }
+        expired.addAndGet(count);
+        return count;
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        synchronized (lock) {
+            stats.put("activeHolds", wheel.size());
+            stats.put("consumersWithHolds", holdsByConsumer.size());
+            stats.put("unitsBeingTaken", takingByProduct.values().stream().mapToLong(Integer::longValue).sum());
+        }
+        stats.put("heldUnits", heldByProduct.values().stream().mapToLong(AtomicInteger::get).sum());
+        stats.put("holdTtlMs", holdTtlMillis);
+        stats.put("tickMs", tickMillis);
+        stats.put("placed", placed.get());
+        stats.put("rejected", rejected.get());
+        stats.put("expired", expired.get());
+        stats.put("released", released.get());
+        stats.put("converted", converted.get());
+        stats.put("staleStockReads", staleStockReads.get());
+        return stats;
+    }
+
+    private void convert(Long consumerId, List<Long> productIds) {
+        int count = 0;
+        synchronized (lock) {
+            Map<Long, Hold> holds = holdsByConsumer.get(consumerId);
+            if (holds == null) {
+                return;
+            }
+            for (Long productId : productIds) {
+                Hold hold = holds.get(productId);
+                if (hold != null) {
+                    wheel.cancel(hold.timeout);
+                    drop(hold);
+                    count++;
+                }
+            }
+        }
+        converted.addAndGet(count);
+    }
+
+    // Caller holds the lock; the hold's timeout has fired or been cancelled
+    private void drop(Hold hold) {
+        Map<Long, Hold> holds = holdsByConsumer.get(hold.consumerId);
+        if (holds != null && holds.get(hold.productId) == hold) {
+            holds.remove(hold.productId);
+            if (holds.isEmpty()) {
+                holdsByConsumer.remove(hold.consumerId);
+            }
+        }
+        AtomicInteger held = heldByProduct.get(hold.productId);
+        if (held != null && held.addAndGet(-hold.quantity) == 0) {
+            heldByProduct.remove(hold.productId, held);
+        }
+    }
+
+    private Integer currentStock(Long productId) {
+        Integer available = stockReservationEngine.isEnabled() ? stockReservationEngine.available(productId) : null;
+        return available != null ? available : productBatchRepository.findQuantities(List.of(productId)).get(productId);
+    }
+
+    private static int stripe(Long productId) {
+        return Long.hashCode(productId) & (TAKE_STRIPES - 1);
+    }
+
+    private void expireQuietly() {
+        try {
+            expireDue(System.currentTimeMillis());
+        } catch (RuntimeException e) {
+            logger.error("Cart hold expiry failed: {}", e.getMessage());
+        }
+    }
+
+    private static LocalDateTime toLocalDateTime(long epochMillis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneId.systemDefault());
+    }
+}
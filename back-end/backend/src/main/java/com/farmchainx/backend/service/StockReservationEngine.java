@@ -0,0 +1,260 @@
+package com.farmchainx.backend.service;
+
+import com.farmchainx.backend.event.ProductChangeEvent;
+import com.farmchainx.backend.repository.ProductBatchRepository;
+import com.farmchainx.backend.util.StripedStockCounter;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory stock reservation for hot products (opt-in with app.stock.reservation.enabled).
+ *
+ * Each product touched by an order gets a {@link StripedStockCounter} loaded from
+ * products.quantity. Orders reserve against the counters with CAS only, so buyers of the
+ * same product never queue on a row lock; the units taken are written back to MySQL by a
+ * background flusher as one batched UPDATE per interval. Reservations made inside a
+ * transaction are released again if it rolls back.
+ *
+ * Counters are dropped when a product is edited, deleted or bulk-patched, and reloaded on
+ * the next order from the database minus whatever has not been flushed yet. Units reserved
+ * but not yet flushed are lost on a hard crash (the database then shows more stock than
+ * was sold); the flush on shutdown covers normal restarts.
+ */
+@Service
+public class StockReservationEngine {
+
+    private static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(StockReservationEngine.class);
+
+    @Autowired
+    private ProductBatchRepository productBatchRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${app.stock.reservation.enabled:false}")
+    private boolean enabled;
+
+    @Value("${app.stock.stripes:0}")
+    private int configuredStripes;
+
+    @Value("${app.stock.flush-ms:200}")
+    private long flushMillis;
+
+    private static final class ProductStock {
+        final StripedStockCounter counter;
+        final Long distributorId;
+
+        ProductStock(StripedStockCounter counter, Long distributorId) {
+            this.counter = counter;
+            this.distributorId = distributorId;
+        }
+    }
+
+    private final Map<Long, ProductStock> stocks = new ConcurrentHashMap<>();
+    // Units reserved but not yet written to products.quantity
+    private final Map<Long, AtomicInteger> unflushed = new ConcurrentHashMap<>();
+    // Flushing holds the write lock so a counter is never loaded between "drained" and "written"
+    private final ReentrantReadWriteLock flushLock = new ReentrantReadWriteLock();
+
+    private ScheduledExecutorService flusher;
+    private int stripes;
+
+    // Metrics
+    private final AtomicLong reservations = new AtomicLong();
+    private final AtomicLong rejections = new AtomicLong();
+    private final AtomicLong releases = new AtomicLong();
+    private final AtomicLong flushes = new AtomicLong();
+    private final AtomicLong rowsFlushed = new AtomicLong();
+
+    @PostConstruct
+    void start() {
+        if (!enabled) {
+            return;
+        }
+        stripes = configuredStripes > 0 ? Integer.highestOneBit(configuredStripes) : StripedStockCounter.defaultStripes();
+        flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "stock-write-back");
+            thread.setDaemon(true);
+            return thread;
+        });
+        flusher.scheduleWithFixedDelay(this::flushQuietly, flushMillis, flushMillis, TimeUnit.MILLISECONDS);
+        logger.info("Stock reservation engine enabled with {} stripes, flushing every {} ms", stripes, flushMillis);
+    }
+
+    @PreDestroy
+    void stop() {
+        if (flusher != null) {
+            flusher.shutdown();
+            flushQuietly();
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Reserves every quantity or none. Inside a transaction the reservation is handed back
+     * automatically if the transaction rolls back.
+     *
+     * @param quantitiesByProductId units wanted per product
+     * @param distributorIds        owning distributor per product, used to drop counters on bulk edits
+     * @return the id of the first product that could not be reserved, or null on success
+     */
+    public Long reserve(Map<Long, Integer> quantitiesByProductId, Map<Long, Long> distributorIds) {
+        Map<Long, Integer> reserved = new LinkedHashMap<>();
+        for (Map.Entry<Long, Integer> entry : quantitiesByProductId.entrySet()) {
+            ProductStock stock = stockFor(entry.getKey(), distributorIds.get(entry.getKey()));
+            if (stock == null || !stock.counter.tryReserve(entry.getValue())) {
+                release(reserved);
+                rejections.incrementAndGet();
+                return entry.getKey();
+            }
+            reserved.put(entry.getKey(), entry.getValue());
+        }
+        for (Map.Entry<Long, Integer> entry : reserved.entrySet()) {
+            unflushed.computeIfAbsent(entry.getKey(), id -> new AtomicInteger()).addAndGet(entry.getValue());
+        }
+        reservations.incrementAndGet();
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        for (Map.Entry<Long, Integer> entry : reserved.entrySet()) {
+                            unflushed.get(entry.getKey()).addAndGet(-entry.getValue());
+                        }
+                        release(reserved);
+                    }
+                }
+            });
+        }
+        return null;
+    }
+
+    /** Units currently reservable, for stock-changed events; null when the product has no counter. */
+    public Integer available(Long productId) {
+        ProductStock stock = stocks.get(productId);
+        return stock == null ? null : (int) stock.counter.available();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangeEvent event) {
+        switch (event.getType()) {
+            case UPDATED:
+            case DELETED:
+                stocks.remove(event.getProductId());
+                break;
+            case BULK_CHANGED:
+                stocks.values().removeIf(stock -> stock.distributorId != null
+                        && stock.distributorId.equals(event.getDistributorId()));
+                break;
+            default:
+                break;
+        }
+    }
+
+    /** Writes all unflushed reservations back to products.quantity in one batch. */
+    public int flush() {
+        flushLock.writeLock().lock();
+        try {
+            Map<Long, Integer> deltas = new HashMap<>();
+            for (Map.Entry<Long, AtomicInteger> entry : unflushed.entrySet()) {
+                int delta = entry.getValue().getAndSet(0);
+                if (delta != 0) {
+                    deltas.put(entry.getKey(), delta);
+                }
+            }
+            if (deltas.isEmpty()) {
+                return 0;
+            }
+            try {
+                transactionTemplate.executeWithoutResult(status -> productBatchRepository.applyStockDeltas(deltas));
+            } catch (RuntimeException e) {
+                // Put the deltas back so the next flush retries them
+                deltas.forEach((id, delta) -> unflushed.get(id).addAndGet(delta));
+                throw e;
+            }
+            flushes.incrementAndGet();
+            rowsFlushed.addAndGet(deltas.size());
+            return deltas.size();
+        } finally {
+            flushLock.writeLock().unlock();
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("stripes", stripes);
+        stats.put("trackedProducts", stocks.size());
+        stats.put("reservations", reservations.get());
+        stats.put("rejections", rejections.get());
+        stats.put("releases", releases.get());
+        stats.put("flushes", flushes.get());
+        stats.put("rowsFlushed", rowsFlushed.get());
+        stats.put("unflushedUnits", unflushed.values().stream().mapToInt(AtomicInteger::get).sum());
+        return stats;
+    }
+
+    private ProductStock stockFor(Long productId, Long distributorId) {
+        ProductStock stock = stocks.get(productId);
+        if (stock != null) {
+            return stock;
+        }
+        flushLock.readLock().lock();
+        try {
+            return stocks.computeIfAbsent(productId, id -> {
+                Integer quantity = productBatchRepository.findQuantities(List.of(id)).get(id);
+                if (quantity == null) {
+                    return null;
+                }
+                AtomicInteger pending = unflushed.get(id);
+                long available = Math.max(0, quantity - (pending == null ? 0 : pending.get()));
+                return new ProductStock(new StripedStockCounter(available, stripes), distributorId);
+            });
+        } finally {
+            flushLock.readLock().unlock();
+        }
+    }
+
+    private void release(Map<Long, Integer> reserved) {
+        for (Map.Entry<Long, Integer> entry : reserved.entrySet()) {
+            ProductStock stock = stocks.get(entry.getKey());
+            if (stock != null) {
+                stock.counter.release(entry.getValue());
+            }
+        }
+        if (!reserved.isEmpty()) {
+            releases.incrementAndGet();
+        }
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            logger.error("Stock write-back failed, will retry: {}", e.getMessage());
+        }
+    }
+}
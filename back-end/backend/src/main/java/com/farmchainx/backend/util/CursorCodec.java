@@ -0,0 +1,51 @@
+package com.farmchainx.backend.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Encodes keyset pagination positions as opaque, URL-safe cursor strings.
+ * A cursor carries the sort it was issued for, so it cannot be replayed
+ * against a different ordering.
+ */
+public final class CursorCodec {
+
+    private static final String VERSION = "v1";
+    private static final String SEPARATOR = "|";
+
+    private CursorCodec() {}
+
+    public static String encode(String sort, String... values) {
+        StringBuilder raw = new StringBuilder(VERSION).append(SEPARATOR).append(sort);
+        for (String value : values) {
+            raw.append(SEPARATOR).append(value);
+        }
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(raw.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Returns the values stored in the cursor, in the order they were encoded.
+     * The last value may itself contain the separator (e.g. a product name).
+     */
+    public static String[] decode(String cursor, String expectedSort, int valueCount) {
+        String raw;
+        try {
+            raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+
+        String[] parts = raw.split("\\" + SEPARATOR, valueCount + 2);
+        if (parts.length != valueCount + 2 || !VERSION.equals(parts[0])) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        if (!parts[1].equals(expectedSort)) {
+            throw new IllegalArgumentException("Cursor was issued for sort '" + parts[1] + "', not '" + expectedSort + "'");
+        }
+
+        String[] values = new String[valueCount];
+        System.arraycopy(parts, 2, values, 0, valueCount);
+        return values;
+    }
+}
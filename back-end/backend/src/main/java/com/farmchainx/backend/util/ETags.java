@@ -0,0 +1,36 @@
+package com.farmchainx.backend.util;
+
+/**
+ * Helpers for strong entity tags and If-None-Match handling.
+ */
+public final class ETags {
+
+    private ETags() {}
+
+    public static String strong(String... parts) {
+        return "\"" + String.join("-", parts) + "\"";
+    }
+
+    /**
+     * True when the If-None-Match header names the given tag (or is "*").
+     * Weak validators are compared by their opaque value, as RFC 9110 allows for If-None-Match.
+     */
+    public static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null || ifNoneMatch.isBlank()) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*")) {
+                return true;
+            }
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,329 @@
+package com.farmchainx.backend.util;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Bitmap-per-value facet index over the available catalog.
+ *
+ * Every product occupies a slot; each facet value (a category, a unit, a distributor,
+ * a price bucket) owns a BitSet of the slots that carry it. Filtering ANDs the selected
+ * bitmaps together and facet counts are bitmap cardinalities, so neither touches the
+ * database. Counts for a facet ignore that facet's own selection, so the sidebar keeps
+ * showing the alternatives to what is already ticked. Matches are paged in product id
+ * order.
+ */
+public class FacetIndex {
+
+    public static final String CATEGORY = "category";
+    public static final String DISTRIBUTOR = "distributor";
+    public static final String UNIT = "unit";
+    public static final String PRICE = "price";
+
+    private static final double[] PRICE_BOUNDS = {0, 50, 100, 250, 500};
+    private static final String UNKNOWN = "Uncategorized";
+
+    public static final class Selection {
+        private Collection<String> categories;
+        private Collection<Long> distributorIds;
+        private Collection<String> units;
+        private Double minPrice;
+        private Double maxPrice;
+
+        public Selection categories(Collection<String> categories) { this.categories = categories; return this; }
+        public Selection distributorIds(Collection<Long> distributorIds) { this.distributorIds = distributorIds; return this; }
+        public Selection units(Collection<String> units) { this.units = units; return this; }
+        public Selection minPrice(Double minPrice) { this.minPrice = minPrice; return this; }
+        public Selection maxPrice(Double maxPrice) { this.maxPrice = maxPrice; return this; }
+    }
+
+    public static final class FacetCount {
+        private final String value;
+        private final String label;
+        private final int count;
+
+        FacetCount(String value, String label, int count) {
+            this.value = value;
+            this.label = label;
+            this.count = count;
+        }
+
+        public String getValue() { return value; }
+        public String getLabel() { return label; }
+        public int getCount() { return count; }
+    }
+
+    public static final class Result {
+        private final int total;
+        private final long[] ids;
+        private final Map<String, List<FacetCount>> facets;
+
+        Result(int total, long[] ids, Map<String, List<FacetCount>> facets) {
+            this.total = total;
+            this.ids = ids;
+            this.facets = facets;
+        }
+
+        public int getTotal() { return total; }
+        public long[] getIds() { return ids; }
+        public Map<String, List<FacetCount>> getFacets() { return facets; }
+    }
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<Long, Integer> slotsById = new HashMap<>();
+    private final Deque<Integer> freeSlots = new ArrayDeque<>();
+    private final BitSet live = new BitSet();
+    private long[] ids = new long[1024];
+    private double[] prices = new double[1024];
+    private String[] categories = new String[1024];
+    private String[] units = new String[1024];
+    private long[] distributors = new long[1024];
+    private int maxSlot;
+
+    private final Map<String, BitSet> byCategory = new TreeMap<>();
+    private final Map<String, BitSet> byUnit = new TreeMap<>();
+    private final Map<Long, BitSet> byDistributor = new HashMap<>();
+    private final Map<Long, String> distributorNames = new HashMap<>();
+    private final BitSet[] byPriceBucket = new BitSet[PRICE_BOUNDS.length];
+
+    public FacetIndex() {
+        for (int i = 0; i < byPriceBucket.length; i++) {
+            byPriceBucket[i] = new BitSet();
+        }
+    }
+
+    public void put(long id, String category, String unit, long distributorId, String distributorName, double price) {
+        lock.writeLock().lock();
+        try {
+            removeInternal(id);
+            int slot = allocateSlot();
+            slotsById.put(id, slot);
+            ids[slot] = id;
+            prices[slot] = price;
+            categories[slot] = normalize(category);
+            units[slot] = normalize(unit);
+            distributors[slot] = distributorId;
+            if (distributorName != null) {
+                distributorNames.put(distributorId, distributorName);
+            }
+
+            live.set(slot);
+            byCategory.computeIfAbsent(categories[slot], key -> new BitSet()).set(slot);
+            byUnit.computeIfAbsent(units[slot], key -> new BitSet()).set(slot);
+            byDistributor.computeIfAbsent(distributorId, key -> new BitSet()).set(slot);
+            byPriceBucket[priceBucket(price)].set(slot);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long id) {
+        lock.writeLock().lock();
+        try {
+            removeInternal(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return slotsById.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public Result query(Selection selection, int offset, int limit) {
+        lock.readLock().lock();
+        try {
+            BitSet categoryMask = unionOf(byCategory, selection.categories);
+            BitSet unitMask = unionOf(byUnit, selection.units);
+            BitSet distributorMask = unionOf(byDistributor, selection.distributorIds);
+            BitSet priceMask = priceRange(selection.minPrice, selection.maxPrice);
+
+            BitSet matches = intersect(live, categoryMask, unitMask, distributorMask, priceMask);
+
+            Map<String, List<FacetCount>> facets = new LinkedHashMap<>();
+            facets.put(CATEGORY, countStrings(byCategory,
+                    intersect(live, unitMask, distributorMask, priceMask)));
+            facets.put(DISTRIBUTOR, countDistributors(
+                    intersect(live, categoryMask, unitMask, priceMask)));
+            facets.put(UNIT, countStrings(byUnit,
+                    intersect(live, categoryMask, distributorMask, priceMask)));
+            facets.put(PRICE, countPriceBuckets(
+                    intersect(live, categoryMask, unitMask, distributorMask)));
+
+            // Slots are reused, so slot order is not stable across updates; pages go by product id
+            int total = matches.cardinality();
+            long[] matched = new long[total];
+            int found = 0;
+            for (int slot = matches.nextSetBit(0); slot >= 0; slot = matches.nextSetBit(slot + 1)) {
+                matched[found++] = ids[slot];
+            }
+            Arrays.sort(matched);
+            int from = Math.min(Math.max(0, offset), total);
+            long[] page = Arrays.copyOfRange(matched, from, Math.min(total, from + Math.max(0, limit)));
+            return new Result(total, page, facets);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private <K> BitSet unionOf(Map<K, BitSet> values, Collection<K> selected) {
+        if (selected == null || selected.isEmpty()) {
+            return null;
+        }
+        BitSet union = new BitSet();
+        for (K value : selected) {
+            BitSet bits = values.get(value);
+            if (bits != null) {
+                union.or(bits);
+            }
+        }
+        return union;
+    }
+
+    private BitSet priceRange(Double min, Double max) {
+        if (min == null && max == null) {
+            return null;
+        }
+        double low = min != null ? min : Double.NEGATIVE_INFINITY;
+        double high = max != null ? max : Double.POSITIVE_INFINITY;
+        BitSet range = new BitSet(maxSlot);
+        for (int slot = live.nextSetBit(0); slot >= 0; slot = live.nextSetBit(slot + 1)) {
+            if (prices[slot] >= low && prices[slot] <= high) {
+                range.set(slot);
+            }
+        }
+        return range;
+    }
+
+    private static BitSet intersect(BitSet base, BitSet... masks) {
+        BitSet result = (BitSet) base.clone();
+        for (BitSet mask : masks) {
+            if (mask != null) {
+                result.and(mask);
+            }
+        }
+        return result;
+    }
+
+    private static int countWithin(BitSet bits, BitSet scope) {
+        BitSet overlap = (BitSet) bits.clone();
+        overlap.and(scope);
+        return overlap.cardinality();
+    }
+
+    private List<FacetCount> countStrings(Map<String, BitSet> values, BitSet scope) {
+        List<FacetCount> counts = new ArrayList<>();
+        for (Map.Entry<String, BitSet> entry : values.entrySet()) {
+            int count = countWithin(entry.getValue(), scope);
+            if (count > 0) {
+                counts.add(new FacetCount(entry.getKey(), entry.getKey(), count));
+            }
+        }
+        counts.sort((a, b) -> Integer.compare(b.count, a.count));
+        return counts;
+    }
+
+    private List<FacetCount> countDistributors(BitSet scope) {
+        List<FacetCount> counts = new ArrayList<>();
+        for (Map.Entry<Long, BitSet> entry : byDistributor.entrySet()) {
+            int count = countWithin(entry.getValue(), scope);
+            if (count > 0) {
+                String name = distributorNames.getOrDefault(entry.getKey(), "Distributor " + entry.getKey());
+                counts.add(new FacetCount(entry.getKey().toString(), name, count));
+            }
+        }
+        counts.sort((a, b) -> Integer.compare(b.count, a.count));
+        return counts;
+    }
+
+    private List<FacetCount> countPriceBuckets(BitSet scope) {
+        List<FacetCount> counts = new ArrayList<>();
+        for (int bucket = 0; bucket < byPriceBucket.length; bucket++) {
+            int count = countWithin(byPriceBucket[bucket], scope);
+            if (count > 0) {
+                counts.add(new FacetCount(priceBucketValue(bucket), priceBucketLabel(bucket), count));
+            }
+        }
+        return counts;
+    }
+
+    private static int priceBucket(double price) {
+        for (int bucket = PRICE_BOUNDS.length - 1; bucket > 0; bucket--) {
+            if (price >= PRICE_BOUNDS[bucket]) {
+                return bucket;
+            }
+        }
+        return 0;
+    }
+
+    private static String priceBucketValue(int bucket) {
+        long low = (long) PRICE_BOUNDS[bucket];
+        return bucket == PRICE_BOUNDS.length - 1 ? low + "-" : low + "-" + (long) PRICE_BOUNDS[bucket + 1];
+    }
+
+    private static String priceBucketLabel(int bucket) {
+        long low = (long) PRICE_BOUNDS[bucket];
+        return bucket == PRICE_BOUNDS.length - 1 ? "₹" + low + "+" : "₹" + low + "–" + (long) PRICE_BOUNDS[bucket + 1];
+    }
+
+    private static String normalize(String value) {
+        return value == null || value.isBlank() ? UNKNOWN : value.trim();
+    }
+
+    private int allocateSlot() {
+        Integer free = freeSlots.poll();
+        if (free != null) {
+            return free;
+        }
+        if (maxSlot == ids.length) {
+            int capacity = ids.length * 2;
+            ids = Arrays.copyOf(ids, capacity);
+            prices = Arrays.copyOf(prices, capacity);
+            categories = Arrays.copyOf(categories, capacity);
+            units = Arrays.copyOf(units, capacity);
+            distributors = Arrays.copyOf(distributors, capacity);
+        }
+        return maxSlot++;
+    }
+
+    private void removeInternal(long id) {
+        Integer slot = slotsById.remove(id);
+        if (slot == null) {
+            return;
+        }
+        live.clear(slot);
+        clearValue(byCategory, categories[slot], slot);
+        clearValue(byUnit, units[slot], slot);
+        clearValue(byDistributor, distributors[slot], slot);
+        byPriceBucket[priceBucket(prices[slot])].clear(slot);
+        categories[slot] = null;
+        units[slot] = null;
+        freeSlots.push(slot);
+    }
+
+    private static <K> void clearValue(Map<K, BitSet> values, K key, int slot) {
+        BitSet bits = values.get(key);
+        if (bits != null) {
+            bits.clear(slot);
+            if (bits.isEmpty()) {
+                values.remove(key);
+            }
+        }
+    }
+}
@@ -0,0 +1,201 @@
+package com.farmchainx.backend.util;
+
+import java.util.function.Consumer;
+
+/**
+ * Hierarchical timing wheel for large numbers of short-lived deadlines.
+ *
+ * Level 0 has one bucket per tick; every level above covers {@code wheelSize} times the
+ * span of the one below. A timeout goes into the lowest level whose buckets can still tell
+ * its deadline apart from "now", so scheduling and cancelling are O(1) (an append to or an
+ * unlink from a doubly linked bucket). When the low wheel completes a turn, the current
+ * bucket of the next level is cascaded down; each timeout is moved at most once per level
+ * before it fires. Deadlines beyond the top level's range are parked in its farthest bucket
+ * and re-placed when that bucket cascades.
+ *
+ * Timeouts fire on the first tick at or after their deadline, never early. Not thread-safe:
+ * callers serialize {@link #schedule}, {@link #cancel} and {@link #advance}.
+ */
+public class HierarchicalTimingWheel<T> {
+
+    public static final class Timeout<T> {
+        private final T value;
+        private final long deadlineMillis;
+        private final long expireTick;
+        private Bucket<T> bucket;
+        private Timeout<T> prev;
+        private Timeout<T> next;
+
+        private Timeout(T value, long deadlineMillis, long expireTick) {
+            this.value = value;
+            this.deadlineMillis = deadlineMillis;
+            this.expireTick = expireTick;
+        }
+
+        public T getValue() { return value; }
+
+        public long getDeadlineMillis() { return deadlineMillis; }
+
+        /** True until the timeout fires or is cancelled. */
+        public boolean isPending() { return bucket != null; }
+    }
+
+    private static final class Bucket<T> {
+        private Timeout<T> head;
+
+        void add(Timeout<T> timeout) {
+            timeout.bucket = this;
+            timeout.prev = null;
+            timeout.next = head;
+            if (head != null) {
+                head.prev = timeout;
+            }
+            head = timeout;
+        }
+
+        void remove(Timeout<T> timeout) {
+            if (timeout.prev != null) {
+                timeout.prev.next = timeout.next;
+            } else {
+                head = timeout.next;
+            }
+            if (timeout.next != null) {
+                timeout.next.prev = timeout.prev;
+            }
+            timeout.bucket = null;
+            timeout.prev = null;
+            timeout.next = null;
+        }
+
+        // Empties the bucket and returns its former chain
+        Timeout<T> drain() {
+            Timeout<T> chain = head;
+            head = null;
+            return chain;
+        }
+    }
+
+    private final long tickMillis;
+    private final int wheelSize;
+    private final int bits;
+    private final long mask;
+    private final Bucket<T>[][] wheels;
+    private long currentTick;
+    private int size;
+
+    public HierarchicalTimingWheel(long tickMillis, int wheelSize, int levels, long startMillis) {
+        if (tickMillis < 1) {
+            throw new IllegalArgumentException("tickMillis must be positive");
+        }
+        if (wheelSize < 2 || Integer.bitCount(wheelSize) != 1) {
+            throw new IllegalArgumentException("wheelSize must be a power of two");
+        }
+        if (levels < 1 || (long) Integer.numberOfTrailingZeros(wheelSize) * levels > 62) {
+            throw new IllegalArgumentException("levels out of range");
+        }
+        this.tickMillis = tickMillis;
+        this.wheelSize = wheelSize;
+        this.bits = Integer.numberOfTrailingZeros(wheelSize);
+        this.mask = wheelSize - 1;
+        @SuppressWarnings("unchecked")
+        Bucket<T>[][] buckets = (Bucket<T>[][]) new Bucket<?>[levels][wheelSize];
+        for (Bucket<T>[] wheel : buckets) {
+            for (int slot = 0; slot < wheelSize; slot++) {
+                wheel[slot] = new Bucket<>();
+            }
+        }
+        this.wheels = buckets;
+        this.currentTick = startMillis / tickMillis;
+    }
+
+    /** Schedules {@code value} to fire at {@code deadlineMillis}; a past deadline fires on the next tick. */
+    public Timeout<T> schedule(T value, long deadlineMillis) {
+        // Round up so a timeout never fires before its deadline
+        long expireTick = Math.floorDiv(deadlineMillis, tickMillis) + (Math.floorMod(deadlineMillis, tickMillis) == 0 ? 0 : 1);
+        Timeout<T> timeout = new Timeout<>(value, deadlineMillis, expireTick);
+        place(timeout, currentTick + 1);
+        size++;
+        return timeout;
+    }
+
+    /** @return false if the timeout already fired or was cancelled */
+    public boolean cancel(Timeout<T> timeout) {
+        if (timeout.bucket == null) {
+            return false;
+        }
+        timeout.bucket.remove(timeout);
+        size--;
+        return true;
+    }
+
+    /**
+     * Moves the wheel forward to {@code nowMillis} and hands every timeout that came due to
+     * {@code onExpired}, in tick order.
+     *
+     * @return number of timeouts fired
+     */
+    public int advance(long nowMillis, Consumer<T> onExpired) {
+        long targetTick = nowMillis / tickMillis;
+        int fired = 0;
+        while (currentTick < targetTick) {
+            if (size == 0) {
+                currentTick = targetTick;
+                break;
+            }
+            currentTick++;
+            // Pull the buckets that start at this tick down from the upper levels first
+            for (int level = wheels.length - 1; level >= 1; level--) {
+                int shift = bits * level;
+                if ((currentTick & ((1L << shift) - 1)) == 0) {
+                    Timeout<T> timeout = wheels[level][(int) ((currentTick >>> shift) & mask)].drain();
+                    while (timeout != null) {
+                        Timeout<T> next = timeout.next;
+                        // Due at this very tick: into the level 0 bucket drained below
+                        place(timeout, currentTick);
+                        timeout = next;
+                    }
+                }
+            }
+            Timeout<T> timeout = wheels[0][(int) (currentTick & mask)].drain();
+            while (timeout != null) {
+                Timeout<T> next = timeout.next;
+                timeout.bucket = null;
+                timeout.prev = null;
+                timeout.next = null;
+                if (timeout.expireTick <= currentTick) {
+                    size--;
+                    fired++;
+                    onExpired.accept(timeout.value);
+                } else {
+                    place(timeout, currentTick + 1);
+                }
+                timeout = next;
+            }
+        }
+        return fired;
+    }
+
+    /** Timeouts scheduled and not yet fired or cancelled. */
+    public int size() {
+        return size;
+    }
+
+    public long getTickMillis() {
+        return tickMillis;
+    }
+
+    // earliestTick is the first tick whose level 0 bucket will still be drained
+    private void place(Timeout<T> timeout, long earliestTick) {
+        long expire = Math.max(timeout.expireTick, earliestTick);
+        for (int level = 0; level < wheels.length; level++) {
+            int shift = bits * level;
+            if ((expire >>> shift) - (currentTick >>> shift) < wheelSize) {
+                wheels[level][(int) ((expire >>> shift) & mask)].add(timeout);
+                return;
+            }
+        }
+        // Beyond the top level: park in its farthest bucket until that bucket cascades
+        int shift = bits * (wheels.length - 1);
+        wheels[wheels.length - 1][(int) (((currentTick >>> shift) + wheelSize - 1) & mask)].add(timeout);
+    }
+}
@@ -0,0 +1,380 @@
+package com.farmchainx.backend.util;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory inverted index over short weighted text fields, ranked with BM25.
+ *
+ * Postings are sorted int arrays of internal document numbers. Query terms match
+ * exactly, by prefix, or within one edit (insert, delete, substitute or swap of two
+ * adjacent characters); inexact matches are scored lower than exact ones.
+ * Safe for concurrent readers with a single writer at a time.
+ */
+public class InvertedIndex {
+
+    private static final float K1 = 1.2f;
+    private static final float B = 0.75f;
+    private static final float PREFIX_WEIGHT = 0.7f;
+    private static final float FUZZY_WEIGHT = 0.5f;
+    private static final int MAX_EXPANSIONS = 64;
+    private static final int MIN_FUZZY_LENGTH = 4;
+
+    public static final class Hit {
+        private final long id;
+        private final float score;
+
+        Hit(long id, float score) {
+            this.id = id;
+            this.score = score;
+        }
+
+        public long getId() { return id; }
+        public float getScore() { return score; }
+    }
+
+    private static final class PostingList {
+        int[] docs = new int[4];
+        float[] freqs = new float[4];
+        int size;
+
+        void put(int doc, float freq) {
+            int pos = Arrays.binarySearch(docs, 0, size, doc);
+            if (pos >= 0) {
+                freqs[pos] = freq;
+                return;
+            }
+            pos = -pos - 1;
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+                freqs = Arrays.copyOf(freqs, size * 2);
+            }
+            System.arraycopy(docs, pos, docs, pos + 1, size - pos);
+            System.arraycopy(freqs, pos, freqs, pos + 1, size - pos);
+            docs[pos] = doc;
+            freqs[pos] = freq;
+            size++;
+        }
+
+        void remove(int doc) {
+            int pos = Arrays.binarySearch(docs, 0, size, doc);
+            if (pos < 0) {
+                return;
+            }
+            System.arraycopy(docs, pos + 1, docs, pos, size - pos - 1);
+            System.arraycopy(freqs, pos + 1, freqs, pos, size - pos - 1);
+            size--;
+        }
+    }
+
+    // A document's running total while a query is scored
+    private static final class Candidate {
+        final int doc;
+        float score;
+        int matched;
+
+        Candidate(int doc) {
+            this.doc = doc;
+        }
+    }
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final TreeMap<String, PostingList> dictionary = new TreeMap<>();
+    // Deletion neighbourhood: every term and each of its one-character deletions -> terms
+    private final Map<String, Set<String>> deletions = new HashMap<>();
+
+    private final Map<Long, Integer> docsById = new HashMap<>();
+    private long[] ids = new long[1024];
+    private float[] lengths = new float[1024];
+    private String[][] docTerms = new String[1024][];
+    private final Deque<Integer> freeDocs = new ArrayDeque<>();
+    private int maxDoc;
+    private double totalLength;
+
+    /**
+     * Adds or replaces a document. Each field is paired with a weight that scales
+     * its term frequencies (e.g. a name counts more than a description).
+     */
+    public void put(long id, String[] fields, float[] weights) {
+        Map<String, Float> freqs = new LinkedHashMap<>();
+        float length = 0;
+        for (int i = 0; i < fields.length; i++) {
+            for (String token : tokenize(fields[i])) {
+                freqs.merge(token, weights[i], Float::sum);
+                length += weights[i];
+            }
+        }
+
+        lock.writeLock().lock();
+        try {
+            removeInternal(id);
+            int doc = allocateDoc();
+            ids[doc] = id;
+            lengths[doc] = length;
+            docTerms[doc] = freqs.keySet().toArray(new String[0]);
+            docsById.put(id, doc);
+            totalLength += length;
+
+            for (Map.Entry<String, Float> entry : freqs.entrySet()) {
+                PostingList postings = dictionary.get(entry.getKey());
+                if (postings == null) {
+                    postings = new PostingList();
+                    dictionary.put(entry.getKey(), postings);
+                    addDeletions(entry.getKey());
+                }
+                postings.put(doc, entry.getValue());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long id) {
+        lock.writeLock().lock();
+        try {
+            removeInternal(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return docsById.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int termCount() {
+        lock.readLock().lock();
+        try {
+            return dictionary.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns up to {@code limit} documents ordered by how many query terms they match,
+     * then by BM25 score.
+     */
+    public List<Hit> search(String query, int limit) {
+        List<String> queryTerms = tokenize(query);
+        if (queryTerms.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            int docCount = docsById.size();
+            if (docCount == 0) {
+                return List.of();
+            }
+            float avgLength = (float) (totalLength / docCount);
+            // Only documents on a matched posting list are touched, so the cost follows the postings, not the catalog
+            Map<Integer, Candidate> candidates = new HashMap<>();
+
+            for (String queryTerm : queryTerms) {
+                Map<Integer, Float> termScores = new HashMap<>();
+                for (Map.Entry<String, Float> expansion : expand(queryTerm).entrySet()) {
+                    PostingList postings = dictionary.get(expansion.getKey());
+                    float idf = (float) Math.log(1 + (docCount - postings.size + 0.5) / (postings.size + 0.5));
+                    for (int i = 0; i < postings.size; i++) {
+                        int doc = postings.docs[i];
+                        float tf = postings.freqs[i];
+                        float norm = K1 * (1 - B + B * lengths[doc] / avgLength);
+                        float score = expansion.getValue() * idf * tf * (K1 + 1) / (tf + norm);
+                        // A query term counts once per document, through its best expansion
+                        termScores.merge(doc, score, Math::max);
+                    }
+                }
+                for (Map.Entry<Integer, Float> entry : termScores.entrySet()) {
+                    Candidate candidate = candidates.computeIfAbsent(entry.getKey(), Candidate::new);
+                    candidate.score += entry.getValue();
+                    candidate.matched++;
+                }
+            }
+
+            PriorityQueue<Candidate> top = new PriorityQueue<>(limit + 1, (x, y) -> {
+                int byMatched = Integer.compare(x.matched, y.matched);
+                return byMatched != 0 ? byMatched : Float.compare(x.score, y.score);
+            });
+            for (Candidate candidate : candidates.values()) {
+                top.add(candidate);
+                if (top.size() > limit) {
+                    top.poll();
+                }
+            }
+
+            Hit[] hits = new Hit[top.size()];
+            for (int i = hits.length - 1; i >= 0; i--) {
+                Candidate candidate = top.poll();
+                hits[i] = new Hit(ids[candidate.doc], candidate.score);
+            }
+            return Arrays.asList(hits);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Dictionary terms reachable from a query term, with the weight of the best way they matched
+    private Map<String, Float> expand(String queryTerm) {
+        Map<String, Float> expansions = new HashMap<>();
+        if (dictionary.containsKey(queryTerm)) {
+            expansions.put(queryTerm, 1.0f);
+        }
+
+        SortedMap<String, PostingList> prefixed = dictionary.subMap(queryTerm, queryTerm + Character.MAX_VALUE);
+        int taken = 0;
+        for (String term : prefixed.keySet()) {
+            if (taken++ >= MAX_EXPANSIONS) {
+                break;
+            }
+            expansions.putIfAbsent(term, PREFIX_WEIGHT);
+        }
+
+        if (queryTerm.length() >= MIN_FUZZY_LENGTH) {
+            Set<String> candidates = new HashSet<>();
+            for (String variant : deletionVariants(queryTerm)) {
+                Set<String> terms = deletions.get(variant);
+                if (terms != null) {
+                    candidates.addAll(terms);
+                }
+            }
+            for (String term : candidates) {
+                if (withinOneEdit(queryTerm, term)) {
+                    expansions.putIfAbsent(term, FUZZY_WEIGHT);
+                }
+            }
+        }
+        return expansions;
+    }
+
+    private int allocateDoc() {
+        Integer free = freeDocs.poll();
+        if (free != null) {
+            return free;
+        }
+        if (maxDoc == ids.length) {
+            int capacity = ids.length * 2;
+            ids = Arrays.copyOf(ids, capacity);
+            lengths = Arrays.copyOf(lengths, capacity);
+            docTerms = Arrays.copyOf(docTerms, capacity);
+        }
+        return maxDoc++;
+    }
+
+    private void removeInternal(long id) {
+        Integer doc = docsById.remove(id);
+        if (doc == null) {
+            return;
+        }
+        for (String term : docTerms[doc]) {
+            PostingList postings = dictionary.get(term);
+            postings.remove(doc);
+            if (postings.size == 0) {
+                dictionary.remove(term);
+                removeDeletions(term);
+            }
+        }
+        totalLength -= lengths[doc];
+        lengths[doc] = 0;
+        docTerms[doc] = null;
+        freeDocs.push(doc);
+    }
+
+    private void addDeletions(String term) {
+        if (term.length() < MIN_FUZZY_LENGTH - 1) {
+            return;
+        }
+        for (String variant : deletionVariants(term)) {
+            deletions.computeIfAbsent(variant, key -> new HashSet<>(2)).add(term);
+        }
+    }
+
+    private void removeDeletions(String term) {
+        for (String variant : deletionVariants(term)) {
+            Set<String> terms = deletions.get(variant);
+            if (terms != null) {
+                terms.remove(term);
+                if (terms.isEmpty()) {
+                    deletions.remove(variant);
+                }
+            }
+        }
+    }
+
+    private static List<String> deletionVariants(String term) {
+        List<String> variants = new ArrayList<>(term.length() + 1);
+        variants.add(term);
+        for (int i = 0; i < term.length(); i++) {
+            variants.add(term.substring(0, i) + term.substring(i + 1));
+        }
+        return variants;
+    }
+
+    static boolean withinOneEdit(String a, String b) {
+        int lengthDiff = a.length() - b.length();
+        if (Math.abs(lengthDiff) > 1) {
+            return false;
+        }
+        int i = 0;
+        while (i < a.length() && i < b.length() && a.charAt(i) == b.charAt(i)) {
+            i++;
+        }
+        if (lengthDiff == 0) {
+            if (i == a.length()) {
+                return true;
+            }
+            // Substitution
+            if (a.regionMatches(i + 1, b, i + 1, a.length() - i - 1)) {
+                return true;
+            }
+            // Adjacent transposition
+            return i + 1 < a.length()
+                    && a.charAt(i) == b.charAt(i + 1)
+                    && a.charAt(i + 1) == b.charAt(i)
+                    && a.regionMatches(i + 2, b, i + 2, a.length() - i - 2);
+        }
+        String longer = lengthDiff > 0 ? a : b;
+        String shorter = lengthDiff > 0 ? b : a;
+        return longer.regionMatches(i + 1, shorter, i, shorter.length() - i);
+    }
+
+    public static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null) {
+            return tokens;
+        }
+        String lower = text.toLowerCase(Locale.ROOT);
+        int start = -1;
+        for (int i = 0; i <= lower.length(); i++) {
+            boolean wordChar = i < lower.length() && Character.isLetterOrDigit(lower.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                if (i - start > 1) {
+                    tokens.add(lower.substring(start, i));
+                }
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+}
@@ -0,0 +1,314 @@
+package com.farmchainx.backend.util;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Price-ordered index of the available catalog kept in parallel primitive arrays
+ * (ids, prices, category ordinals) sorted by (price, id).
+ *
+ * Readers work on an immutable snapshot taken with one volatile read and never allocate
+ * per product: queries return plain long[] id slices. Writers are serialized and publish
+ * a new copy of the arrays (copy-on-write), which suits a catalog that is read far more
+ * often than it changes. A fresh index can be bulk-loaded with {@link #put} and then
+ * sorted once with {@link #seal()}.
+ */
+public class PriceIndex {
+
+    private static final long[] NO_IDS = new long[0];
+    private static final String UNKNOWN_CATEGORY = "Uncategorized";
+
+    private static final class Snapshot {
+        final long[] ids;
+        final double[] prices;
+        final int[] categories;
+
+        Snapshot(long[] ids, double[] prices, int[] categories) {
+            this.ids = ids;
+            this.prices = prices;
+            this.categories = categories;
+        }
+    }
+
+    private volatile Snapshot snapshot = new Snapshot(NO_IDS, new double[0], new int[0]);
+
+    private final Map<String, Integer> categoryOrdinals = new ConcurrentHashMap<>();
+    // Writer-side lookup so an entry can be found by binary search on (price, id)
+    private final Map<Long, Double> pricesById = new HashMap<>();
+
+    // Bulk-load buffers, used until seal()
+    private boolean sealed;
+    private long[] loadIds = new long[1024];
+    private double[] loadPrices = new double[1024];
+    private int[] loadCategories = new int[1024];
+    private int loadSize;
+
+    public synchronized void put(long id, double price, String category) {
+        int ordinal = ordinalFor(category);
+        if (!sealed) {
+            if (loadSize == loadIds.length) {
+                loadIds = Arrays.copyOf(loadIds, loadSize * 2);
+                loadPrices = Arrays.copyOf(loadPrices, loadSize * 2);
+                loadCategories = Arrays.copyOf(loadCategories, loadSize * 2);
+            }
+            loadIds[loadSize] = id;
+            loadPrices[loadSize] = price;
+            loadCategories[loadSize] = ordinal;
+            loadSize++;
+            pricesById.put(id, price);
+            return;
+        }
+
+        Snapshot current = removeFrom(snapshot, id);
+        int size = current.ids.length;
+        int pos = -search(current, price, id) - 1;
+
+        long[] ids = new long[size + 1];
+        double[] prices = new double[size + 1];
+        int[] categories = new int[size + 1];
+        System.arraycopy(current.ids, 0, ids, 0, pos);
+        System.arraycopy(current.prices, 0, prices, 0, pos);
+        System.arraycopy(current.categories, 0, categories, 0, pos);
+        ids[pos] = id;
+        prices[pos] = price;
+        categories[pos] = ordinal;
+        System.arraycopy(current.ids, pos, ids, pos + 1, size - pos);
+        System.arraycopy(current.prices, pos, prices, pos + 1, size - pos);
+        System.arraycopy(current.categories, pos, categories, pos + 1, size - pos);
+
+        pricesById.put(id, price);
+        snapshot = new Snapshot(ids, prices, categories);
+    }
+
+    public synchronized void remove(long id) {
+        if (!sealed) {
+            // Dropped when the buffers are sealed
+            pricesById.remove(id);
+            return;
+        }
+        Snapshot current = snapshot;
+        Snapshot updated = removeFrom(current, id);
+        if (updated != current) {
+            snapshot = updated;
+        }
+    }
+
+    /**
+     * Sorts the bulk-loaded entries and publishes them. Later puts and removes
+     * maintain the sorted order incrementally.
+     */
+    public synchronized void seal() {
+        if (sealed) {
+            return;
+        }
+        // Keep only the last put of each id that was not removed afterwards
+        long[] ids = new long[pricesById.size()];
+        double[] prices = new double[ids.length];
+        int[] categories = new int[ids.length];
+        Set<Long> seen = new HashSet<>();
+        int size = 0;
+        for (int i = loadSize - 1; i >= 0; i--) {
+            long id = loadIds[i];
+            if (pricesById.containsKey(id) && seen.add(id)) {
+                ids[size] = id;
+                prices[size] = loadPrices[i];
+                categories[size] = loadCategories[i];
+                size++;
+            }
+        }
+        sort(ids, prices, categories, 0, size - 1);
+
+        loadIds = null;
+        loadPrices = null;
+        loadCategories = null;
+        sealed = true;
+        snapshot = new Snapshot(ids, prices, categories);
+    }
+
+    public int size() {
+        return snapshot.ids.length;
+    }
+
+    /** Ids of the cheapest {@code limit} products in a category, cheapest first. */
+    public long[] cheapestInCategory(String category, int limit) {
+        Integer ordinal = categoryOrdinals.get(normalize(category));
+        if (ordinal == null || limit <= 0) {
+            return NO_IDS;
+        }
+        Snapshot current = snapshot;
+        long[] result = new long[Math.min(limit, current.ids.length)];
+        int found = 0;
+        for (int i = 0; i < current.ids.length && found < result.length; i++) {
+            if (current.categories[i] == ordinal) {
+                result[found++] = current.ids[i];
+            }
+        }
+        return found == result.length ? result : Arrays.copyOf(result, found);
+    }
+
+    /** Number of products priced within [min, max]. */
+    public int countBetween(double min, double max) {
+        Snapshot current = snapshot;
+        return Math.max(0, upperBound(current, max) - lowerBound(current, min));
+    }
+
+    /**
+     * One page of the products priced within [min, max], ordered by price (then id),
+     * ascending or descending.
+     */
+    public long[] between(double min, double max, int offset, int limit, boolean descending) {
+        Snapshot current = snapshot;
+        return slice(current, lowerBound(current, min), upperBound(current, max), offset, limit, descending);
+    }
+
+    /** One page of the whole catalog in price order. */
+    public long[] page(int offset, int limit, boolean descending) {
+        Snapshot current = snapshot;
+        return slice(current, 0, current.ids.length, offset, limit, descending);
+    }
+
+    private static long[] slice(Snapshot current, int from, int to, int offset, int limit, boolean descending) {
+        int available = to - from - offset;
+        if (available <= 0 || limit <= 0 || offset < 0) {
+            return NO_IDS;
+        }
+        int length = Math.min(limit, available);
+        if (!descending) {
+            return Arrays.copyOfRange(current.ids, from + offset, from + offset + length);
+        }
+        long[] result = new long[length];
+        for (int i = 0; i < length; i++) {
+            result[i] = current.ids[to - 1 - offset - i];
+        }
+        return result;
+    }
+
+    // First position whose price is >= min
+    private static int lowerBound(Snapshot current, double min) {
+        int low = 0;
+        int high = current.prices.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (current.prices[mid] < min) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    // First position whose price is > max
+    private static int upperBound(Snapshot current, double max) {
+        int low = 0;
+        int high = current.prices.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (current.prices[mid] <= max) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    // Binary search on (price, id); same contract as Arrays.binarySearch
+    private static int search(Snapshot current, double price, long id) {
+        int low = 0;
+        int high = current.ids.length - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int cmp = compare(current.prices[mid], current.ids[mid], price, id);
+            if (cmp < 0) {
+                low = mid + 1;
+            } else if (cmp > 0) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -(low + 1);
+    }
+
+    private Snapshot removeFrom(Snapshot current, long id) {
+        Double price = pricesById.remove(id);
+        if (price == null) {
+            return current;
+        }
+        int pos = search(current, price, id);
+        if (pos < 0) {
+            return current;
+        }
+        int size = current.ids.length;
+        long[] ids = new long[size - 1];
+        double[] prices = new double[size - 1];
+        int[] categories = new int[size - 1];
+        System.arraycopy(current.ids, 0, ids, 0, pos);
+        System.arraycopy(current.prices, 0, prices, 0, pos);
+        System.arraycopy(current.categories, 0, categories, 0, pos);
+        System.arraycopy(current.ids, pos + 1, ids, pos, size - pos - 1);
+        System.arraycopy(current.prices, pos + 1, prices, pos, size - pos - 1);
+        System.arraycopy(current.categories, pos + 1, categories, pos, size - pos - 1);
+        return new Snapshot(ids, prices, categories);
+    }
+
+    private int ordinalFor(String category) {
+        return categoryOrdinals.computeIfAbsent(normalize(category), key -> categoryOrdinals.size());
+    }
+
+    private static String normalize(String category) {
+        return category == null || category.isBlank() ? UNKNOWN_CATEGORY : category.trim();
+    }
+
+    private static int compare(double priceA, long idA, double priceB, long idB) {
+        int byPrice = Double.compare(priceA, priceB);
+        return byPrice != 0 ? byPrice : Long.compare(idA, idB);
+    }
+
+    // Quicksort of the three parallel arrays by (price, id)
+    private static void sort(long[] ids, double[] prices, int[] categories, int low, int high) {
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            double pivotPrice = prices[mid];
+            long pivotId = ids[mid];
+            int i = low;
+            int j = high;
+            while (i <= j) {
+                while (compare(prices[i], ids[i], pivotPrice, pivotId) < 0) {
+                    i++;
+                }
+                while (compare(prices[j], ids[j], pivotPrice, pivotId) > 0) {
+                    j--;
+                }
+                if (i <= j) {
+                    swap(ids, prices, categories, i++, j--);
+                }
+            }
+            // Recurse into the smaller side to bound stack depth
+            if (j - low < high - i) {
+                sort(ids, prices, categories, low, j);
+                low = i;
+            } else {
+                sort(ids, prices, categories, i, high);
+                high = j;
+            }
+        }
+    }
+
+    private static void swap(long[] ids, double[] prices, int[] categories, int a, int b) {
+        long id = ids[a];
+        ids[a] = ids[b];
+        ids[b] = id;
+        double price = prices[a];
+        prices[a] = prices[b];
+        prices[b] = price;
+        int category = categories[a];
+        categories[a] = categories[b];
+        categories[b] = category;
+    }
+}
@@ -0,0 +1,120 @@
+package com.farmchainx.backend.util;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Stock counter for one product split across several independently CAS-ed stripes.
+ *
+ * Each buyer thread has a home stripe and reserves from it with a single compare-and-set,
+ * so concurrent buyers of a hot product mostly touch different cache lines instead of
+ * all spinning on one word. When the home stripe runs short the reservation collects the
+ * rest from the other stripes; if the total is still not enough, everything collected is
+ * put back and the reservation fails. No stripe ever goes below zero, so the counter can
+ * never hand out more than it was given.
+ *
+ * A failed multi-stripe reservation holds the collected units for a moment, so a racing
+ * buyer can see a false "sold out" near the end of the stock, but never an oversell.
+ */
+public class StripedStockCounter {
+
+    // Stripes sit 8 longs (one 64-byte cache line) apart
+    private static final int PADDING = 8;
+
+    private final AtomicLongArray cells;
+    private final int stripes;
+
+    public StripedStockCounter(long initialStock, int stripes) {
+        if (stripes < 1 || Integer.bitCount(stripes) != 1) {
+            throw new IllegalArgumentException("stripes must be a power of two");
+        }
+        if (initialStock < 0) {
+            throw new IllegalArgumentException("initialStock must not be negative");
+        }
+        this.stripes = stripes;
+        this.cells = new AtomicLongArray(stripes * PADDING);
+        long share = initialStock / stripes;
+        long remainder = initialStock % stripes;
+        for (int i = 0; i < stripes; i++) {
+            cells.set(i * PADDING, share + (i < remainder ? 1 : 0));
+        }
+    }
+
+    /** Takes {@code quantity} units, all or nothing. */
+    public boolean tryReserve(long quantity) {
+        if (quantity <= 0) {
+            throw new IllegalArgumentException("quantity must be positive");
+        }
+        int home = homeStripe();
+
+        // Fast path: the whole quantity from the home stripe
+        long available = cells.get(cell(home));
+        while (available >= quantity) {
+            if (cells.compareAndSet(cell(home), available, available - quantity)) {
+                return true;
+            }
+            available = cells.get(cell(home));
+        }
+
+        // Slow path: collect from every stripe, starting at home
+        long[] taken = new long[stripes];
+        long collected = 0;
+        for (int step = 0; step < stripes && collected < quantity; step++) {
+            int stripe = (home + step) & (stripes - 1);
+            long current = cells.get(cell(stripe));
+            while (current > 0) {
+                long take = Math.min(current, quantity - collected);
+                if (cells.compareAndSet(cell(stripe), current, current - take)) {
+                    taken[stripe] = take;
+                    collected += take;
+                    break;
+                }
+                current = cells.get(cell(stripe));
+            }
+        }
+        if (collected == quantity) {
+            return true;
+        }
+        for (int stripe = 0; stripe < stripes; stripe++) {
+            if (taken[stripe] > 0) {
+                cells.addAndGet(cell(stripe), taken[stripe]);
+            }
+        }
+        return false;
+    }
+
+    /** Returns units, e.g. from a reservation whose order rolled back. */
+    public void release(long quantity) {
+        if (quantity < 0) {
+            throw new IllegalArgumentException("quantity must not be negative");
+        }
+        cells.addAndGet(cell(homeStripe()), quantity);
+    }
+
+    /** Sum of all stripes; exact only when no reservation is in flight. */
+    public long available() {
+        long total = 0;
+        for (int stripe = 0; stripe < stripes; stripe++) {
+            total += cells.get(cell(stripe));
+        }
+        return total;
+    }
+
+    public int stripes() {
+        return stripes;
+    }
+
+    private int homeStripe() {
+        long id = Thread.currentThread().getId();
+        return (int) (id ^ (id >>> 16)) & (stripes - 1);
+    }
+
+    private static int cell(int stripe) {
+        return stripe * PADDING;
+    }
+
+    /** Power of two at or above the number of cores, the default stripe count. */
+    public static int defaultStripes() {
+        int cores = Runtime.getRuntime().availableProcessors();
+        return Integer.highestOneBit(Math.max(1, cores - 1)) << 1;
+    }
+}
@@ -0,0 +1,153 @@
+package com.farmchainx.backend.benchmark;
+
+import com.farmchainx.backend.repository.PooledIdAllocator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time to insert 100k order items the way Hibernate does with IDENTITY ids (one INSERT and
+ * generated-key read per row) versus with pooled ids (ids from PooledIdAllocator, JDBC
+ * batches of 100 rewritten into multi-row INSERTs by the driver).
+ *
+ * Needs a MySQL database; by default the one in application.properties, otherwise
+ * -Dbenchmark.jdbc.url / .user / .password. Rows go into scratch tables that are dropped
+ * afterwards. Not a unit test; run from its main method (see PriceIndexBenchmark).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(1)
+public class OrderItemInsertBenchmark {
+
+    private static final int ITEMS = 100_000;
+    private static final int BATCH_SIZE = 100;
+
+    private static final String TABLE = "bench_order_items";
+
+    private SingleConnectionDataSource dataSource;
+    private SingleConnectionDataSource allocatorDataSource;
+    private PooledIdAllocator allocator;
+
+    @Setup(Level.Trial)
+    public void connect() throws SQLException {
+        String url = System.getProperty("benchmark.jdbc.url",
+                "jdbc:mysql://localhost:3306/farmchainx_db?useSSL=false&serverTimezone=UTC"
+                        + "&allowPublicKeyRetrieval=true&rewriteBatchedStatements=true");
+        dataSource = new SingleConnectionDataSource(url,
+                System.getProperty("benchmark.jdbc.user", "farmchainx_user"),
+                System.getProperty("benchmark.jdbc.password", "thousiffarmer"), true);
+        try (Statement statement = dataSource.getConnection().createStatement()) {
+            statement.execute("CREATE TABLE IF NOT EXISTS id_blocks (name VARCHAR(64) PRIMARY KEY, next_value BIGINT NOT NULL)");
+        }
+        // The allocator gets its own connection, as it does from the pool in the application
+        allocatorDataSource = new SingleConnectionDataSource(url,
+                System.getProperty("benchmark.jdbc.user", "farmchainx_user"),
+                System.getProperty("benchmark.jdbc.password", "thousiffarmer"), true);
+        allocator = new PooledIdAllocator();
+        ReflectionTestUtils.setField(allocator, "dataSource", allocatorDataSource);
+        ReflectionTestUtils.setField(allocator, "blockSize", BATCH_SIZE);
+    }
+
+    @Setup(Level.Iteration)
+    public void createTable() throws SQLException {
+        try (Statement statement = dataSource.getConnection().createStatement()) {
+            statement.execute("DROP TABLE IF EXISTS " + TABLE);
+            statement.execute("CREATE TABLE " + TABLE + " (id BIGINT NOT NULL AUTO_INCREMENT PRIMARY KEY,"
+                    + " order_id BIGINT NOT NULL, product_id BIGINT NOT NULL, quantity INT NOT NULL,"
+                    + " price DOUBLE NOT NULL, subtotal DOUBLE NOT NULL)");
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void dropTables() throws SQLException {
+        try (Statement statement = dataSource.getConnection().createStatement()) {
+            statement.execute("DROP TABLE IF EXISTS " + TABLE);
+            statement.execute("DELETE FROM id_blocks WHERE name = '" + TABLE + "'");
+        }
+        dataSource.destroy();
+        allocatorDataSource.destroy();
+    }
+
+    @Benchmark
+    public long identityInsertPerRow() throws SQLException {
+        Connection connection = dataSource.getConnection();
+        connection.setAutoCommit(false);
+        long lastId = 0;
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO " + TABLE + " (order_id, product_id, quantity, price, subtotal) VALUES (?, ?, ?, ?, ?)",
+                Statement.RETURN_GENERATED_KEYS)) {
+            for (int i = 0; i < ITEMS; i++) {
+                bindItem(insert, 1, i);
+                insert.executeUpdate();
+                try (ResultSet keys = insert.getGeneratedKeys()) {
+                    keys.next();
+                    lastId = keys.getLong(1);
+                }
+            }
+        }
+        connection.commit();
+        connection.setAutoCommit(true);
+        return lastId;
+    }
+
+    @Benchmark
+    public long pooledIdsBatched() throws SQLException {
+        Connection connection = dataSource.getConnection();
+        connection.setAutoCommit(false);
+        long lastId = 0;
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO " + TABLE + " (id, order_id, product_id, quantity, price, subtotal) VALUES (?, ?, ?, ?, ?, ?)")) {
+            for (int i = 0; i < ITEMS; i++) {
+                lastId = allocator.reserve(TABLE, new String[0], 1);
+                insert.setLong(1, lastId);
+                bindItem(insert, 2, i);
+                insert.addBatch();
+                if ((i + 1) % BATCH_SIZE == 0) {
+                    insert.executeBatch();
+                }
+            }
+            insert.executeBatch();
+        }
+        connection.commit();
+        connection.setAutoCommit(true);
+        return lastId;
+    }
+
+    private static void bindItem(PreparedStatement insert, int firstIndex, int i) throws SQLException {
+        insert.setLong(firstIndex, 1 + i / 10);
+        insert.setLong(firstIndex + 1, 1 + i % 500);
+        insert.setInt(firstIndex + 2, 1 + i % 5);
+        insert.setDouble(firstIndex + 3, 10.0);
+        insert.setDouble(firstIndex + 4, 10.0 * (1 + i % 5));
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(OrderItemInsertBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
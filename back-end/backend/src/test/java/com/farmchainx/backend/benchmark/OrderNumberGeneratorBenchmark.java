@@ -0,0 +1,59 @@
+package com.farmchainx.backend.benchmark;
+
+import com.farmchainx.backend.service.SnowflakeOrderNumberGenerator;
+import com.farmchainx.backend.util.SnowflakeIdGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of the Snowflake order-number generator, single-threaded and contended.
+ * Not a unit test; run from its main method (see PriceIndexBenchmark).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OrderNumberGeneratorBenchmark {
+
+    private final SnowflakeIdGenerator ids = new SnowflakeIdGenerator(1);
+    private final SnowflakeOrderNumberGenerator numbers = new SnowflakeOrderNumberGenerator(new SnowflakeIdGenerator(2));
+
+    @Benchmark
+    @Threads(1)
+    public long nextIdSingleThread() {
+        return ids.nextId();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public long nextIdEightThreads() {
+        return ids.nextId();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public String nextOrderNumberEightThreads() {
+        return numbers.nextOrderNumber();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(OrderNumberGeneratorBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,118 @@
+package com.farmchainx.backend.benchmark;
+
+import com.farmchainx.backend.dto.ProductDTO;
+import com.farmchainx.backend.util.PriceIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * PriceIndex against the stream-and-sort over List&lt;ProductDTO&gt; it replaces.
+ * Not a unit test; run with
+ * {@code mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=com.farmchainx.backend.benchmark.PriceIndexBenchmark}
+ * or from the IDE.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PriceIndexBenchmark {
+
+    private static final String[] CATEGORIES = {"Vegetables", "Fruits", "Grains", "Dairy", "Spices", "Pulses"};
+    private static final Comparator<ProductDTO> BY_PRICE =
+            Comparator.comparing(ProductDTO::getPrice).thenComparing(ProductDTO::getId);
+
+    @Param({"10000", "100000"})
+    private int products;
+
+    private List<ProductDTO> catalog;
+    private PriceIndex index;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        catalog = new ArrayList<>(products);
+        index = new PriceIndex();
+        for (long id = 1; id <= products; id++) {
+            ProductDTO product = new ProductDTO();
+            product.setId(id);
+            product.setCategory(CATEGORIES[random.nextInt(CATEGORIES.length)]);
+            product.setPrice(Math.round(random.nextDouble() * 100000) / 100.0);
+            catalog.add(product);
+            index.put(id, product.getPrice(), product.getCategory());
+        }
+        index.seal();
+    }
+
+    @Benchmark
+    public List<Long> cheapestInCategoryStream() {
+        return catalog.stream()
+                .filter(product -> "Spices".equals(product.getCategory()))
+                .sorted(BY_PRICE)
+                .limit(10)
+                .map(ProductDTO::getId)
+                .collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public long[] cheapestInCategoryIndex() {
+        return index.cheapestInCategory("Spices", 10);
+    }
+
+    @Benchmark
+    public List<Long> priceBetweenStream() {
+        return catalog.stream()
+                .filter(product -> product.getPrice() >= 100 && product.getPrice() <= 250)
+                .sorted(BY_PRICE)
+                .skip(100)
+                .limit(50)
+                .map(ProductDTO::getId)
+                .collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public long[] priceBetweenIndex() {
+        return index.between(100, 250, 100, 50, false);
+    }
+
+    @Benchmark
+    public List<Long> sortedPageStream() {
+        return catalog.stream()
+                .sorted(BY_PRICE.reversed())
+                .skip(1000)
+                .limit(50)
+                .map(ProductDTO::getId)
+                .collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public long[] sortedPageIndex() {
+        return index.page(1000, 50, true);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(PriceIndexBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
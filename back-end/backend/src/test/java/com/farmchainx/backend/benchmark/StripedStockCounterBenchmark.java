@@ -0,0 +1,72 @@
+package com.farmchainx.backend.benchmark;
+
+import com.farmchainx.backend.util.StripedStockCounter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reservations per second on one hot product, with the default stripe count versus a
+ * single stripe (one contended CAS cell), single-threaded and with 8 and 64 buyers.
+ * Not a unit test; run from its main method (see PriceIndexBenchmark).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StripedStockCounterBenchmark {
+
+    // Never runs out within a run, so every call takes the successful path
+    private final StripedStockCounter striped = new StripedStockCounter(Long.MAX_VALUE / 2, StripedStockCounter.defaultStripes());
+    private final StripedStockCounter single = new StripedStockCounter(Long.MAX_VALUE / 2, 1);
+
+    @Benchmark
+    @Threads(1)
+    public boolean stripedSingleThread() {
+        return striped.tryReserve(1);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public boolean stripedEightThreads() {
+        return striped.tryReserve(1);
+    }
+
+    @Benchmark
+    @Threads(64)
+    public boolean stripedSixtyFourThreads() {
+        return striped.tryReserve(1);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public boolean singleStripeEightThreads() {
+        return single.tryReserve(1);
+    }
+
+    @Benchmark
+    @Threads(64)
+    public boolean singleStripeSixtyFourThreads() {
+        return single.tryReserve(1);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(StripedStockCounterBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,137 @@
+package com.farmchainx.backend.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class PooledIdAllocatorTest {
+
+    private static final long EXISTING_MAX_ID = 41;
+
+    @Mock
+    private DataSource dataSource;
+
+    @InjectMocks
+    private PooledIdAllocator pooledIdAllocator;
+
+    // Stand-in for the id_blocks row
+    private final AtomicLong nextValue = new AtomicLong();
+    private final AtomicInteger roundTrips = new AtomicInteger();
+    private final AtomicInteger seeds = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() throws Exception {
+        ReflectionTestUtils.setField(pooledIdAllocator, "blockSize", 10);
+        Connection connection = mock(Connection.class);
+        when(dataSource.getConnection()).thenReturn(connection);
+        when(connection.getAutoCommit()).thenReturn(true);
+
+        Statement maxStatement = mock(Statement.class);
+        ResultSet maxRow = row(EXISTING_MAX_ID);
+        when(connection.createStatement()).thenReturn(maxStatement);
+        when(maxStatement.executeQuery(anyString())).thenReturn(maxRow);
+
+        PreparedStatement seed = mock(PreparedStatement.class);
+        AtomicLong seedValue = new AtomicLong();
+        doAnswer(invocation -> { seedValue.set(invocation.getArgument(1)); return null; }).when(seed).setLong(anyInt(), anyLong());
+        when(seed.executeUpdate()).thenAnswer(invocation -> {
+            seeds.incrementAndGet();
+            nextValue.accumulateAndGet(seedValue.get(), Math::max);
+            return 1;
+        });
+        when(connection.prepareStatement(startsWith("INSERT INTO id_blocks"))).thenReturn(seed);
+
+        PreparedStatement counter = mock(PreparedStatement.class);
+        when(counter.executeUpdate()).thenAnswer(invocation -> {
+            seeds.incrementAndGet();
+            return 1;
+        });
+        when(connection.prepareStatement(startsWith("INSERT IGNORE INTO id_blocks"))).thenReturn(counter);
+
+        PreparedStatement select = mock(PreparedStatement.class);
+        when(select.executeQuery()).thenAnswer(invocation -> {
+            roundTrips.incrementAndGet();
+            return row(nextValue.get());
+        });
+        when(connection.prepareStatement(startsWith("SELECT next_value"))).thenReturn(select);
+
+        PreparedStatement update = mock(PreparedStatement.class);
+        doAnswer(invocation -> {
+            if (invocation.<Integer>getArgument(0) == 1) {
+                nextValue.set(invocation.getArgument(1));
+            }
+            return null;
+        }).when(update).setLong(anyInt(), anyLong());
+        when(connection.prepareStatement(startsWith("UPDATE id_blocks"))).thenReturn(update);
+    }
+
+    @Test
+    void idsContinueAboveExistingRowsAndComeFromMemoryWithinABlock() {
+        for (int i = 0; i < 25; i++) {
+            assertEquals(EXISTING_MAX_ID + 1 + i, pooledIdAllocator.reserve("orders", new String[0], 1));
+        }
+
+        assertEquals(3, roundTrips.get());
+        assertEquals(1, seeds.get());
+    }
+
+    @Test
+    void runLargerThanTheBlockGetsOneContiguousRange() {
+        long first = pooledIdAllocator.reserve("order_items", new String[0], 1);
+        long run = pooledIdAllocator.reserve("order_items", new String[0], 1_000);
+        long after = pooledIdAllocator.reserve("order_items", new String[0], 1);
+
+        assertEquals(EXISTING_MAX_ID + 1, first);
+        // The rest of the first block is skipped rather than split across the run
+        assertEquals(first + 10, run);
+        assertEquals(run + 1_000, after);
+        // One reservation per block: the first, the run's own range, the next block
+        assertEquals(3, roundTrips.get());
+    }
+
+    @Test
+    void counterStartsAtZeroAndNeverReadsATable() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            assertEquals(i, pooledIdAllocator.nextCounterValue("order_number_node"));
+        }
+
+        // Each value is its own round trip rather than a cached block
+        assertEquals(3, roundTrips.get());
+        assertEquals(1, seeds.get());
+        verify(dataSource.getConnection(), never()).createStatement();
+    }
+
+    private static ResultSet row(long value) throws Exception {
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.next()).thenReturn(true, false);
+        when(rs.getLong(1)).thenReturn(value);
+        return rs;
+    }
+}
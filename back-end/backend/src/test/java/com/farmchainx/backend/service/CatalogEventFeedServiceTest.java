@@ -0,0 +1,96 @@
+package com.farmchainx.backend.service;
+
+import com.farmchainx.backend.event.ProductChangeEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CatalogEventFeedServiceTest {
+
+    private final Deque<SseEmitter> emitters = new ArrayDeque<>();
+    private CatalogEventFeedService feed;
+
+    @BeforeEach
+    void setUp() {
+        feed = new CatalogEventFeedService() {
+            @Override
+            SseEmitter newEmitter() {
+                return emitters.removeFirst();
+            }
+        };
+        ReflectionTestUtils.setField(feed, "objectMapper", new ObjectMapper());
+        ReflectionTestUtils.setField(feed, "bufferSize", 64);
+        ReflectionTestUtils.setField(feed, "maxBacklog", 32);
+        ReflectionTestUtils.setField(feed, "maxSubscribers", 10);
+        ReflectionTestUtils.setField(feed, "heartbeatMillis", 50L);
+        ReflectionTestUtils.setField(feed, "connectionTimeoutMillis", 60_000L);
+        ReflectionTestUtils.setField(feed, "writerThreads", 2);
+        ReflectionTestUtils.setField(feed, "writeTimeoutMillis", 300L);
+        feed.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        feed.stop();
+    }
+
+    @Test
+    void stalledClientDoesNotHoldUpOthersAndIsDroppedAfterTheWriteTimeout() throws Exception {
+        CountDownLatch unblock = new CountDownLatch(1);
+        CountDownLatch stalledCompleted = new CountDownLatch(1);
+        emitters.add(new SseEmitter() {
+            @Override
+            public void send(SseEventBuilder builder) {
+                try {
+                    unblock.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+
+            @Override
+            public void complete() {
+                stalledCompleted.countDown();
+            }
+        });
+        CountDownLatch delivered = new CountDownLatch(3);
+        emitters.add(new SseEmitter() {
+            @Override
+            public void send(SseEventBuilder builder) {
+                // Heartbeats are comments without a name; count only events
+                if (builder.build().stream().anyMatch(part -> part.getData().toString().contains("event:"))) {
+                    delivered.countDown();
+                }
+            }
+        });
+
+        feed.subscribe(null);
+        feed.subscribe(null);
+        for (int i = 0; i < 3; i++) {
+            feed.onProductChanged(ProductChangeEvent.bulkChanged(7L));
+        }
+
+        assertTrue(delivered.await(2, TimeUnit.SECONDS), "healthy subscriber was held up");
+        long deadline = System.currentTimeMillis() + 2_000;
+        while ((Long) feed.getStats().get("writeTimeouts") == 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        assertEquals(1L, feed.getStats().get("writeTimeouts"));
+        assertEquals(1, feed.getStats().get("subscribers"));
+
+        // The stalled writer completes its emitter once the blocked send returns
+        unblock.countDown();
+        assertTrue(stalledCompleted.await(2, TimeUnit.SECONDS));
+    }
+}
@@ -0,0 +1,19 @@
+package com.farmchainx.backend.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CatalogPriceServiceTest {
+
+    @Test
+    void refusesToAnswerUntilTheFirstBuildHasCompleted() {
+        CatalogPriceService service = new CatalogPriceService();
+        service.initIndex();
+
+        assertThrows(IllegalStateException.class, () -> service.cheapestInCategory("Vegetables", 5));
+        assertThrows(IllegalStateException.class, () -> service.byPrice(null, null, "asc", 0, 10));
+        assertEquals(false, service.getStats().get("ready"));
+    }
+}
@@ -0,0 +1,217 @@
+package com.farmchainx.backend.service;
+
+import com.farmchainx.backend.entity.IdempotencyRecord;
+import com.farmchainx.backend.repository.IdempotencyRecordRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class IdempotencyServiceTest {
+
+    @Mock
+    private IdempotencyRecordRepository idempotencyRecordRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
+    @InjectMocks
+    private IdempotencyService idempotencyService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(idempotencyService, "cacheSize", 100);
+        ReflectionTestUtils.setField(idempotencyService, "ttlMillis", 60_000L);
+        ReflectionTestUtils.setField(idempotencyService, "waitMillis", 5_000L);
+        ReflectionTestUtils.setField(idempotencyService, "claimLeaseMillis", 10_000L);
+        idempotencyService.init();
+
+        when(idempotencyRecordRepository.findByScopeAndIdempotencyKey(anyString(), anyString())).thenReturn(Optional.empty());
+        when(idempotencyRecordRepository.saveAndFlush(any(IdempotencyRecord.class))).thenAnswer(invocation -> {
+            IdempotencyRecord record = invocation.getArgument(0);
+            record.setId(1L);
+            return record;
+        });
+    }
+
+    @Test
+    void concurrentDuplicatesRunTheActionOnceAndReplayItsResponse() throws Exception {
+        AtomicInteger runs = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        int callers = 8;
+        ExecutorService pool = Executors.newFixedThreadPool(callers);
+        try {
+            List<Future<ResponseEntity<?>>> results = new ArrayList<>();
+            for (int i = 0; i < callers; i++) {
+                results.add(pool.submit(() -> idempotencyService.execute("key-1", "POST /api/orders/consumer/5",
+                        Map.of("items", 2), () -> {
+                    runs.incrementAndGet();
+                    await(release);
+                    return ResponseEntity.ok(Map.of("orderNumber", "ORD-1"));
+                })));
+            }
+            Thread.sleep(200);
+            release.countDown();
+
+            int replayed = 0;
+            for (Future<ResponseEntity<?>> result : results) {
+                ResponseEntity<?> response = result.get(10, TimeUnit.SECONDS);
+                assertEquals(HttpStatus.OK, response.getStatusCode());
+                if (response.getHeaders().containsKey(IdempotencyService.REPLAYED_HEADER)) {
+                    assertEquals("{\"orderNumber\":\"ORD-1\"}", response.getBody());
+                    replayed++;
+                }
+            }
+            assertEquals(1, runs.get());
+            assertEquals(callers - 1, replayed);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void storedResponseIsReplayedWithoutRunningTheAction() {
+        IdempotencyRecord stored = new IdempotencyRecord();
+        stored.setId(7L);
+        stored.setRequestHash(hashOf(Map.of("items", 2)));
+        stored.setStatusCode(200);
+        stored.setResponseBody("{\"orderNumber\":\"ORD-1\"}");
+        stored.setCreatedAt(LocalDateTime.now());
+        when(idempotencyRecordRepository.findByScopeAndIdempotencyKey("POST /api/orders/consumer/5", "key-2"))
+                .thenReturn(Optional.of(stored));
+
+        ResponseEntity<?> response = idempotencyService.execute("key-2", "POST /api/orders/consumer/5",
+                Map.of("items", 2), () -> {
+            throw new AssertionError("action must not run again");
+        });
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals("{\"orderNumber\":\"ORD-1\"}", response.getBody());
+        verify(idempotencyRecordRepository, never()).saveAndFlush(any());
+    }
+
+    @Test
+    void reusedKeyWithDifferentPayloadIsRejected() {
+        idempotencyService.execute("key-3", "POST /api/farmer/crops user 1", Map.of("name", "Wheat"),
+                () -> ResponseEntity.ok(Map.of("id", 1)));
+
+        ResponseEntity<?> response = idempotencyService.execute("key-3", "POST /api/farmer/crops user 1",
+                Map.of("name", "Rice"), () -> ResponseEntity.ok(Map.of("id", 2)));
+
+        assertEquals(HttpStatus.UNPROCESSABLE_ENTITY, response.getStatusCode());
+    }
+
+    @Test
+    void failedRequestReleasesTheKeySoARetryRunsAgain() {
+        AtomicInteger runs = new AtomicInteger();
+        ResponseEntity<?> first = idempotencyService.execute("key-4", "POST /api/orders/consumer/5", Map.of("items", 1), () -> {
+            runs.incrementAndGet();
+            return ResponseEntity.badRequest().body("Insufficient quantity for product: Tomatoes");
+        });
+        ResponseEntity<?> second = idempotencyService.execute("key-4", "POST /api/orders/consumer/5", Map.of("items", 1), () -> {
+            runs.incrementAndGet();
+            return ResponseEntity.ok(Map.of("id", 1));
+        });
+
+        assertEquals(HttpStatus.BAD_REQUEST, first.getStatusCode());
+        assertEquals(HttpStatus.OK, second.getStatusCode());
+        assertNull(second.getHeaders().getFirst(IdempotencyService.REPLAYED_HEADER));
+        assertEquals(2, runs.get());
+        verify(idempotencyRecordRepository).deleteById(1L);
+    }
+
+    @Test
+    void unfinishedClaimIsTakenOverOnlyOnceItsLeaseHasRunOut() {
+        String scope = "POST /api/orders/consumer/5";
+        IdempotencyRecord fresh = pendingClaim(8L, LocalDateTime.now().minusSeconds(1));
+        IdempotencyRecord abandoned = pendingClaim(9L, LocalDateTime.now().minusMinutes(5));
+        when(idempotencyRecordRepository.findByScopeAndIdempotencyKey(scope, "key-5")).thenReturn(Optional.of(fresh));
+        when(idempotencyRecordRepository.findByScopeAndIdempotencyKey(scope, "key-6")).thenReturn(Optional.of(abandoned));
+        when(idempotencyRecordRepository.deletePendingClaimedBefore(eq(9L), any())).thenReturn(1);
+        AtomicInteger runs = new AtomicInteger();
+
+        ResponseEntity<?> stillRunning = idempotencyService.execute("key-5", scope, Map.of("items", 1), () -> {
+            runs.incrementAndGet();
+            return ResponseEntity.ok(Map.of("id", 1));
+        });
+        ResponseEntity<?> takenOver = idempotencyService.execute("key-6", scope, Map.of("items", 1), () -> {
+            runs.incrementAndGet();
+            return ResponseEntity.ok(Map.of("id", 2));
+        });
+
+        assertEquals(HttpStatus.CONFLICT, stillRunning.getStatusCode());
+        assertEquals(HttpStatus.OK, takenOver.getStatusCode());
+        assertEquals(1, runs.get());
+        verify(idempotencyRecordRepository, never()).deletePendingClaimedBefore(eq(8L), any());
+    }
+
+    @Test
+    void withoutKeyTheActionAlwaysRuns() {
+        AtomicInteger runs = new AtomicInteger();
+        for (int i = 0; i < 3; i++) {
+            idempotencyService.execute(null, "POST /api/orders/consumer/5", Map.of(), () -> {
+                runs.incrementAndGet();
+                return ResponseEntity.ok().build();
+            });
+        }
+        assertEquals(3, runs.get());
+        verify(idempotencyRecordRepository, never()).findByScopeAndIdempotencyKey(anyString(), anyString());
+    }
+
+    private IdempotencyRecord pendingClaim(Long id, LocalDateTime claimedAt) {
+        IdempotencyRecord claim = new IdempotencyRecord();
+        claim.setId(id);
+        claim.setRequestHash(hashOf(Map.of("items", 1)));
+        claim.setCreatedAt(claimedAt);
+        return claim;
+    }
+
+    private String hashOf(Object fingerprint) {
+        return ReflectionTestUtils.invokeMethod(idempotencyService, "hash", fingerprint);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(10, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,190 @@
+package com.farmchainx.backend.service;
+
+import com.farmchainx.backend.dto.OrderDTO;
+import com.farmchainx.backend.event.OrderChangeEvent;
+import com.farmchainx.backend.service.InvoiceCacheService.CachedInvoice;
+import com.itextpdf.text.DocumentException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class InvoiceCacheServiceTest {
+
+    @Mock
+    private OrderService orderService;
+
+    @Mock
+    private PdfService pdfService;
+
+    @InjectMocks
+    private InvoiceCacheService invoiceCacheService;
+
+    @TempDir
+    Path cacheDir;
+
+    private String status = "PENDING";
+    private final AtomicInteger renders = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() throws Exception {
+        ReflectionTestUtils.setField(invoiceCacheService, "maxMemoryBytes", 1_000L);
+        ReflectionTestUtils.setField(invoiceCacheService, "cacheDir", cacheDir.toString());
+        ReflectionTestUtils.setField(invoiceCacheService, "maxDiskBytes", 10_000L);
+        ReflectionTestUtils.setField(invoiceCacheService, "maxEntryBytes", 1_000L);
+        invoiceCacheService.init();
+
+        when(orderService.getOrderSummary(any())).thenAnswer(invocation -> order(invocation.getArgument(0)));
+        doAnswer(invocation -> {
+            invocation.<OutputStream>getArgument(1).write(("%PDF " + status + " render " + renders.incrementAndGet()).getBytes());
+            return null;
+        }).when(pdfService).writeInvoicePdf(any(), any());
+    }
+
+    @Test
+    void repeatDownloadsAreServedFromMemoryAfterOneStatusLookup() throws Exception {
+        ByteArrayOutputStream response = new ByteArrayOutputStream();
+        invoiceCacheService.renderTo(order(5L), response);
+
+        CachedInvoice first = invoiceCacheService.findCached(5L);
+        CachedInvoice second = invoiceCacheService.findCached(5L);
+
+        assertArrayEquals(response.toByteArray(), second.getPdf());
+        assertEquals(first.getEtag(), second.getEtag());
+        assertEquals("invoice_ORD-5.pdf", second.getFileName());
+        assertEquals(1, renders.get());
+        assertEquals(1L, invoiceCacheService.getStats().get("diskHits"));
+        assertEquals(1L, invoiceCacheService.getStats().get("memoryHits"));
+        verify(orderService, times(2)).getOrderSummary(5L);
+    }
+
+    @Test
+    void memoryEntryForAnOlderStatusIsNotServedWithoutAnInvalidation() throws Exception {
+        invoiceCacheService.renderTo(order(5L), new ByteArrayOutputStream());
+        CachedInvoice pending = invoiceCacheService.findCached(5L);
+
+        // Status changed where this node did not see the event
+        status = "SHIPPED";
+
+        assertNull(invoiceCacheService.findCached(5L));
+        assertEquals("PENDING", pending.getStatus());
+        assertEquals(0L, invoiceCacheService.getStats().get("memoryHits"));
+    }
+
+    @Test
+    void diskTierSurvivesAnEmptyMemoryTier() throws Exception {
+        invoiceCacheService.renderTo(order(5L), new ByteArrayOutputStream());
+        CachedInvoice cached = invoiceCacheService.findCached(5L);
+        InvoiceCacheService restarted = new InvoiceCacheService();
+        ReflectionTestUtils.setField(restarted, "orderService", orderService);
+        ReflectionTestUtils.setField(restarted, "pdfService", pdfService);
+        ReflectionTestUtils.setField(restarted, "maxMemoryBytes", 1_000L);
+        ReflectionTestUtils.setField(restarted, "cacheDir", cacheDir.toString());
+        ReflectionTestUtils.setField(restarted, "maxDiskBytes", 10_000L);
+        ReflectionTestUtils.setField(restarted, "maxEntryBytes", 1_000L);
+        restarted.init();
+
+        CachedInvoice fromDisk = restarted.findCached(5L);
+
+        assertArrayEquals(cached.getPdf(), fromDisk.getPdf());
+        assertEquals(cached.getEtag(), fromDisk.getEtag());
+        assertEquals(1, renders.get());
+        assertEquals(1L, restarted.getStats().get("diskHits"));
+    }
+
+    @Test
+    void statusChangeInvalidatesBothTiers() throws Exception {
+        invoiceCacheService.renderTo(order(5L), new ByteArrayOutputStream());
+        assertNotNull(invoiceCacheService.findCached(5L));
+
+        invoiceCacheService.onOrderChanged(new OrderChangeEvent(OrderChangeEvent.Type.STATUS_CHANGED, 5L, 1L, 2L, "SHIPPED"));
+
+        assertNull(invoiceCacheService.findCached(5L));
+        try (Stream<Path> files = Files.list(cacheDir)) {
+            assertEquals(0, files.count());
+        }
+    }
+
+    @Test
+    void createdEventsLeaveTheCacheAlone() throws Exception {
+        invoiceCacheService.renderTo(order(5L), new ByteArrayOutputStream());
+
+        invoiceCacheService.onOrderChanged(new OrderChangeEvent(OrderChangeEvent.Type.CREATED, 6L, 1L, 2L, "PENDING"));
+
+        assertNotNull(invoiceCacheService.findCached(5L));
+        assertEquals(1, renders.get());
+    }
+
+    @Test
+    void streamedRenderIsCachedOnDiskAndLargeEntriesStayFileBacked() throws Exception {
+        ReflectionTestUtils.setField(invoiceCacheService, "maxEntryBytes", 10L);
+        byte[] pdf = "%PDF streamed render".getBytes();
+        doAnswer(invocation -> {
+            invocation.<OutputStream>getArgument(1).write(pdf);
+            return null;
+        }).when(pdfService).writeInvoicePdf(any(), any());
+        assertNull(invoiceCacheService.findCached(5L));
+
+        ByteArrayOutputStream response = new ByteArrayOutputStream();
+        invoiceCacheService.renderTo(order(5L), response);
+        CachedInvoice cached = invoiceCacheService.findCached(5L);
+        ByteArrayOutputStream served = new ByteArrayOutputStream();
+        cached.writeTo(served);
+
+        assertArrayEquals(pdf, response.toByteArray());
+        assertArrayEquals(pdf, served.toByteArray());
+        assertNull(cached.getPdf());
+        assertEquals(pdf.length, cached.getLength());
+        assertEquals(new CachedInvoice(5L, status, "ORD-5", pdf).getEtag(), cached.getEtag());
+    }
+
+    @Test
+    void abortedStreamLeavesNothingOnDisk() throws Exception {
+        doAnswer(invocation -> {
+            invocation.<OutputStream>getArgument(1).write("%PDF partial".getBytes());
+            throw new DocumentException("client went away");
+        }).when(pdfService).writeInvoicePdf(any(), any());
+
+        assertThrows(IOException.class, () -> invoiceCacheService.renderTo(order(5L), new ByteArrayOutputStream()));
+
+        assertNull(invoiceCacheService.findCached(5L));
+        try (Stream<Path> files = Files.list(cacheDir)) {
+            assertEquals(0, files.count());
+        }
+    }
+
+    private OrderDTO order(Long orderId) {
+        OrderDTO order = new OrderDTO();
+        order.setId(orderId);
+        order.setOrderNumber("ORD-" + orderId);
+        order.setStatus(status);
+        return order;
+    }
+}
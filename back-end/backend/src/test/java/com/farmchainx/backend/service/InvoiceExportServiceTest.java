@@ -0,0 +1,138 @@
+package com.farmchainx.backend.service;
+
+import com.farmchainx.backend.dto.CursorPageDTO;
+import com.farmchainx.backend.dto.OrderDTO;
+import com.itextpdf.text.DocumentException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class InvoiceExportServiceTest {
+
+    private static final LocalDateTime FROM = LocalDateTime.of(2026, 9, 1, 0, 0);
+    private static final LocalDateTime TO = LocalDateTime.of(2026, 10, 1, 0, 0);
+
+    @Mock
+    private OrderService orderService;
+
+    @Mock
+    private PdfService pdfService;
+
+    @InjectMocks
+    private InvoiceExportService invoiceExportService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(invoiceExportService, "configuredThreads", 3);
+        ReflectionTestUtils.setField(invoiceExportService, "configuredWindow", 4);
+        invoiceExportService.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        invoiceExportService.stop();
+    }
+
+    @Test
+    void invoicesAreWrittenInPageOrderWhateverOrderTheyRenderIn() throws Exception {
+        when(orderService.getDistributorOrdersPage(eq(7L), isNull(), any(), isNull(), eq(FROM), eq(TO)))
+                .thenReturn(new CursorPageDTO<>(orders(1, 10), "next", true));
+        when(orderService.getDistributorOrdersPage(eq(7L), eq("next"), any(), isNull(), eq(FROM), eq(TO)))
+                .thenReturn(new CursorPageDTO<>(orders(11, 5), null, false));
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+        when(pdfService.generateInvoicePdf(any())).thenAnswer(invocation -> {
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            Thread.sleep(ThreadLocalRandom.current().nextInt(5));
+            inFlight.decrementAndGet();
+            return pdf(invocation.getArgument(0));
+        });
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        int written = invoiceExportService.exportDistributorInvoices(7L, FROM, TO, out);
+
+        assertEquals(15, written);
+        List<String> names = new ArrayList<>();
+        try (ZipInputStream zip = new ZipInputStream(new ByteArrayInputStream(out.toByteArray()))) {
+            for (ZipEntry entry = zip.getNextEntry(); entry != null; entry = zip.getNextEntry()) {
+                names.add(entry.getName());
+                assertArrayEquals(("%PDF " + entry.getName()).getBytes(), zip.readAllBytes());
+            }
+        }
+        assertEquals(15, names.size());
+        for (int i = 0; i < names.size(); i++) {
+            assertEquals("invoice_ORD-" + (i + 1) + ".pdf", names.get(i));
+        }
+        assertTrue(maxInFlight.get() <= 3);
+    }
+
+    @Test
+    void renderFailureAbortsTheExport() throws Exception {
+        when(orderService.getDistributorOrdersPage(eq(7L), isNull(), any(), isNull(), eq(FROM), eq(TO)))
+                .thenReturn(new CursorPageDTO<>(orders(1, 6), null, false));
+        when(pdfService.generateInvoicePdf(any())).thenAnswer(invocation -> {
+            OrderDTO order = invocation.getArgument(0);
+            if (order.getId() == 3L) {
+                throw new DocumentException("broken order");
+            }
+            return pdf(order);
+        });
+
+        IOException failure = assertThrows(IOException.class,
+                () -> invoiceExportService.exportDistributorInvoices(7L, FROM, TO, new ByteArrayOutputStream()));
+
+        assertTrue(failure.getCause() instanceof DocumentException);
+        assertEquals(1L, invoiceExportService.getStats().get("failedExports"));
+        assertEquals(2L, invoiceExportService.getStats().get("invoicesWritten"));
+        verify(orderService).getDistributorOrdersPage(eq(7L), isNull(), any(), isNull(), eq(FROM), eq(TO));
+    }
+
+    @Test
+    void openOrOversizedRangesAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> invoiceExportService.validateRange(null, TO));
+        assertThrows(IllegalArgumentException.class, () -> invoiceExportService.validateRange(TO, FROM));
+        assertThrows(IllegalArgumentException.class, () -> invoiceExportService.validateRange(FROM, FROM.plusYears(2)));
+    }
+
+    private static List<OrderDTO> orders(int firstId, int count) {
+        List<OrderDTO> orders = new ArrayList<>();
+        for (long id = firstId; id < firstId + count; id++) {
+            OrderDTO order = new OrderDTO();
+            order.setId(id);
+            order.setOrderNumber("ORD-" + id);
+            orders.add(order);
+        }
+        return orders;
+    }
+
+    private static byte[] pdf(OrderDTO order) {
+        return ("%PDF invoice_" + order.getOrderNumber() + ".pdf").getBytes();
+    }
+}
@@ -0,0 +1,158 @@
+package com.farmchainx.backend.service;
+
+import com.farmchainx.backend.dto.OrderIntakeStatusDTO;
+import com.farmchainx.backend.dto.OrderItemRequestDTO;
+import com.farmchainx.backend.dto.OrderRequestDTO;
+import com.farmchainx.backend.entity.Order;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class OrderIntakeServiceTest {
+
+    @Mock
+    private OrderService orderService;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @InjectMocks
+    private OrderIntakeService orderIntakeService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(orderIntakeService, "queueCapacity", 2);
+        ReflectionTestUtils.setField(orderIntakeService, "maxBatch", 100);
+        ReflectionTestUtils.setField(orderIntakeService, "lingerMillis", 0L);
+        ReflectionTestUtils.setField(orderIntakeService, "retentionMillis", 60_000L);
+
+        // Run transaction callbacks inline
+        doAnswer(invocation -> {
+            invocation.<Consumer<TransactionStatus>>getArgument(0).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        orderIntakeService.stop();
+    }
+
+    @Test
+    void failingOrderFallsBackToPerOrderCommitsWithoutFailingTheOthers() throws Exception {
+        when(orderService.createOrder(any(OrderRequestDTO.class), anyLong())).thenAnswer(invocation -> {
+            OrderRequestDTO request = invocation.getArgument(0);
+            if ("Bad".equals(request.getCustomerName())) {
+                throw new RuntimeException("Insufficient quantity for product: Tomatoes");
+            }
+            Order order = new Order();
+            order.setId(request.getItems().get(0).getProductId());
+            order.setOrderNumber("ORD-" + order.getId());
+            return order;
+        });
+
+        // A long linger keeps both orders in the same group
+        ReflectionTestUtils.setField(orderIntakeService, "lingerMillis", 500L);
+        orderIntakeService.start();
+        OrderIntakeStatusDTO good = orderIntakeService.submit(request("Good", 11L), 1L);
+        OrderIntakeStatusDTO bad = orderIntakeService.submit(request("Bad", 12L), 1L);
+
+        OrderIntakeStatusDTO goodResult = awaitFinal(good.getTrackingId());
+        OrderIntakeStatusDTO badResult = awaitFinal(bad.getTrackingId());
+
+        assertEquals(OrderIntakeStatusDTO.CREATED, goodResult.getStatus());
+        assertEquals(11L, goodResult.getOrderId());
+        assertEquals(OrderIntakeStatusDTO.FAILED, badResult.getStatus());
+        assertEquals("Insufficient quantity for product: Tomatoes", badResult.getMessage());
+        // One group attempt (good + bad) and then one transaction per order
+        verify(transactionTemplate, times(1)).executeWithoutResult(any());
+        verify(transactionTemplate, times(2)).execute(any());
+        assertEquals(1L, orderIntakeService.getStats().get("groupFallbacks"));
+    }
+
+    @Test
+    void rejectsOrdersWhenTheQueueIsFull() throws Exception {
+        CountDownLatch workerBusy = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(orderService.createOrder(any(OrderRequestDTO.class), anyLong())).thenAnswer(invocation -> {
+            workerBusy.countDown();
+            release.await();
+            return new Order();
+        });
+        orderIntakeService.start();
+
+        orderIntakeService.submit(request("First", 1L), 1L);
+        assertTrue(workerBusy.await(5, TimeUnit.SECONDS));
+        orderIntakeService.submit(request("Second", 2L), 1L);
+        orderIntakeService.submit(request("Third", 3L), 1L);
+
+        assertThrows(IllegalStateException.class, () -> orderIntakeService.submit(request("Fourth", 4L), 1L));
+        assertEquals(1L, orderIntakeService.getStats().get("rejectedQueueFull"));
+        release.countDown();
+    }
+
+    @Test
+    void rejectsMalformedRequestsBeforeQueueing() {
+        orderIntakeService.start();
+
+        OrderRequestDTO noItems = request("Customer", 1L);
+        noItems.setItems(List.of());
+        assertThrows(IllegalArgumentException.class, () -> orderIntakeService.submit(noItems, 1L));
+
+        OrderRequestDTO negative = request("Customer", 1L);
+        negative.setItems(List.of(new OrderItemRequestDTO(1L, -2)));
+        assertThrows(IllegalArgumentException.class, () -> orderIntakeService.submit(negative, 1L));
+    }
+
+    private OrderIntakeStatusDTO awaitFinal(String trackingId) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (System.currentTimeMillis() < deadline) {
+            OrderIntakeStatusDTO status = orderIntakeService.getStatus(trackingId);
+            if (status.isFinal()) {
+                return status;
+            }
+            Thread.sleep(10);
+        }
+        throw new AssertionError("order " + trackingId + " was not processed");
+    }
+
+    private static OrderRequestDTO request(String customerName, Long productId) {
+        OrderRequestDTO request = new OrderRequestDTO();
+        request.setDistributorId(2L);
+        request.setCustomerName(customerName);
+        request.setCustomerPhone("9999999999");
+        request.setShippingAddress("Address");
+        request.setPaymentMethod("COD");
+        request.setItems(List.of(new OrderItemRequestDTO(productId, 1)));
+        return request;
+    }
+}
@@ -0,0 +1,466 @@
+package com.farmchainx.backend.service;
+
+import com.farmchainx.backend.dto.BulkUpdateResultDTO;
+import com.farmchainx.backend.dto.CheckoutResultDTO;
+import com.farmchainx.backend.dto.CursorPageDTO;
+import com.farmchainx.backend.dto.OrderDTO;
+import com.farmchainx.backend.dto.OrderItemDTO;
+import com.farmchainx.backend.dto.OrderItemRequestDTO;
+import com.farmchainx.backend.dto.OrderRequestDTO;
+import com.farmchainx.backend.dto.OrderStatusUpdateDTO;
+import com.farmchainx.backend.dto.RejectedItemDTO;
+import com.farmchainx.backend.entity.Order;
+import com.farmchainx.backend.entity.OrderItem;
+import com.farmchainx.backend.entity.Product;
+import com.farmchainx.backend.entity.User;
+import com.farmchainx.backend.event.OrderChangeEvent;
+import com.farmchainx.backend.repository.OrderArchiveRepository;
+import com.farmchainx.backend.repository.OrderBatchRepository;
+import com.farmchainx.backend.repository.OrderItemRepository;
+import com.farmchainx.backend.repository.OrderRepository;
+import com.farmchainx.backend.repository.ProductBatchRepository;
+import com.farmchainx.backend.repository.ProductRepository;
+import com.farmchainx.backend.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.mockingDetails;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class OrderServiceTest {
+
+    @Mock
+    private OrderRepository orderRepository;
+
+    @Mock
+    private OrderItemRepository orderItemRepository;
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private ProductBatchRepository productBatchRepository;
+
+    @Mock
+    private OrderBatchRepository orderBatchRepository;
+
+    @Mock
+    private StockReservationEngine stockReservationEngine;
+
+    @Mock
+    private OrderNumberGenerator orderNumberGenerator;
+
+    @Mock
+    private SalesRollupService salesRollupService;
+
+    @Mock
+    private OrderArchiveRepository orderArchiveRepository;
+
+    @Mock
+    private OrderArchiveService orderArchiveService;
+
+    @Mock
+    private StockHoldService stockHoldService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @InjectMocks
+    private OrderService orderService;
+
+    @Test
+    void createOrderIssuesSameNumberOfStatementsForSmallAndLargeBaskets() {
+        int smallBasket = statementsForOrderWith(2);
+        int largeBasket = statementsForOrderWith(40);
+
+        // 2 user lookups, 1 product select, 1 stock batch, 1 order insert, 1 item batch, 1 stock re-read
+        assertEquals(7, smallBasket);
+        assertEquals(smallBasket, largeBasket);
+    }
+
+    @Test
+    void createOrderFailsWhenConditionalDecrementMatchesNoRow() {
+        stubUsersAndProducts(3);
+        when(productBatchRepository.decrementStock(anyMap(), anyMap())).thenReturn(new int[] {1, 0, 1});
+
+        RuntimeException error = assertThrows(RuntimeException.class,
+                () -> orderService.createOrder(request(3), 1L));
+
+        assertEquals("Insufficient quantity for product: Product 2", error.getMessage());
+        verify(orderRepository, never()).save(any(Order.class));
+        verify(orderBatchRepository, never()).insertOrderItems(anyLong(), any());
+    }
+
+    @Test
+    void concurrentOrdersCanTogetherTakeTheWholeStock() {
+        Map<Long, Integer> stock = stubStockWithRealHolds(10);
+        try {
+            List<TransactionSynchronization> first = openTransaction(() -> orderService.createOrder(requestFor(1L, 5), 1L));
+            // The second order decrements after the first one did, before the first has completed
+            List<TransactionSynchronization> second = openTransaction(() -> orderService.createOrder(requestFor(1L, 5), 1L));
+            complete(first);
+            complete(second);
+        } finally {
+            stopRealHolds();
+        }
+
+        assertEquals(0, stock.get(1L));
+        verify(orderRepository, times(2)).save(any(Order.class));
+    }
+
+    @Test
+    void groupCommitWithTwoOrdersForOneProductTakesTheWholeStock() {
+        Map<Long, Integer> stock = stubStockWithRealHolds(10);
+        try {
+            List<TransactionSynchronization> group = openTransaction(() -> {
+                orderService.createOrder(requestFor(1L, 5), 1L);
+                orderService.createOrder(requestFor(1L, 5), 1L);
+            });
+            complete(group);
+        } finally {
+            stopRealHolds();
+        }
+
+        assertEquals(0, stock.get(1L));
+        verify(orderRepository, times(2)).save(any(Order.class));
+    }
+
+    @Test
+    void orderPageIssuesTwoQueriesWhateverItsSize() {
+        assertEquals(2, queriesForDistributorPageOf(3));
+        assertEquals(2, queriesForDistributorPageOf(50));
+    }
+
+    @Test
+    void bulkStatusChangeUsesOneGuardedUpdateAndReportsRejectedOrders() {
+        when(orderBatchRepository.lockStatuses(eq(2L), anyCollection())).thenReturn(List.of(
+                new OrderBatchRepository.OrderStatusRow(1L, 9L, "CONFIRMED"),
+                new OrderBatchRepository.OrderStatusRow(2L, 9L, "CONFIRMED"),
+                new OrderBatchRepository.OrderStatusRow(3L, 9L, "DELIVERED")));
+        OrderStatusUpdateDTO update = new OrderStatusUpdateDTO();
+        update.setOrderIds(List.of(1L, 2L, 3L, 4L));
+        update.setStatus("shipped");
+
+        BulkUpdateResultDTO result = orderService.bulkUpdateStatus(2L, update);
+
+        assertEquals(List.of(1L, 2L), result.getUpdated());
+        assertEquals(List.of(3L, 4L), result.getRejected().stream().map(RejectedItemDTO::getId).collect(Collectors.toList()));
+        assertEquals("Cannot change status from DELIVERED to SHIPPED", result.getRejected().get(0).getReason());
+        verify(orderBatchRepository).transitionStatus(2L, List.of(1L, 2L), Set.of("CONFIRMED"), "SHIPPED", null);
+        verify(eventPublisher, times(2)).publishEvent(any(OrderChangeEvent.class));
+    }
+
+    @Test
+    void bulkStatusChangeRejectsUnknownStatus() {
+        OrderStatusUpdateDTO update = new OrderStatusUpdateDTO();
+        update.setOrderIds(List.of(1L));
+        update.setStatus("LOST");
+
+        assertThrows(IllegalArgumentException.class, () -> orderService.bulkUpdateStatus(2L, update));
+        verify(orderBatchRepository, never()).transitionStatus(any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void orderPageMergesHotAndArchivedOrdersNewestFirst() {
+        LocalDateTime base = LocalDateTime.of(2024, 1, 1, 0, 0);
+        when(orderArchiveService.archiveCutoff()).thenReturn(base.plusDays(10));
+        when(orderRepository.findDistributorPage(eq(2L), any(), any(), any(), any(), any(), any()))
+                .thenReturn(List.of(hotOrder(30L, base.plusDays(30)), hotOrder(5L, base.plusDays(5)), hotOrder(3L, base.plusDays(3))));
+        when(orderArchiveRepository.findPage(eq(OrderArchiveRepository.Party.DISTRIBUTOR), eq(2L), any(), any(), any(), any(), any(), eq(3)))
+                .thenReturn(List.of(archivedOrder(8L, base.plusDays(8)), archivedOrder(4L, base.plusDays(4))));
+
+        CursorPageDTO<OrderDTO> page = orderService.getDistributorOrdersPage(2L, null, 2, null, null, null);
+
+        assertEquals(List.of(30L, 8L), page.getItems().stream().map(OrderDTO::getId).collect(Collectors.toList()));
+        assertTrue(page.isHasMore());
+        verify(orderArchiveRepository).loadItems(List.of(page.getItems().get(1)));
+    }
+
+    @Test
+    void orderPageSkipsArchiveWhenHotOrdersFillItPastTheCutoff() {
+        LocalDateTime base = LocalDateTime.of(2024, 1, 1, 0, 0);
+        when(orderArchiveService.archiveCutoff()).thenReturn(base);
+        when(orderRepository.findDistributorPage(eq(2L), any(), any(), any(), any(), any(), any()))
+                .thenReturn(List.of(hotOrder(3L, base.plusDays(3)), hotOrder(2L, base.plusDays(2)), hotOrder(1L, base.plusDays(1))));
+
+        CursorPageDTO<OrderDTO> page = orderService.getDistributorOrdersPage(2L, null, 2, null, null, null);
+
+        assertEquals(2, page.getItems().size());
+        verify(orderArchiveRepository, never()).findPage(any(), any(), any(), any(), any(), any(), any(), anyInt());
+    }
+
+    @Test
+    void getOrderByIdFallsBackToTheArchive() {
+        OrderDTO archived = archivedOrder(9L, LocalDateTime.of(2023, 5, 1, 0, 0));
+        when(orderRepository.findWithPartiesById(9L)).thenReturn(Optional.empty());
+        when(orderArchiveRepository.findOrder(9L)).thenReturn(Optional.of(archived));
+
+        assertEquals(archived, orderService.getOrderById(9L));
+        verify(orderArchiveRepository).loadItems(List.of(archived));
+    }
+
+    @Test
+    void checkoutCreatesOneOrderPerDistributorWithSingleStockAndItemBatches() {
+        User consumer = new User();
+        consumer.setId(1L);
+        when(userRepository.findById(1L)).thenReturn(Optional.of(consumer));
+        List<Product> products = new ArrayList<>();
+        List<User> distributors = new ArrayList<>();
+        for (long id = 1; id <= 4; id++) {
+            Product product = new Product();
+            product.setId(id);
+            product.setName("Product " + id);
+            product.setPrice(10.0);
+            product.setQuantity(10);
+            product.setDistributorId(id % 2 == 0 ? 2L : 3L);
+            products.add(product);
+        }
+        for (long id = 2; id <= 3; id++) {
+            User distributor = new User();
+            distributor.setId(id);
+            distributors.add(distributor);
+        }
+        when(productRepository.findAllById(anyCollection())).thenReturn(products);
+        when(userRepository.findAllById(anyCollection())).thenReturn(distributors);
+        when(productBatchRepository.decrementStock(anyMap(), anyMap())).thenReturn(new int[] {1, 1, 1, 1});
+        when(orderRepository.saveAll(anyCollection())).thenAnswer(invocation -> {
+            List<Order> orders = new ArrayList<>(invocation.<Collection<Order>>getArgument(0));
+            long nextId = 100;
+            for (Order order : orders) {
+                order.setId(nextId++);
+            }
+            return orders;
+        });
+        when(orderNumberGenerator.nextOrderNumber()).thenReturn("ORD-A", "ORD-B");
+
+        CheckoutResultDTO result = orderService.checkout(request(4), 1L);
+
+        assertEquals(List.of("ORD-A", "ORD-B"), result.getOrderNumbers());
+        assertEquals(List.of(100L, 101L), result.getOrderIds());
+        assertEquals(40.0, result.getTotalAmount());
+        assertEquals(3L, result.getOrders().get(0).getDistributorId());
+        assertEquals(2, result.getOrders().get(1).getOrderItems().size());
+        verify(productBatchRepository, times(1)).decrementStock(anyMap(), anyMap());
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<OrderItem>> items = ArgumentCaptor.forClass(List.class);
+        verify(orderBatchRepository, times(1)).insertOrderItems(items.capture());
+        assertEquals(4, items.getValue().size());
+        verify(salesRollupService, times(2)).recordOrder(any(Order.class), any());
+    }
+
+    private static Order hotOrder(Long id, LocalDateTime orderDate) {
+        User consumer = new User();
+        consumer.setId(1L);
+        User distributor = new User();
+        distributor.setId(2L);
+        Order order = new Order();
+        order.setId(id);
+        order.setConsumer(consumer);
+        order.setDistributor(distributor);
+        order.setOrderDate(orderDate);
+        return order;
+    }
+
+    private static OrderDTO archivedOrder(Long id, LocalDateTime orderDate) {
+        OrderDTO order = new OrderDTO();
+        order.setId(id);
+        order.setOrderDate(orderDate);
+        return order;
+    }
+
+    private int queriesForDistributorPageOf(int orders) {
+        clearInvocations(orderRepository, orderItemRepository, productRepository, userRepository);
+        User consumer = new User();
+        consumer.setId(1L);
+        User distributor = new User();
+        distributor.setId(2L);
+        List<Order> page = new ArrayList<>();
+        for (long id = orders; id >= 1; id--) {
+            Order order = new Order();
+            order.setId(id);
+            order.setConsumer(consumer);
+            order.setDistributor(distributor);
+            order.setOrderDate(LocalDateTime.of(2024, 1, 1, 0, 0).plusMinutes(id));
+            page.add(order);
+        }
+        when(orderRepository.findDistributorPage(eq(2L), any(), any(), any(), any(), any(), any())).thenReturn(page);
+        when(orderItemRepository.findViewsByOrderIdIn(anyCollection())).thenAnswer(invocation ->
+                invocation.<Collection<Long>>getArgument(0).stream()
+                        .map(orderId -> new OrderItemDTO(orderId, 7L, "Tomatoes", 1, 10.0, 10.0))
+                        .collect(Collectors.toList()));
+
+        CursorPageDTO<OrderDTO> result = orderService.getDistributorOrdersPage(2L, null, orders, null, null, null);
+
+        assertEquals(orders, result.getItems().size());
+        assertEquals(1, result.getItems().get(0).getOrderItems().size());
+        return countInvocations(orderRepository, orderItemRepository, productRepository, userRepository);
+    }
+
+    private int statementsForOrderWith(int items) {
+        clearInvocations(orderRepository, orderItemRepository, productRepository,
+                userRepository, productBatchRepository, orderBatchRepository);
+        stubUsersAndProducts(items);
+        when(productBatchRepository.decrementStock(anyMap(), anyMap())).thenAnswer(invocation -> {
+            int[] counts = new int[invocation.<Map<Long, Integer>>getArgument(0).size()];
+            Arrays.fill(counts, 1);
+            return counts;
+        });
+        when(orderRepository.save(any(Order.class))).thenAnswer(invocation -> {
+            Order order = invocation.getArgument(0);
+            order.setId(100L);
+            return order;
+        });
+        when(productBatchRepository.findQuantities(anyCollection())).thenAnswer(invocation -> {
+            Map<Long, Integer> quantities = new HashMap<>();
+            for (Long id : invocation.<Collection<Long>>getArgument(0)) {
+                quantities.put(id, 9);
+            }
+            return quantities;
+        });
+
+        Order order = orderService.createOrder(request(items), 1L);
+
+        assertEquals(items * 10.0, order.getTotalAmount());
+        verify(orderBatchRepository).insertOrderItems(eq(100L), any());
+
+        return countInvocations(orderRepository, orderItemRepository, productRepository,
+                userRepository, productBatchRepository, orderBatchRepository);
+    }
+
+    // One product with the given stock; decrements follow the SQL guard, holds are a real StockHoldService
+    private Map<Long, Integer> stubStockWithRealHolds(int quantity) {
+        stubUsersAndProducts(1);
+        Map<Long, Integer> stock = new HashMap<>(Map.of(1L, quantity));
+        when(productBatchRepository.decrementStock(anyMap(), anyMap())).thenAnswer(invocation -> {
+            Map<Long, Integer> requested = invocation.getArgument(0);
+            Map<Long, Integer> protectedUnits = invocation.getArgument(1);
+            int[] counts = new int[requested.size()];
+            int row = 0;
+            for (Map.Entry<Long, Integer> entry : requested.entrySet()) {
+                if (stock.get(entry.getKey()) - protectedUnits.getOrDefault(entry.getKey(), 0) >= entry.getValue()) {
+                    stock.merge(entry.getKey(), -entry.getValue(), Integer::sum);
+                    counts[row] = 1;
+                }
+                row++;
+            }
+            return counts;
+        });
+        when(productBatchRepository.findQuantities(anyCollection())).thenAnswer(invocation -> new HashMap<>(stock));
+        when(orderRepository.save(any(Order.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        StockHoldService holds = new StockHoldService();
+        ReflectionTestUtils.setField(holds, "productBatchRepository", productBatchRepository);
+        ReflectionTestUtils.setField(holds, "stockReservationEngine", stockReservationEngine);
+        ReflectionTestUtils.setField(holds, "holdTtlMillis", 60_000L);
+        ReflectionTestUtils.setField(holds, "tickMillis", 100L);
+        ReflectionTestUtils.setField(holds, "maxHoldsPerConsumer", 10);
+        holds.start();
+        ReflectionTestUtils.setField(orderService, "stockHoldService", holds);
+        return stock;
+    }
+
+    private void stopRealHolds() {
+        ((StockHoldService) ReflectionTestUtils.getField(orderService, "stockHoldService")).stop();
+    }
+
+    // Runs the work as one transaction that has not completed yet; see complete()
+    private static List<TransactionSynchronization> openTransaction(Runnable work) {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            work.run();
+            return TransactionSynchronizationManager.getSynchronizations();
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    private static void complete(List<TransactionSynchronization> synchronizations) {
+        synchronizations.forEach(TransactionSynchronization::afterCommit);
+        synchronizations.forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+    }
+
+    private static OrderRequestDTO requestFor(Long productId, int quantity) {
+        OrderRequestDTO request = request(1);
+        request.setItems(List.of(new OrderItemRequestDTO(productId, quantity)));
+        return request;
+    }
+
+    private void stubUsersAndProducts(int items) {
+        User consumer = new User();
+        consumer.setId(1L);
+        User distributor = new User();
+        distributor.setId(2L);
+        when(userRepository.findById(1L)).thenReturn(Optional.of(consumer));
+        when(userRepository.findById(2L)).thenReturn(Optional.of(distributor));
+
+        List<Product> products = new ArrayList<>();
+        for (long id = 1; id <= items; id++) {
+            Product product = new Product();
+            product.setId(id);
+            product.setName("Product " + id);
+            product.setPrice(10.0);
+            product.setQuantity(10);
+            product.setDistributorId(2L);
+            products.add(product);
+        }
+        when(productRepository.findAllById(anyCollection())).thenReturn(products);
+    }
+
+    private static OrderRequestDTO request(int items) {
+        OrderRequestDTO request = new OrderRequestDTO();
+        request.setDistributorId(2L);
+        request.setCustomerName("Customer");
+        request.setCustomerPhone("9999999999");
+        request.setShippingAddress("Address");
+        request.setPaymentMethod("COD");
+        request.setItems(LongStream.rangeClosed(1, items)
+                .mapToObj(id -> new OrderItemRequestDTO(id, 1))
+                .collect(Collectors.toList()));
+        return request;
+    }
+
+    private static int countInvocations(Object... mocks) {
+        int count = 0;
+        for (Object mock : mocks) {
+            count += mockingDetails(mock).getInvocations().size();
+        }
+        return count;
+    }
+}
@@ -0,0 +1,188 @@
+package com.farmchainx.backend.service;
+
+import com.farmchainx.backend.dto.ImportErrorDTO;
+import com.farmchainx.backend.dto.ProductImportReportDTO;
+import com.farmchainx.backend.entity.Product;
+import com.farmchainx.backend.event.ProductChangeEvent;
+import com.farmchainx.backend.repository.ProductBatchRepository;
+import com.farmchainx.backend.repository.UserRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.TransactionSystemException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class ProductImportServiceTest {
+
+    private static final String HEADER = "name,description,category,price,quantity,unit";
+
+    @Mock
+    private ProductBatchRepository productBatchRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @InjectMocks
+    private ProductImportService productImportService;
+
+    // Names of the products written by chunks that committed
+    private final List<String> committed = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(productImportService, "objectMapper", new ObjectMapper());
+        ReflectionTestUtils.setField(productImportService, "batchSize", 500);
+        ReflectionTestUtils.setField(productImportService, "chunkSize", 100);
+        when(userRepository.existsById(2L)).thenReturn(true);
+
+        // Run transaction callbacks inline
+        doAnswer(invocation -> {
+            invocation.<Consumer<TransactionStatus>>getArgument(0).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+        doAnswer(invocation -> {
+            invocation.<List<Product>>getArgument(0).forEach(product -> committed.add(product.getName()));
+            return null;
+        }).when(productBatchRepository).insertProducts(anyList(), anyInt());
+    }
+
+    @Test
+    void csvFieldsKeepQuotedCommasAndEscapedQuotes() {
+        assertEquals(List.of("Rice", "Long, thin grain", "say \"basmati\"", ""),
+                ProductImportService.parseCsvLine("Rice,\"Long, thin grain\",\"say \"\"basmati\"\"\","));
+        assertEquals(List.of("", ""), ProductImportService.parseCsvLine(","));
+        assertThrows(IllegalArgumentException.class, () -> ProductImportService.parseCsvLine("Rice,\"Long grain"));
+    }
+
+    @Test
+    void headerWithoutARequiredColumnFailsTheWholeImport() {
+        IllegalArgumentException error = assertThrows(IllegalArgumentException.class,
+                () -> importCsv("name,description,price", "Rice,Long grain,40"));
+
+        assertEquals("CSV header is missing the 'quantity' column", error.getMessage());
+        verify(productBatchRepository, never()).insertProducts(anyList(), anyInt());
+    }
+
+    @Test
+    void invalidRowsAreRejectedOneByOneAndTheRestImported() throws IOException {
+        ProductImportReportDTO report = importCsv(HEADER,
+                "Rice,\"Long, thin grain\",Grains,40.5,100,kg",
+                "Wheat,,Grains,abc,10,kg",
+                "Millet,,Grains,NaN,10,kg",
+                ",No name,Grains,10,10,kg",
+                "Oats,\"Rolled,Grains,10,10,kg",
+                "",
+                "Barley,,Grains,25,0,kg");
+
+        assertEquals(6, report.getRowsRead());
+        assertEquals(2, report.getRowsImported());
+        assertEquals(4, report.getRowsRejected());
+        assertEquals(List.of(2L, 3L, 4L, 5L), rows(report.getErrors()));
+        assertEquals("price is not a number: abc", report.getErrors().get(0).getMessage());
+        assertEquals("price must be a positive number", report.getErrors().get(1).getMessage());
+        assertEquals("name is required", report.getErrors().get(2).getMessage());
+        assertEquals("Unterminated quoted field", report.getErrors().get(3).getMessage());
+        assertEquals(List.of("Rice", "Barley"), committed);
+        verify(eventPublisher, times(1)).publishEvent(any(ProductChangeEvent.class));
+    }
+
+    @Test
+    void rolledBackChunkIsReportedPerRowAndTheImportGoesOn() throws IOException {
+        ReflectionTestUtils.setField(productImportService, "chunkSize", 2);
+        doAnswer(invocation -> {
+            throw new DataIntegrityViolationException("insert failed", new RuntimeException("Data too long for column 'unit'"));
+        }).doAnswer(invocation -> {
+            invocation.<List<Product>>getArgument(0).forEach(product -> committed.add(product.getName()));
+            return null;
+        }).when(productBatchRepository).insertProducts(anyList(), anyInt());
+
+        ProductImportReportDTO report = importCsv(HEADER,
+                "Rice,,Grains,40,1,kg", "Wheat,,Grains,30,1,kg", "Oats,,Grains,20,1,kg", "Barley,,Grains,25,1,kg");
+
+        assertEquals(2, report.getRowsImported());
+        assertEquals(List.of(1L, 2L), rows(report.getErrors()));
+        assertEquals("Not imported, batch rolled back: Data too long for column 'unit'",
+                report.getErrors().get(0).getMessage());
+        assertEquals(List.of("Oats", "Barley"), committed);
+    }
+
+    @Test
+    void failedCommitIsReportedPerRowInsteadOfAbortingTheImport() throws IOException {
+        ReflectionTestUtils.setField(productImportService, "chunkSize", 2);
+        doAnswer(invocation -> {
+            throw new TransactionSystemException("Could not commit JDBC transaction");
+        }).doAnswer(invocation -> {
+            invocation.<Consumer<TransactionStatus>>getArgument(0).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+
+        ProductImportReportDTO report = importCsv(HEADER,
+                "Rice,,Grains,40,1,kg", "Wheat,,Grains,30,1,kg", "Oats,,Grains,20,1,kg");
+
+        assertEquals(1, report.getRowsImported());
+        assertEquals(List.of(1L, 2L), rows(report.getErrors()));
+        assertTrue(report.getErrors().get(0).getMessage().startsWith("Not imported, batch rolled back"));
+        assertEquals(List.of("Oats"), committed);
+    }
+
+    @Test
+    void ndjsonRowsAreValidatedLikeCsvRows() throws IOException {
+        String body = "{\"name\":\"Rice\",\"price\":40,\"quantity\":5}\n{\"name\":\"Wheat\"\n{\"name\":\"Oats\",\"price\":-1,\"quantity\":5}\n";
+
+        ProductImportReportDTO report = productImportService.importProducts(2L,
+                new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)), "application/x-ndjson");
+
+        assertEquals("ndjson", report.getFormat());
+        assertEquals(1, report.getRowsImported());
+        assertEquals(List.of(2L, 3L), rows(report.getErrors()));
+        assertTrue(report.getErrors().get(0).getMessage().startsWith("Invalid JSON"));
+        assertEquals(List.of("Rice"), committed);
+    }
+
+    private ProductImportReportDTO importCsv(String... lines) throws IOException {
+        String body = String.join("\n", lines) + "\n";
+        return productImportService.importProducts(2L, new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)), "text/csv");
+    }
+
+    private static List<Long> rows(List<ImportErrorDTO> errors) {
+        return errors.stream().map(ImportErrorDTO::getRow).collect(Collectors.toList());
+    }
+}
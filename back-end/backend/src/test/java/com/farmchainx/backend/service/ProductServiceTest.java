@@ -0,0 +1,75 @@
+package com.farmchainx.backend.service;
+
+import com.farmchainx.backend.dto.BulkUpdateResultDTO;
+import com.farmchainx.backend.dto.ProductStockUpdateDTO;
+import com.farmchainx.backend.dto.RejectedItemDTO;
+import com.farmchainx.backend.event.ProductChangeEvent;
+import com.farmchainx.backend.repository.ProductBatchRepository;
+import com.farmchainx.backend.repository.ProductRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ProductServiceTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private ProductBatchRepository productBatchRepository;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @InjectMocks
+    private ProductService productService;
+
+    @Test
+    void failedBatchReportsTheRestAsRejectedAndStillPublishesCommittedChanges() {
+        ReflectionTestUtils.setField(productService, "bulkUpdateBatchSize", 2);
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        when(productRepository.findIdsByDistributorIdAndIdIn(eq(9L), anyList()))
+                .thenAnswer(invocation -> invocation.getArgument(1));
+        when(productBatchRepository.updatePriceAndStock(anyList(), eq(9L), anyInt()))
+                .thenReturn(new int[0][])
+                .thenThrow(new QueryTimeoutException("lock wait timeout"));
+
+        List<ProductStockUpdateDTO> updates = new ArrayList<>();
+        for (long id = 1; id <= 5; id++) {
+            updates.add(new ProductStockUpdateDTO(id, null, 10));
+        }
+        BulkUpdateResultDTO result = productService.bulkUpdatePriceAndStock(9L, updates);
+
+        assertEquals(List.of(1L, 2L), result.getUpdated());
+        assertEquals(List.of(3L, 4L, 5L), result.getRejected().stream().map(RejectedItemDTO::getId).toList());
+        assertTrue(result.getRejected().get(0).getReason().contains("lock wait timeout"));
+        ArgumentCaptor<ProductChangeEvent> event = ArgumentCaptor.forClass(ProductChangeEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertEquals(ProductChangeEvent.Type.BULK_CHANGED, event.getValue().getType());
+    }
+}
@@ -0,0 +1,127 @@
+package com.farmchainx.backend.service;
+
+import com.farmchainx.backend.dto.SalesPointDTO;
+import com.farmchainx.backend.dto.SalesReportDTO;
+import com.farmchainx.backend.entity.Order;
+import com.farmchainx.backend.entity.OrderItem;
+import com.farmchainx.backend.entity.Product;
+import com.farmchainx.backend.entity.SalesRollup;
+import com.farmchainx.backend.entity.User;
+import com.farmchainx.backend.repository.SalesRollupRepository;
+import com.farmchainx.backend.repository.SalesRollupRepository.OrderLine;
+import com.farmchainx.backend.repository.SalesRollupRepository.RollupDelta;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class SalesRollupServiceTest {
+
+    private static final LocalDate DAY = LocalDate.of(2024, 3, 6);
+
+    @Mock
+    private SalesRollupRepository salesRollupRepository;
+
+    @InjectMocks
+    private SalesRollupService salesRollupService;
+
+    @Test
+    void orderAddsTotalRowThenOneRowPerProductInIdOrder() {
+        Order order = new Order();
+        User distributor = new User();
+        distributor.setId(2L);
+        order.setDistributor(distributor);
+        order.setOrderDate(DAY.atTime(9, 30));
+
+        salesRollupService.recordOrder(order, List.of(item(9L, 2, 20.0), item(4L, 1, 5.0), item(9L, 1, 10.0)));
+
+        List<RollupDelta> deltas = capturedDeltas();
+        assertEquals(List.of(SalesRollup.ALL_PRODUCTS, 4L, 9L),
+                deltas.stream().map(RollupDelta::getProductId).collect(Collectors.toList()));
+        assertEquals(4, deltas.get(0).getQuantity());
+        assertEquals(35.0, deltas.get(0).getRevenue());
+        assertEquals(3, deltas.get(2).getQuantity());
+        deltas.forEach(delta -> assertEquals(1, delta.getOrders()));
+        deltas.forEach(delta -> assertEquals(DAY, delta.getDay()));
+    }
+
+    @Test
+    void cancellationSubtractsEachOrderOnce() {
+        LocalDateTime placed = DAY.atTime(12, 0);
+        when(salesRollupRepository.findOrderLines(List.of(1L, 2L))).thenReturn(List.of(
+                new OrderLine(1L, 2L, placed, 4L, 1, 5.0),
+                new OrderLine(1L, 2L, placed, 9L, 2, 20.0),
+                new OrderLine(2L, 2L, placed, 9L, 1, 10.0)));
+
+        salesRollupService.recordCancellations(List.of(1L, 2L));
+
+        List<RollupDelta> deltas = capturedDeltas();
+        assertEquals(3, deltas.size());
+        RollupDelta total = deltas.get(0);
+        assertEquals(SalesRollup.ALL_PRODUCTS, total.getProductId());
+        assertEquals(-2, total.getOrders());
+        assertEquals(-4, total.getQuantity());
+        assertEquals(-35.0, total.getRevenue());
+        assertEquals(-2, deltas.get(2).getOrders());
+    }
+
+    @Test
+    void weeklyReportBucketsDaysAndFillsEmptyWeeks() {
+        LocalDate from = LocalDate.of(2024, 3, 4);   // Monday
+        LocalDate to = LocalDate.of(2024, 3, 24);    // Sunday, three weeks
+        when(salesRollupRepository.findDaily(2L, SalesRollup.ALL_PRODUCTS, from, to.plusDays(1))).thenReturn(List.of(
+                new SalesPointDTO(LocalDate.of(2024, 3, 5), 2, 6, 60.0),
+                new SalesPointDTO(LocalDate.of(2024, 3, 10), 1, 1, 10.0),
+                new SalesPointDTO(LocalDate.of(2024, 3, 20), 3, 3, 30.0)));
+        when(salesRollupRepository.findProductTotals(eq(2L), any(), any())).thenReturn(List.of());
+
+        SalesReportDTO report = salesRollupService.getReport(2L, from, to, "week", null);
+
+        assertEquals(3, report.getSeries().size());
+        assertEquals(3, report.getSeries().get(0).getOrders());
+        assertEquals(0, report.getSeries().get(1).getOrders());
+        assertEquals(30.0, report.getSeries().get(2).getRevenue());
+        assertEquals(6, report.getTotals().getOrders());
+        assertEquals(100.0, report.getTotals().getRevenue());
+    }
+
+    @Test
+    void reportRejectsInvertedRangeAndUnknownGranularity() {
+        assertThrows(IllegalArgumentException.class,
+                () -> salesRollupService.getReport(2L, DAY, DAY.minusDays(1), "day", null));
+        assertThrows(IllegalArgumentException.class,
+                () -> salesRollupService.getReport(2L, DAY, DAY, "hour", null));
+    }
+
+    private List<RollupDelta> capturedDeltas() {
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<RollupDelta>> captor = ArgumentCaptor.forClass(List.class);
+        verify(salesRollupRepository).applyDeltas(captor.capture());
+        return captor.getValue();
+    }
+
+    private static OrderItem item(Long productId, int quantity, double subtotal) {
+        Product product = new Product();
+        product.setId(productId);
+        OrderItem item = new OrderItem();
+        item.setProduct(product);
+        item.setQuantity(quantity);
+        item.setSubtotal(subtotal);
+        return item;
+    }
+}
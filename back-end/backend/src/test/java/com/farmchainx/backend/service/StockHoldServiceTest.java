@@ -0,0 +1,129 @@
+package com.farmchainx.backend.service;
+
+import com.farmchainx.backend.dto.ProductDTO;
+import com.farmchainx.backend.repository.ProductBatchRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class StockHoldServiceTest {
+
+    @Mock
+    private ProductBatchRepository productBatchRepository;
+
+    @Mock
+    private StockReservationEngine stockReservationEngine;
+
+    @InjectMocks
+    private StockHoldService stockHoldService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(stockHoldService, "holdTtlMillis", 60_000L);
+        ReflectionTestUtils.setField(stockHoldService, "tickMillis", 100L);
+        ReflectionTestUtils.setField(stockHoldService, "maxHoldsPerConsumer", 10);
+        stockHoldService.start();
+        when(productBatchRepository.findQuantities(anyCollection())).thenReturn(Map.of(7L, 10));
+    }
+
+    @AfterEach
+    void tearDown() {
+        stockHoldService.stop();
+    }
+
+    @Test
+    void holdsReduceAvailableToPromiseForOtherConsumersOnly() {
+        stockHoldService.hold(1L, 7L, 6);
+
+        assertThrows(IllegalArgumentException.class, () -> stockHoldService.hold(2L, 7L, 5));
+        stockHoldService.hold(2L, 7L, 4);
+        // Raising one's own hold only competes with the other carts
+        assertThrows(IllegalArgumentException.class, () -> stockHoldService.hold(1L, 7L, 7));
+        stockHoldService.hold(1L, 7L, 3);
+
+        assertEquals(7, stockHoldService.heldQuantity(7L));
+        assertEquals(4, stockHoldService.heldByOthers(7L, 1L));
+        ProductDTO product = new ProductDTO();
+        product.setId(7L);
+        product.setQuantity(10);
+        stockHoldService.applyAvailableToPromise(List.of(product));
+        assertEquals(3, product.getAvailableToPromise());
+    }
+
+    @Test
+    void ordersLeaveOtherHoldsBehindAndBlockNewHoldsUntilTheirTakeIsVisible() {
+        stockHoldService.hold(1L, 7L, 4);
+
+        Map<Long, Integer> protectedUnits = stockHoldService.startTaking(2L, Map.of(7L, 5));
+
+        assertEquals(4, protectedUnits.get(7L));
+        // Stock still reads 10 until the order commits, but its 5 units are already spoken for
+        assertThrows(IllegalArgumentException.class, () -> stockHoldService.hold(3L, 7L, 2));
+        stockHoldService.hold(3L, 7L, 1);
+        // Another order leaves both holds; the first order's units are already gone from its decrement's view
+        assertEquals(Map.of(7L, 5), stockHoldService.startTaking(4L, Map.of(7L, 1)));
+
+        stockHoldService.finishTaking(Map.of(7L, 5));
+        stockHoldService.finishTaking(Map.of(7L, 1));
+        assertEquals(0L, stockHoldService.getStats().get("unitsBeingTaken"));
+    }
+
+    @Test
+    void holdReadsStockAgainWhenATakeFinishesDuringTheRead() {
+        stockHoldService.startTaking(2L, Map.of(7L, 5));
+        AtomicInteger reads = new AtomicInteger();
+        when(productBatchRepository.findQuantities(anyCollection())).thenAnswer(invocation -> {
+            if (reads.incrementAndGet() == 1) {
+                // Read before the order committed, checked after it did
+                stockHoldService.finishTaking(Map.of(7L, 5));
+                return Map.of(7L, 10);
+            }
+            return Map.of(7L, 5);
+        });
+
+        assertThrows(IllegalArgumentException.class, () -> stockHoldService.hold(3L, 7L, 6));
+
+        assertEquals(2, reads.get());
+        assertEquals(1L, stockHoldService.getStats().get("staleStockReads"));
+    }
+
+    @Test
+    void expiredHoldsReleaseTheirUnits() {
+        stockHoldService.hold(1L, 7L, 10);
+
+        assertEquals(0, stockHoldService.expireDue(System.currentTimeMillis() + 30_000));
+        assertEquals(1, stockHoldService.expireDue(System.currentTimeMillis() + 61_000));
+
+        assertEquals(0, stockHoldService.heldQuantity(7L));
+        assertEquals(List.of(), stockHoldService.getHolds(1L));
+        stockHoldService.hold(2L, 7L, 10);
+    }
+
+    @Test
+    void checkoutOutsideATransactionConvertsHoldsImmediately() {
+        stockHoldService.hold(1L, 7L, 2);
+
+        stockHoldService.convertOnCommit(1L, List.of(7L));
+
+        assertEquals(0, stockHoldService.heldQuantity(7L));
+        assertEquals(1L, stockHoldService.getStats().get("converted"));
+    }
+}
@@ -0,0 +1,30 @@
+package com.farmchainx.backend.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class FacetIndexTest {
+
+    @Test
+    void pagesStayInIdOrderWhenSlotsAreReused() {
+        FacetIndex index = new FacetIndex();
+        for (long id = 1; id <= 5; id++) {
+            index.put(id, "Vegetables", "kg", 9, "Agro", 10.0 * id);
+        }
+        // Frees slot 1 and 0, then hands them to a new product and to an update
+        index.remove(2);
+        index.put(1, "Vegetables", "kg", 9, "Agro", 12.0);
+        index.put(7, "Vegetables", "kg", 9, "Agro", 70.0);
+
+        FacetIndex.Selection all = new FacetIndex.Selection();
+        FacetIndex.Result first = index.query(all, 0, 3);
+        FacetIndex.Result second = index.query(all, 3, 3);
+
+        assertEquals(5, first.getTotal());
+        assertArrayEquals(new long[] {1, 3, 4}, first.getIds());
+        assertArrayEquals(new long[] {5, 7}, second.getIds());
+        assertArrayEquals(new long[0], index.query(all, 10, 3).getIds());
+    }
+}
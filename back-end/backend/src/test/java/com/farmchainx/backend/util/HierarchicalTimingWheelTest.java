@@ -0,0 +1,75 @@
+package com.farmchainx.backend.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HierarchicalTimingWheelTest {
+
+    @Test
+    void everyTimeoutFiresOnTheFirstTickAtOrAfterItsDeadline() {
+        long start = 1_000_000;
+        HierarchicalTimingWheel<Long> wheel = new HierarchicalTimingWheel<>(10, 8, 3, start);
+        Random random = new Random(42);
+        Map<Long, Long> deadlines = new HashMap<>();
+        // Spread across all levels, including deadlines past the top level's 5120 ms range
+        for (long id = 0; id < 20_000; id++) {
+            long deadline = start + 1 + random.nextInt(12_000);
+            deadlines.put(id, deadline);
+            wheel.schedule(id, deadline);
+        }
+
+        Map<Long, Long> firedAt = new HashMap<>();
+        for (long now = start; now <= start + 12_100; now += 10) {
+            long tickTime = now;
+            wheel.advance(now, id -> firedAt.put(id, tickTime));
+        }
+
+        assertEquals(deadlines.size(), firedAt.size());
+        assertEquals(0, wheel.size());
+        deadlines.forEach((id, deadline) -> {
+            long fired = firedAt.get(id);
+            assertTrue(fired >= deadline, "fired early: " + id);
+            assertTrue(fired < deadline + 10, "fired late: " + id);
+        });
+    }
+
+    @Test
+    void cancelledTimeoutsNeverFire() {
+        HierarchicalTimingWheel<String> wheel = new HierarchicalTimingWheel<>(100, 64, 4, 0);
+        HierarchicalTimingWheel.Timeout<String> kept = wheel.schedule("kept", 500);
+        HierarchicalTimingWheel.Timeout<String> cancelled = wheel.schedule("cancelled", 500);
+
+        assertTrue(wheel.cancel(cancelled));
+        assertFalse(wheel.cancel(cancelled));
+        List<String> fired = new ArrayList<>();
+        assertEquals(1, wheel.advance(1_000, fired::add));
+
+        assertEquals(List.of("kept"), fired);
+        assertFalse(kept.isPending());
+        assertFalse(wheel.cancel(kept));
+    }
+
+    @Test
+    void largeJumpFiresEverythingDueInDeadlineOrder() {
+        HierarchicalTimingWheel<Integer> wheel = new HierarchicalTimingWheel<>(1, 16, 2, 0);
+        wheel.schedule(3, 300);
+        wheel.schedule(1, 5);
+        wheel.schedule(2, 40);
+        wheel.schedule(4, 10_000);
+
+        List<Integer> fired = new ArrayList<>();
+        wheel.advance(1_000, fired::add);
+
+        assertEquals(List.of(1, 2, 3), fired);
+        assertEquals(1, wheel.size());
+    }
+}
@@ -0,0 +1,96 @@
+package com.farmchainx.backend.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class InvertedIndexTest {
+
+    // Name, description, category, weighted like ProductSearchService
+    private static final float[] WEIGHTS = {3.0f, 1.0f, 2.0f};
+
+    @Test
+    void ranksByMatchedTermsThenByScore() {
+        InvertedIndex index = new InvertedIndex();
+        index.put(1, new String[] {"Carrots", "Fresh organic carrots from the hills", "Vegetables"}, WEIGHTS);
+        index.put(2, new String[] {"Organic tomatoes", "Vine ripened", "Vegetables"}, WEIGHTS);
+        index.put(3, new String[] {"Tomato ketchup", "Made with organic tomatoes", "Sauces"}, WEIGHTS);
+        index.put(4, new String[] {"Basmati rice", "Long grain", "Grains"}, WEIGHTS);
+
+        // Both terms beat one term; within one term a name match beats a description match
+        assertEquals(List.of(2L, 3L, 1L), ids(index.search("organic tomatoes", 10)));
+        assertEquals(List.of(2L, 3L), ids(index.search("tomatoes", 10)));
+        assertEquals(List.of(2L), ids(index.search("organic tomatoes", 1)));
+        assertTrue(index.search("mango", 10).isEmpty());
+    }
+
+    @Test
+    void typosAndPrefixesMatchBelowExactTerms() {
+        InvertedIndex index = new InvertedIndex();
+        index.put(1, new String[] {"Potatoes", "", "Vegetables"}, WEIGHTS);
+        index.put(2, new String[] {"Potato chips", "", "Snacks"}, WEIGHTS);
+
+        // Substitution, deletion, insertion and a swap of adjacent characters
+        assertEquals(List.of(2L), ids(index.search("potatp", 10)));
+        assertEquals(List.of(2L), ids(index.search("potto", 10)));
+        assertEquals(List.of(2L), ids(index.search("pottato", 10)));
+        assertEquals(List.of(2L), ids(index.search("potaot", 10)));
+        // "potato" is exact for 2 and a prefix of "potatoes" in 1
+        assertEquals(List.of(2L, 1L), ids(index.search("potato", 10)));
+        // Short terms still match as prefixes, but are too short to be matched fuzzily
+        assertEquals(2, index.search("pot", 10).size());
+        assertTrue(index.search("chp", 10).isEmpty());
+    }
+
+    @Test
+    void removedDocumentsAndTheirTermsDisappear() {
+        InvertedIndex index = new InvertedIndex();
+        index.put(1, new String[] {"Mangoes", "Alphonso", "Fruits"}, WEIGHTS);
+        index.put(2, new String[] {"Bananas", "", "Fruits"}, WEIGHTS);
+
+        index.remove(1);
+        index.remove(99);
+
+        assertEquals(1, index.size());
+        assertTrue(index.search("mangoes", 10).isEmpty());
+        assertTrue(index.search("mangos", 10).isEmpty());
+        assertEquals(List.of(2L), ids(index.search("fruits", 10)));
+    }
+
+    @Test
+    void reindexingReplacesTheOldTextAndReusesFreedSlots() {
+        InvertedIndex index = new InvertedIndex();
+        index.put(1, new String[] {"Green peas", "", "Vegetables"}, WEIGHTS);
+        index.put(2, new String[] {"Lentils", "", "Pulses"}, WEIGHTS);
+        index.remove(2);
+        index.put(3, new String[] {"Chickpeas", "", "Pulses"}, WEIGHTS);
+
+        index.put(1, new String[] {"Sweet corn", "", "Vegetables"}, WEIGHTS);
+
+        assertEquals(2, index.size());
+        assertTrue(index.search("peas", 10).isEmpty());
+        assertTrue(index.search("lentils", 10).isEmpty());
+        assertEquals(List.of(1L), ids(index.search("corn", 10)));
+        assertEquals(List.of(3L), ids(index.search("pulses", 10)));
+    }
+
+    @Test
+    void oneEditCoversEachKindOfTypoOnly() {
+        assertTrue(InvertedIndex.withinOneEdit("onion", "onion"));
+        assertTrue(InvertedIndex.withinOneEdit("onion", "onoin"));
+        assertTrue(InvertedIndex.withinOneEdit("onion", "onin"));
+        assertTrue(InvertedIndex.withinOneEdit("onion", "onions"));
+        assertTrue(InvertedIndex.withinOneEdit("onion", "anion"));
+        assertFalse(InvertedIndex.withinOneEdit("onion", "noino"));
+        assertFalse(InvertedIndex.withinOneEdit("onion", "oni"));
+    }
+
+    private static List<Long> ids(List<InvertedIndex.Hit> hits) {
+        return hits.stream().map(InvertedIndex.Hit::getId).collect(Collectors.toList());
+    }
+}
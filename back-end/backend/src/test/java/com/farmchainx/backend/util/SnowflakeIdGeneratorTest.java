@@ -0,0 +1,118 @@
+package com.farmchainx.backend.util;
+
+import com.farmchainx.backend.service.SnowflakeOrderNumberGenerator;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SnowflakeIdGeneratorTest {
+
+    @Test
+    void idsAreUniqueAndIncreasingPerThreadUnderContention() throws Exception {
+        int threads = 32;
+        int perThread = 50_000;
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(7);
+        long[][] ids = new long[threads][perThread];
+
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            long[] mine = ids[t];
+            Thread worker = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                for (int i = 0; i < perThread; i++) {
+                    mine[i] = generator.nextId();
+                }
+            });
+            worker.start();
+            workers.add(worker);
+        }
+        start.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+
+        Set<Long> seen = new HashSet<>(threads * perThread * 2);
+        for (long[] mine : ids) {
+            for (int i = 0; i < perThread; i++) {
+                assertTrue(seen.add(mine[i]), "duplicate id " + mine[i]);
+                if (i > 0) {
+                    assertTrue(mine[i] > mine[i - 1], "ids went backwards within a thread");
+                }
+                assertEquals(7, SnowflakeIdGenerator.nodeIdOf(mine[i]));
+            }
+        }
+    }
+
+    @Test
+    void sameMillisecondOnTwoNodesNeverCollides() {
+        SnowflakeIdGenerator nodeA = new SnowflakeIdGenerator(1, () -> 1_750_000_000_000L);
+        SnowflakeIdGenerator nodeB = new SnowflakeIdGenerator(2, () -> 1_750_000_000_000L);
+        Set<Long> seen = new HashSet<>();
+        for (int i = 0; i < 10_000; i++) {
+            assertTrue(seen.add(nodeA.nextId()));
+            assertTrue(seen.add(nodeB.nextId()));
+        }
+    }
+
+    @Test
+    void sequenceOverflowAndClockStepBackKeepIdsIncreasing() {
+        AtomicLong clock = new AtomicLong(1_750_000_000_000L);
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(3, clock::get);
+
+        long previous = generator.nextId();
+        // More than 4096 ids in one millisecond carry into the next millisecond
+        for (int i = 0; i < 10_000; i++) {
+            long id = generator.nextId();
+            assertTrue(id > previous);
+            previous = id;
+        }
+        assertTrue(SnowflakeIdGenerator.timestampOf(previous) > clock.get());
+
+        clock.addAndGet(-5_000);
+        long afterStepBack = generator.nextId();
+        assertTrue(afterStepBack > previous);
+
+        clock.addAndGet(60_000);
+        long afterCatchUp = generator.nextId();
+        assertEquals(clock.get(), SnowflakeIdGenerator.timestampOf(afterCatchUp));
+    }
+
+    @Test
+    void orderNumbersSortAsStringsInCreationOrder() {
+        AtomicLong clock = new AtomicLong(1_750_000_000_000L);
+        SnowflakeOrderNumberGenerator numbers = new SnowflakeOrderNumberGenerator(new SnowflakeIdGenerator(5, clock::get));
+
+        String first = numbers.nextOrderNumber();
+        clock.addAndGet(1);
+        String second = numbers.nextOrderNumber();
+        clock.addAndGet(86_400_000L * 365 * 20);
+        String third = numbers.nextOrderNumber();
+
+        assertEquals(17, first.length());
+        assertTrue(first.startsWith("ORD-"));
+        assertTrue(first.compareTo(second) < 0);
+        assertTrue(second.compareTo(third) < 0);
+        assertEquals(first.length(), third.length());
+    }
+
+    @Test
+    void rejectsNodeIdsOutsideTenBits() {
+        assertThrows(IllegalArgumentException.class, () -> new SnowflakeIdGenerator(-1));
+        assertThrows(IllegalArgumentException.class, () -> new SnowflakeIdGenerator(1024));
+    }
+}
@@ -0,0 +1,117 @@
+package com.farmchainx.backend.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StripedStockCounterTest {
+
+    private static final int BUYERS = 400;
+
+    @Test
+    void neverOversellsUnderHundredsOfConcurrentBuyersOnOneProduct() throws Exception {
+        long initialStock = 50_000;
+        StripedStockCounter counter = new StripedStockCounter(initialStock, StripedStockCounter.defaultStripes());
+        AtomicLong sold = new AtomicLong();
+
+        runBuyers(BUYERS, () -> {
+            // Keep buying 1-3 units until the counter says sold out twice in a row
+            int misses = 0;
+            while (misses < 2) {
+                int quantity = 1 + ThreadLocalRandom.current().nextInt(3);
+                if (counter.tryReserve(quantity)) {
+                    sold.addAndGet(quantity);
+                    misses = 0;
+                } else {
+                    misses++;
+                }
+            }
+        });
+
+        long remaining = counter.available();
+        assertTrue(remaining >= 0);
+        assertEquals(initialStock, sold.get() + remaining, "every unit is either sold or still in stock");
+        assertTrue(sold.get() <= initialStock, "oversold by " + (sold.get() - initialStock));
+        // Once the buyers are gone whatever is left can be taken in one go
+        if (remaining > 0) {
+            assertTrue(counter.tryReserve(remaining));
+        }
+        assertEquals(0, counter.available());
+    }
+
+    @Test
+    void releasedUnitsCanBeReservedAgain() throws Exception {
+        StripedStockCounter counter = new StripedStockCounter(1_000, 8);
+
+        runBuyers(BUYERS, () -> {
+            for (int i = 0; i < 200; i++) {
+                if (counter.tryReserve(2)) {
+                    counter.release(2);
+                }
+            }
+        });
+
+        assertEquals(1_000, counter.available());
+        assertTrue(counter.tryReserve(1_000));
+        assertFalse(counter.tryReserve(1));
+    }
+
+    @Test
+    void reservationIsAllOrNothingAcrossStripes() {
+        StripedStockCounter counter = new StripedStockCounter(10, 4);
+
+        assertFalse(counter.tryReserve(11));
+        assertEquals(10, counter.available());
+        assertTrue(counter.tryReserve(10));
+        assertEquals(0, counter.available());
+        assertThrows(IllegalArgumentException.class, () -> new StripedStockCounter(10, 3));
+    }
+
+    @Test
+    void everySuccessfulReservationIsCountedOnceForOneAndManyThreads() throws Exception {
+        for (int threads : new int[] {1, BUYERS}) {
+            StripedStockCounter counter = new StripedStockCounter(Long.MAX_VALUE / 2, StripedStockCounter.defaultStripes());
+            int perThread = 200_000 / threads;
+            runBuyers(threads, () -> {
+                for (int i = 0; i < perThread; i++) {
+                    assertTrue(counter.tryReserve(1));
+                }
+            });
+            assertEquals(Long.MAX_VALUE / 2 - (long) perThread * threads, counter.available());
+        }
+    }
+
+    private static void runBuyers(int buyers, Runnable buyer) throws InterruptedException {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>(buyers);
+        List<Throwable> failures = new ArrayList<>();
+        for (int i = 0; i < buyers; i++) {
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                    buyer.run();
+                } catch (Throwable e) {
+                    synchronized (failures) {
+                        failures.add(e);
+                    }
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertTrue(failures.isEmpty(), () -> "buyer failed: " + failures.get(0));
+    }
+}